@@ -0,0 +1,37 @@
+package lib.bench;
+
+import lib.javafx.Task;
+import lib.json.DatasetGenerator;
+import lib.json.JSONHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * The benchmark datasets: {@link DatasetGenerator} files with its default skew and a fixed
+ * seed. The anchor is today, so the share of overdue tasks does not depend on the day the
+ * benchmark runs.
+ */
+final class BenchmarkData {
+
+    private static final long SEED = 42;
+
+    private BenchmarkData() {}
+
+    /**
+     * Writes the files for this size into {@link JSONHandler#DATA_DIR}, which the benchmarks
+     * point at a directory of their own with {@code -Dtaskmanager.dir}.
+     *
+     * @return the tasks as {@link JSONHandler} reads them back
+     */
+    static List<Task> writeFiles(int size) {
+        try {
+            new DatasetGenerator().seed(SEED).tasks(size).writeTo(new File(JSONHandler.DATA_DIR));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return JSONHandler.readTasks();
+    }
+}
@@ -0,0 +1,39 @@
+package lib.bench;
+
+import lib.javafx.Task;
+import lib.javafx.TaskSearch;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.List;
+
+/**
+ * The task table's search ({@link TaskSearch#find}), which replaced
+ * {@code TaskManager.applyFilters}, for the kinds of query the search bar produces.
+ */
+public class FilterBenchmark {
+
+    private static final TaskSearch.Query TITLE = new TaskSearch.Query("budget rev", "", "All", "All");
+    private static final TaskSearch.Query SHORT_TITLE = new TaskSearch.Query("gy", "", "All", "All");
+    private static final TaskSearch.Query CATEGORY_AND_PRIORITY = new TaskSearch.Query("", "", "work", "high");
+    private static final TaskSearch.Query EVERY_CONTROL = new TaskSearch.Query("report", "", "uni", "low");
+
+    @Benchmark
+    public List<Task> title(RepositoryState repository) {
+        return TaskSearch.find(TITLE);
+    }
+
+    @Benchmark
+    public List<Task> shortTitle(RepositoryState repository) {
+        return TaskSearch.find(SHORT_TITLE); // Below three characters: a scan of the indexed texts
+    }
+
+    @Benchmark
+    public List<Task> categoryAndPriority(RepositoryState repository) {
+        return TaskSearch.find(CATEGORY_AND_PRIORITY);
+    }
+
+    @Benchmark
+    public List<Task> everyControl(RepositoryState repository) {
+        return TaskSearch.find(EVERY_CONTROL);
+    }
+}
@@ -0,0 +1,39 @@
+package lib.bench;
+
+import lib.javafx.Task;
+import lib.json.JSONHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Reading and writing the whole {@code tasks.json} file through {@link JSONHandler}.
+ */
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void writeFiles() {
+        tasks = BenchmarkData.writeFiles(size);
+    }
+
+    @Benchmark
+    public List<Task> readTasks() {
+        return JSONHandler.readTasks();
+    }
+
+    @Benchmark
+    public void writeTasks() {
+        JSONHandler.writeTasks(tasks);
+    }
+}
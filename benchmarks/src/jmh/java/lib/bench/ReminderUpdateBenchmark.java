@@ -0,0 +1,43 @@
+package lib.bench;
+
+import lib.javafx.Reminder;
+import lib.javafx.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A bulk edit of reminders as {@code ReminderHandler} saves it: one percent of the reminders
+ * get a new message and are handed to {@link TaskRepository#updateReminders} in one call.
+ * Consecutive calls edit the next batch.
+ */
+@State(Scope.Benchmark)
+public class ReminderUpdateBenchmark {
+
+    private List<Reminder> reminders;
+    private int next;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void copyReminders(RepositoryState repository) {
+        reminders = new ArrayList<>(TaskRepository.getReminders());
+    }
+
+    @Benchmark
+    public List<Reminder> updateReminders() {
+        int batch = Math.max(1, reminders.size() / 100);
+        List<Reminder> changed = new ArrayList<>(batch);
+        for (int i = 0; i < batch; i++) {
+            Reminder reminder = reminders.get(next++ % reminders.size());
+            reminder.setMessage("edited " + round);
+            changed.add(reminder);
+        }
+        round++;
+        return TaskRepository.updateReminders(changed);
+    }
+}
@@ -0,0 +1,29 @@
+package lib.bench;
+
+import lib.javafx.TaskRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The repository loaded with {@link #size} tasks. The repository is a process-wide singleton
+ * and JMH forks a JVM per benchmark and size, so each fork loads exactly one dataset. The
+ * build runs with {@code -Dtaskmanager.store=memory}: changes are never written back.
+ */
+@State(Scope.Benchmark)
+public class RepositoryState {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Setup(Level.Trial)
+    public void load() {
+        BenchmarkData.writeFiles(size);
+        TaskRepository.load();
+        if (TaskRepository.getTasks().size() != size) {
+            throw new IllegalStateException("Loaded " + TaskRepository.getTasks().size() + " tasks, expected " + size);
+        }
+    }
+}
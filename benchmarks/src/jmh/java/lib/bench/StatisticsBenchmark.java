@@ -0,0 +1,25 @@
+package lib.bench;
+
+import lib.javafx.Dates;
+import lib.javafx.TaskRepository;
+import lib.javafx.TaskStatistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Everything the Medialab Assistant reads to redraw its summary after a change
+ * ({@code TaskManager.updateTaskStatistics}).
+ */
+public class StatisticsBenchmark {
+
+    @Benchmark
+    public void assistantSummary(RepositoryState repository, Blackhole blackhole) {
+        TaskStatistics stats = TaskRepository.getStatistics();
+        blackhole.consume(stats.total());
+        blackhole.consume(stats.countWithStatus("Completed"));
+        blackhole.consume(stats.countWithStatus("Delayed"));
+        blackhole.consume(stats.countDueWithin(Dates.today(), 7));
+        blackhole.consume(stats.byCategory());
+        blackhole.consume(stats.byPriority());
+    }
+}
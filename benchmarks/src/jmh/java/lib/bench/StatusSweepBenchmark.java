@@ -0,0 +1,51 @@
+package lib.bench;
+
+import lib.javafx.Dates;
+import lib.javafx.Task;
+import lib.javafx.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link TaskRepository#updateStatuses()}, which the task window runs on every open and save.
+ * Before each call one percent of the overdue tasks are reopened, so that every call has the
+ * same amount of work to do.
+ */
+@State(Scope.Benchmark)
+public class StatusSweepBenchmark {
+
+    private List<Task> overdue;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void findOverdue(RepositoryState repository) {
+        long today = Dates.today();
+        overdue = new ArrayList<>();
+        for (Task task : TaskRepository.getTasks()) {
+            if (task.getDueEpochDay() < today && !"Completed".equals(task.getStatus())) overdue.add(task);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void reopenBatch() {
+        int batch = Math.max(1, overdue.size() / 100);
+        List<Task> reopened = new ArrayList<>(batch);
+        for (int i = 0; i < batch; i++) {
+            Task task = overdue.get(next++ % overdue.size());
+            task.setStatus("Open");
+            reopened.add(task);
+        }
+        TaskRepository.updateTasks(reopened);
+    }
+
+    @Benchmark
+    public List<Task> updateStatuses() {
+        return TaskRepository.updateStatuses();
+    }
+}
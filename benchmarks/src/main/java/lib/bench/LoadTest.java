@@ -0,0 +1,506 @@
+package lib.bench;
+
+import lib.javafx.CategoryHandler;
+import lib.javafx.Dates;
+import lib.javafx.PriorityHandler;
+import lib.javafx.Task;
+import lib.javafx.TaskRepository;
+import lib.javafx.TaskSearch;
+import lib.javafx.TaskService;
+import lib.json.DatasetGenerator;
+import lib.json.JSONHandler;
+import lib.json.StoreStats;
+import lib.metrics.Metrics;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+
+/**
+ * Replays a mixed workload against {@link TaskService} at a target rate from several concurrent
+ * clients, and reports latency percentiles per operation and the bytes the store wrote.
+ *
+ * <p>Operations run one at a time on a single owner thread, as they run on the JavaFX thread in
+ * the app; the clients only choose what to send and when. Each client sends its share of the
+ * target rate on a fixed schedule, and latency is measured from the time an operation was due
+ * rather than from when it was sent, so a stalled owner shows up as latency instead of as a
+ * lower request rate.
+ *
+ * <p>The data directory and the store are the app's: {@code -Dtaskmanager.dir} and
+ * {@code -Dtaskmanager.store}. See the {@code loadTest} task of this module.
+ */
+public final class LoadTest {
+
+    /** The operations of the workload, as named in {@code --mix}. */
+    enum Op {
+        ADD("add"), EDIT("edit"), DELETE("delete"), REMINDER("reminder"), SEARCH("search"), STATS("stats"),
+        RENAME_CATEGORY("renameCategory"), DELETE_CATEGORY("deleteCategory"),
+        RENAME_PRIORITY("renamePriority"), DELETE_PRIORITY("deletePriority");
+
+        final String label;
+
+        Op(String label) {
+            this.label = label;
+        }
+
+        static Op of(String label) {
+            for (Op op : values()) {
+                if (op.label.equalsIgnoreCase(label)) return op;
+            }
+            throw new IllegalArgumentException("Unknown operation " + label);
+        }
+    }
+
+    private static final String DEFAULT_MIX = "search=40,stats=10,add=15,edit=15,delete=8,reminder=8,"
+            + "renameCategory=1,deleteCategory=1,renamePriority=1,deletePriority=1";
+
+    private static final String USAGE = """
+            Usage: LoadTest [options]
+              --tasks N          generate N tasks into the data directory first (default 100000; 0 keeps its files)
+              --rate N           target operations per second, over all clients (default 1000)
+              --clients N        concurrent clients (default 4)
+              --duration S       measured seconds (default 30)
+              --warmup S         seconds run first and not measured (default 10)
+              --mix OP=W,...     operation weights (default %s)
+              --seed N           random seed of the dataset and the workload (default 42)""".formatted(DEFAULT_MIX);
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        int tasks = 100_000;
+        double rate = 1000;
+        int clients = 4;
+        int duration = 30;
+        int warmup = 10;
+        long seed = 42;
+        Map<Op, Double> mix = parseMix(DEFAULT_MIX);
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + option);
+                String value = args[++i];
+                switch (option) {
+                    case "--tasks" -> tasks = Integer.parseInt(value);
+                    case "--rate" -> rate = Double.parseDouble(value);
+                    case "--clients" -> clients = Integer.parseInt(value);
+                    case "--duration" -> duration = Integer.parseInt(value);
+                    case "--warmup" -> warmup = Integer.parseInt(value);
+                    case "--mix" -> mix = parseMix(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+            if (rate <= 0 || clients <= 0 || duration <= 0 || warmup < 0) {
+                throw new IllegalArgumentException("Rate, clients and duration must be positive");
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return;
+        }
+
+        File dir = new File(JSONHandler.DATA_DIR);
+        if (tasks > 0) {
+            DatasetGenerator.Written written = new DatasetGenerator().seed(seed).tasks(tasks).writeTo(dir);
+            System.out.println("📂 Generated " + written.tasks() + " tasks and " + written.reminders() + " reminders in " + dir);
+        }
+
+        ExecutorService owner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "repository-owner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Workload workload = new Workload(seed);
+        owner.submit(workload::setUp).get();
+        System.out.println("📊 Loaded " + TaskRepository.getTasks().size() + " tasks into the "
+                + System.getProperty("taskmanager.store", "json") + " store; running " + clients + " clients at "
+                + rate + " ops/s for " + warmup + " s warmup and " + duration + " s measured");
+
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100); // Time to start the clients
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmup);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(duration);
+        long interval = (long) (clients * 1e9 / rate);
+
+        List<Client> running = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            Client client = new Client(owner, workload, new WeightedOps(mix), new Random(seed + i),
+                    start + i * interval / clients, interval, measureFrom, end);
+            running.add(client);
+            client.start();
+        }
+
+        LockSupport.parkNanos(measureFrom - System.nanoTime());
+        long bytesBefore = StoreStats.bytesWritten();
+        long writesBefore = StoreStats.writes();
+
+        for (Client client : running) client.join();
+        owner.submit(TaskRepository::flush).get(); // Writes still queued by the store count too
+        long bytes = StoreStats.bytesWritten() - bytesBefore;
+        long writes = StoreStats.writes() - writesBefore;
+        owner.shutdown();
+
+        report(running, rate, clients, duration, bytes, writes);
+        System.out.println("📈 App metrics, warmup included, written to " + Metrics.dump(dir));
+    }
+
+    private static Map<Op, Double> parseMix(String spec) {
+        Map<Op, Double> weights = new LinkedHashMap<>(); // Spec order, so the picks follow the seed
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) throw new IllegalArgumentException("Expected operation=weight: " + entry);
+            weights.put(Op.of(parts[0].trim()), Double.parseDouble(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    private static void report(List<Client> clients, double rate, int clientCount, int duration, long bytes, long writes) {
+        System.out.printf("%n%-16s %9s %9s %9s %10s %10s %10s %10s%n",
+                "Operation", "count", "rejected", "failed", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        long total = 0;
+        long rejected = 0;
+        long failed = 0;
+        Latencies all = new Latencies();
+        for (Op op : Op.values()) {
+            Latencies merged = new Latencies();
+            long opRejected = 0;
+            long opFailed = 0;
+            for (Client client : clients) {
+                merged.addAll(client.latencies[op.ordinal()]);
+                opRejected += client.rejected[op.ordinal()];
+                opFailed += client.failed[op.ordinal()];
+            }
+            if (merged.size == 0 && opFailed == 0) continue;
+            all.addAll(merged);
+            total += merged.size;
+            rejected += opRejected;
+            failed += opFailed;
+            printRow(op.label, merged, opRejected, opFailed);
+        }
+        if (total == 0) {
+            System.out.println("No operations were measured");
+            reportFailure(clients, failed);
+            return;
+        }
+        printRow("all", all, rejected, failed);
+
+        System.out.printf("%nThroughput: %.1f ops/s (target %.1f) over %d s, %d clients%n",
+                total / (double) duration, rate, duration, clientCount);
+        System.out.printf("Bytes written: %s in %d writes (%s per operation)%n",
+                formatBytes(bytes), writes, formatBytes(bytes / total));
+        reportFailure(clients, failed);
+    }
+
+    // Names the first operation that threw, with where it threw, so a failing run is not read as a fast one
+    private static void reportFailure(List<Client> clients, long failed) {
+        Client first = clients.stream().filter(client -> client.firstFailure != null)
+                .min(Comparator.comparingLong(client -> client.firstFailedAt)).orElse(null);
+        if (first == null) return;
+        Throwable failure = first.firstFailure;
+        System.out.printf("%n⚠ %d operations failed while measured; the first failure of the run, in %s, was: %s%n",
+                failed, first.firstFailedOp.label, failure);
+        StackTraceElement[] trace = failure.getStackTrace();
+        for (int i = 0; i < Math.min(5, trace.length); i++) {
+            System.out.println("    at " + trace[i]);
+        }
+    }
+
+    private static void printRow(String label, Latencies latencies, long rejected, long failed) {
+        latencies.sort();
+        System.out.printf("%-16s %9d %9d %9d %10.3f %10.3f %10.3f %10.3f%n", label, latencies.size, rejected, failed,
+                latencies.percentile(0.50) / 1e6, latencies.percentile(0.99) / 1e6,
+                latencies.percentile(0.999) / 1e6, latencies.percentile(1.0) / 1e6);
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format("%.1f KB", bytes / 1024.0);
+        return String.format("%.1f MB", bytes / (1024.0 * 1024));
+    }
+
+    /**
+     * One client: sends an operation every {@code interval} nanoseconds and waits for it.
+     */
+    private static final class Client extends Thread {
+        private final ExecutorService owner;
+        private final Workload workload;
+        private final WeightedOps ops;
+        private final Random random;
+        private final long first;
+        private final long interval;
+        private final long measureFrom;
+        private final long end;
+
+        final Latencies[] latencies = new Latencies[Op.values().length];
+        final long[] rejected = new long[Op.values().length];
+        final long[] failed = new long[Op.values().length];
+        Throwable firstFailure; // Kept with its operation and time for the summary, warm-up included
+        Op firstFailedOp;
+        long firstFailedAt;
+
+        Client(ExecutorService owner, Workload workload, WeightedOps ops, Random random,
+               long first, long interval, long measureFrom, long end) {
+            super("load-client");
+            this.owner = owner;
+            this.workload = workload;
+            this.ops = ops;
+            this.random = random;
+            this.first = first;
+            this.interval = interval;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            for (int i = 0; i < latencies.length; i++) latencies[i] = new Latencies();
+        }
+
+        @Override
+        public void run() {
+            for (long due = first; due < end; due += interval) {
+                LockSupport.parkNanos(due - System.nanoTime());
+                Op op = ops.pick(random);
+                boolean accepted = true;
+                Throwable failure = null;
+                try {
+                    accepted = owner.submit(() -> workload.run(op)).get();
+                } catch (ExecutionException e) {
+                    failure = e.getCause();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long latency = System.nanoTime() - due; // From when it was due, including any backlog
+                if (failure != null && firstFailure == null) {
+                    firstFailure = failure;
+                    firstFailedOp = op;
+                    firstFailedAt = due;
+                }
+                if (due < measureFrom) continue;
+                if (failure != null) {
+                    failed[op.ordinal()]++;
+                    continue;
+                }
+                latencies[op.ordinal()].add(latency);
+                if (!accepted) rejected[op.ordinal()]++;
+            }
+        }
+    }
+
+    /**
+     * Picks operations in proportion to their weights.
+     */
+    private static final class WeightedOps {
+        private final Op[] ops;
+        private final double[] cumulative;
+
+        WeightedOps(Map<Op, Double> weights) {
+            ops = weights.keySet().toArray(new Op[0]);
+            cumulative = new double[ops.length];
+            double sum = 0;
+            for (int i = 0; i < ops.length; i++) {
+                sum += weights.get(ops[i]);
+                cumulative[i] = sum;
+            }
+        }
+
+        Op pick(Random random) {
+            double point = random.nextDouble() * cumulative[cumulative.length - 1];
+            for (int i = 0; i < cumulative.length; i++) {
+                if (point < cumulative[i]) return ops[i];
+            }
+            return ops[ops.length - 1];
+        }
+    }
+
+    /**
+     * What the operations act on. Touched on the owner thread only.
+     */
+    private static final class Workload {
+        private static final int OWN_NAMES = 3;
+
+        private final Random random;
+        private final String runId = Long.toString(System.currentTimeMillis(), 36);
+        private final List<Task> added = new ArrayList<>();         // Deleted first, so the dataset size holds
+        private final List<String> ownCategories = new ArrayList<>(); // The only ones renamed or deleted
+        private final List<String> ownPriorities = new ArrayList<>();
+        private int counter;
+
+        Workload(long seed) {
+            random = new Random(seed);
+        }
+
+        void setUp() {
+            TaskRepository.load();
+            CategoryHandler.getCategories();
+            PriorityHandler.getPriorities();
+            for (int i = 0; i < OWN_NAMES; i++) {
+                ownCategories.add(newCategory());
+                ownPriorities.add(newPriority());
+            }
+        }
+
+        /**
+         * @return false if the service rejected the operation's input
+         */
+        boolean run(Op op) {
+            try {
+                switch (op) {
+                    case ADD -> add();
+                    case EDIT -> edit();
+                    case DELETE -> delete();
+                    case REMINDER -> {
+                        return setReminder();
+                    }
+                    case SEARCH -> TaskService.search(query());
+                    case STATS -> TaskService.stats();
+                    case RENAME_CATEGORY -> renameOwn(ownCategories, "category", TaskService::renameCategory);
+                    case DELETE_CATEGORY -> {
+                        TaskService.deleteCategory(ownCategories.remove(random.nextInt(ownCategories.size())));
+                        ownCategories.add(newCategory());
+                    }
+                    case RENAME_PRIORITY -> renameOwn(ownPriorities, "priority", TaskService::renamePriority);
+                    case DELETE_PRIORITY -> {
+                        TaskService.deletePriority(ownPriorities.remove(random.nextInt(ownPriorities.size())));
+                        ownPriorities.add(newPriority());
+                    }
+                }
+                return true;
+            } catch (TaskService.Rejected rejected) {
+                return false;
+            }
+        }
+
+        private void add() {
+            List<String> categories = CategoryHandler.getCategories();
+            List<String> priorities = PriorityHandler.getPriorities();
+            String category = random.nextInt(5) == 0 ? pick(ownCategories) : pick(categories);
+            String priority = random.nextInt(5) == 0 ? pick(ownPriorities) : pick(priorities);
+            added.add(TaskService.addTask(nextName("task"), "Added by the load test", category, priority,
+                    futureDate(60), "Open"));
+        }
+
+        private void edit() {
+            Task task = randomTask();
+            if (task == null) return;
+            boolean overdue = task.getDueEpochDay() < Dates.today();
+            String title = random.nextInt(10) == 0 ? nextName("task") : task.getTitle();
+            String dueDate = overdue || random.nextInt(3) == 0 ? futureDate(60) : task.getDueDate();
+            String status = random.nextInt(10) == 0 ? pick(TaskService.STATUSES) : task.getStatus();
+            TaskService.editTask(task, title, "Edited by the load test " + counter++, task.getCategory(),
+                    task.getPriority(), dueDate, status);
+        }
+
+        private void delete() {
+            while (!added.isEmpty()) {
+                Task task = removeAt(added, random.nextInt(added.size()));
+                if (TaskRepository.getTask(task.getId()).orElse(null) == task) { // Not gone with a category
+                    TaskService.deleteTask(task);
+                    return;
+                }
+            }
+            Task task = randomTask();
+            if (task != null) TaskService.deleteTask(task);
+        }
+
+        private boolean setReminder() {
+            Task task = randomTask();
+            if (task == null) return true;
+            String type = pick(TaskService.REMINDER_TYPES);
+            long today = Dates.today();
+            long span = Math.max(1, task.getDueEpochDay() - today + 1);
+            String customDate = Dates.format(today + (long) (random.nextDouble() * span));
+            return TaskService.setReminder(task, type, customDate, "Load test reminder");
+        }
+
+        // Mostly a few letters of an existing title; sometimes category and priority as well
+        private TaskSearch.Query query() {
+            Task task = randomTask();
+            String title = "";
+            if (task != null && random.nextInt(5) != 0) {
+                String text = task.getTitle();
+                int length = Math.min(text.length(), 3 + random.nextInt(4));
+                int from = random.nextInt(text.length() - length + 1);
+                title = text.substring(from, from + length);
+            }
+            String category = task != null && random.nextInt(3) == 0 ? task.getCategory() : "All";
+            String priority = task != null && random.nextInt(3) == 0 ? task.getPriority() : "All";
+            return new TaskSearch.Query(title, "", category, priority);
+        }
+
+        private void renameOwn(List<String> names, String kind, BiFunction<String, String, ?> rename) {
+            int index = random.nextInt(names.size());
+            String newName = nextName(kind);
+            rename.apply(names.get(index), newName);
+            names.set(index, newName);
+        }
+
+        private String newCategory() {
+            String name = nextName("category");
+            TaskService.addCategory(name);
+            return name;
+        }
+
+        private String newPriority() {
+            String name = nextName("priority");
+            TaskService.addPriority(name);
+            return name;
+        }
+
+        private String nextName(String kind) {
+            return "Load " + kind + " " + runId + "-" + counter++;
+        }
+
+        private String futureDate(int days) {
+            return Dates.format(Dates.today() + 1 + random.nextInt(days));
+        }
+
+        private Task randomTask() {
+            List<Task> tasks = TaskRepository.getTasks();
+            return tasks.isEmpty() ? null : tasks.get(random.nextInt(tasks.size()));
+        }
+
+        private <T> T pick(List<T> values) {
+            return values.get(random.nextInt(values.size()));
+        }
+
+        private static <T> T removeAt(List<T> list, int index) {
+            T last = list.remove(list.size() - 1);
+            return index == list.size() ? last : list.set(index, last);
+        }
+    }
+
+    /**
+     * A growable array of nanosecond latencies.
+     */
+    private static final class Latencies {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        void addAll(Latencies other) {
+            if (size + other.size > values.length) values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+
+        void sort() {
+            Arrays.sort(values, 0, size);
+        }
+
+        // Nearest rank, on sorted values
+        long percentile(double p) {
+            return values[Math.max(0, (int) Math.ceil(p * size) - 1)];
+        }
+    }
+}
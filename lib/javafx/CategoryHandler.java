@@ -9,28 +9,46 @@ import javafx.scene.Scene;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import lib.json.JSONHandler;
+import lib.json.StoreStats;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class CategoryHandler {
-    private static TableView<Task> taskTableRef; 
 
-
-    private static final String CATEGORIES_FILE = System.getProperty("user.dir") + "/medialab/categories.json";
+    private static final String CATEGORIES_FILE = Paths.get(System.getProperty("user.dir")).resolve(JSONHandler.DATA_DIR).resolve("categories.json").toString();
     private static ObservableList<String> categories = FXCollections.observableArrayList();
 
-    static {
-        loadCategories();
+    // Touched on the JavaFX thread only
+    private static CompletableFuture<List<String>> pendingRead; // Started by loadAsync; null if none
+    private static boolean filled = false;
+
+    /**
+     * Reads the category file on a background thread; the list is filled on {@code uiThread},
+     * or by {@link #getCategories()} if it is asked for first.
+     *
+     * @return completes as soon as the names are interned, before the list is filled
+     */
+    public static CompletableFuture<Void> loadAsync(Executor uiThread) {
+        CompletableFuture<List<String>> read = CompletableFuture.supplyAsync(CategoryHandler::readCategories);
+        pendingRead = read;
+        read.thenAcceptAsync(names -> {
+            if (!filled) fill(names);
+        }, uiThread);
+        return read.thenAccept(names -> {});
     }
 
-    private static void loadCategories() {
+    // Reads and interns the names, in file order
+    private static List<String> readCategories() {
         List<String> loadedCategories = new ArrayList<>();
         File file = new File(CATEGORIES_FILE);
 
@@ -54,30 +72,43 @@ public class CategoryHandler {
             loadedCategories.add(0, "General"); // Ensure "General" category exists
         }
 
-        categories.setAll(loadedCategories);
+        loadedCategories.forEach(NameDictionary.CATEGORIES::intern);
+        return loadedCategories;
     }
 
     public static void saveCategories() {
+        if (!filled) return; // Not loaded yet: saving would lose the file's names
         String json = "[\"" + String.join("\",\"", categories) + "\"]";
 
         try (FileWriter writer = new FileWriter(CATEGORIES_FILE)) {
             writer.write(json);
+            StoreStats.wrote(json.getBytes(StandardCharsets.UTF_8).length);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * @return the names, in file order. If the background read has not reached the list yet,
+     *         waits for the read rather than hand out an empty list.
+     */
     public static ObservableList<String> getCategories() {
+        if (!filled) fill(pendingRead != null ? pendingRead.join() : readCategories());
         return categories;
     }
 
-    public static void showManageCategoriesDialog(TableView<Task> taskTable) {  
-        taskTableRef = taskTable;
+    private static void fill(List<String> names) {
+        filled = true;
+        pendingRead = null;
+        categories.setAll(names);
+    }
+
+    public static void showManageCategoriesDialog() {
         Stage manageDialog = new Stage();
         manageDialog.initModality(Modality.APPLICATION_MODAL);
         manageDialog.setTitle("Manage Categories");
 
-        ListView<String> categoryListView = new ListView<>(FXCollections.observableArrayList(categories));
+        ListView<String> categoryListView = new ListView<>(FXCollections.observableArrayList(getCategories()));
         categoryListView.getSelectionModel().setSelectionMode(SelectionMode.SINGLE);
 
         Button addButton = new Button("Add");
@@ -86,36 +117,27 @@ public class CategoryHandler {
         Button okButton = new Button("OK");
 
         addButton.setOnAction(e -> {
-            String newCategory = showNewCategoryDialog();
-            if (newCategory != null && !newCategory.trim().isEmpty() && !categories.contains(newCategory)) {
-                categories.add(newCategory);
-                saveCategories();
+            if (TaskService.addCategory(showNewCategoryDialog())) {
                 categoryListView.setItems(FXCollections.observableArrayList(categories));
             }
         });
 
         renameButton.setOnAction(e -> {
             String selectedCategory = categoryListView.getSelectionModel().getSelectedItem();
-            if (selectedCategory != null && !selectedCategory.equals("General")) {
+            if (selectedCategory != null && !selectedCategory.equals(TaskService.DEFAULT_CATEGORY)) {
                 TextInputDialog renameDialog = new TextInputDialog(selectedCategory);
                 renameDialog.setTitle("Rename Category");
                 renameDialog.setHeaderText("Enter a new name for the category:");
                 renameDialog.setContentText("New Name:");
         
                 renameDialog.showAndWait().ifPresent(newName -> {
-                    if (!newName.trim().isEmpty() && !categories.contains(newName)) {
-                        int index = categories.indexOf(selectedCategory);
-                        categories.set(index, newName);
-                        saveCategories();
-        
-                        // Update tasks in the JSON file
-                        updateTasksWithRenamedCategory(selectedCategory, newName);
-        
+                    try {
+                        // Tasks reference the category by id, so this renames a single dictionary entry
+                        TaskBatch.Result result = TaskService.renameCategory(selectedCategory, newName);
                         categoryListView.setItems(FXCollections.observableArrayList(categories));
-                        refreshTaskTable(); 
-                        System.out.println("Category '" + selectedCategory + "' renamed to '" + newName + "' and tasks updated.");
-                    } else {
-                        showAlert("Rename Error", "Invalid or duplicate category name.");
+                        System.out.println("Category '" + selectedCategory + "' renamed to '" + newName + "': " + result);
+                    } catch (TaskService.Rejected rejected) {
+                        showAlert(rejected.title(), rejected.getMessage());
                     }
                 });
             } else {
@@ -126,7 +148,7 @@ public class CategoryHandler {
         deleteButton.setOnAction(e -> {
             String selectedCategory = categoryListView.getSelectionModel().getSelectedItem();
             
-            if (selectedCategory != null && !selectedCategory.equals("General")) {
+            if (selectedCategory != null && !selectedCategory.equals(TaskService.DEFAULT_CATEGORY)) {
                 // Confirm deletion
                 Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
                 confirm.setTitle("Delete Category");
@@ -137,13 +159,11 @@ public class CategoryHandler {
                     if (response == ButtonType.OK) {
                         System.out.println("🗑 Deleting category: " + selectedCategory);
                         
-                        removeTasksWithCategory(selectedCategory, taskTable);  
-
-                        categories.remove(selectedCategory);
-                        saveCategories();
+                        // Tasks and their reminders go in one pass and one commit, however many tasks the category holds
+                        TaskBatch.Result result = TaskService.deleteCategory(selectedCategory);
+                        System.out.println("Tasks under category '" + selectedCategory + "' have been deleted: " + result);
 
                         categoryListView.setItems(FXCollections.observableArrayList(categories));
-                        refreshTaskTable(); 
                         System.out.println("✅ Category and associated tasks successfully deleted.");
                     }
                 });
@@ -154,8 +174,7 @@ public class CategoryHandler {
         });
 
         okButton.setOnAction(e -> {
-            System.out.println("OK button clicked: Closing category manager and refreshing task table.");
-            refreshTaskTable();
+            System.out.println("OK button clicked: Closing category manager.");
             manageDialog.close();
         });
         
@@ -166,74 +185,6 @@ public class CategoryHandler {
         manageDialog.showAndWait();
     }
 
-    private static void updateTasksWithRenamedCategory(String oldCategory, String newCategory) {
-        System.out.println("Renaming tasks from category '" + oldCategory + "' to '" + newCategory + "'...");
- 
-        List<Task> taskList = JSONHandler.readTasks();
-    
-        boolean updated = false;
-        for (Task task : taskList) {
-            if (task.getCategory().equalsIgnoreCase(oldCategory)) {
-                task.setCategory(newCategory);
-                updated = true;
-            }
-        }
-
-        if (updated) {
-            JSONHandler.writeTasks(FXCollections.observableArrayList(taskList));
-            System.out.println(" Tasks updated with new category name.");
-        } else {
-            System.out.println("ℹ No tasks found with category '" + oldCategory + "'.");
-        }
-    }
-    
-    private static void removeTasksWithCategory(String deletedCategory, TableView<Task> taskTable) { 
-        System.out.println("🗑 Removing tasks with category: " + deletedCategory);
-        System.out.println(" Tasks before deletion: ");
-        taskTable.getItems().forEach(task -> System.out.println("  - " + task.getTitle() + " | Category: " + task.getCategory()));
-    
-
-        List<Task> taskList = JSONHandler.readTasks();
-        
-        List<Task> tasksToDelete = taskList.stream()
-            .filter(task -> task.getCategory().equalsIgnoreCase(deletedCategory))
-            .toList(); // Collect all tasks in the category
-
-        for (Task task : tasksToDelete) {
-            ReminderHandler.deleteRemindersForTask(task.getTitle());
-        }
-
-        List<Task> updatedTasks = new ArrayList<>(taskList);
-        updatedTasks.removeIf(task -> task.getCategory().equalsIgnoreCase(deletedCategory));
-        JSONHandler.writeTasks(FXCollections.observableArrayList(updatedTasks));
-        ObservableList<Task> newTaskList = FXCollections.observableArrayList(updatedTasks);
-        taskTable.setItems(newTaskList);
-        taskTable.refresh();  
-    
-        System.out.println("Tasks under category '" + deletedCategory + "' have been deleted.");
-        System.out.println("Reminders for these tasks have been deleted.");
-        System.out.println("Remaining tasks after deletion: " + newTaskList.size());
-    }
-    
-
-    private static void refreshTaskTable() {  
-        if (taskTableRef == null) {
-            System.out.println("Task table reference is null! UI will not update.");
-            return;
-        }
-    
-        System.out.println("Refreshing task table in UI...");
-    
-        List<Task> latestTasks = JSONHandler.readTasks();
-        ObservableList<Task> latestTaskList = FXCollections.observableArrayList(latestTasks);
-    
-        taskTableRef.setItems(latestTaskList); 
-        taskTableRef.refresh();
-    
-        System.out.println("UI Task table updated.");
-    }
-    
-
     private static String showNewCategoryDialog() {
         TextInputDialog dialog = new TextInputDialog();
         dialog.setTitle("New Category");
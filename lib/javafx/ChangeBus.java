@@ -0,0 +1,41 @@
+package lib.javafx;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Announces what {@link TaskRepository} added, updated or removed, after the change is
+ * applied, so that views touch only the affected rows instead of refreshing whole tables.
+ * <p>
+ * Listeners run on the thread that made the change, which is the JavaFX thread for every
+ * edit made through the UI.
+ *
+ * @param <T> {@link Task} or {@link Reminder}
+ */
+public class ChangeBus<T> {
+
+    public enum Kind { ADDED, UPDATED, REMOVED }
+
+    /**
+     * One delta: the items that were added, updated in place, or removed together.
+     */
+    public record Change<T>(Kind kind, List<T> items) {}
+
+    private final List<Consumer<Change<T>>> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(Consumer<Change<T>> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<Change<T>> listener) {
+        listeners.remove(listener);
+    }
+
+    void publish(Kind kind, Collection<? extends T> items) {
+        if (items.isEmpty() || listeners.isEmpty()) return;
+        Change<T> change = new Change<>(kind, List.copyOf(items));
+        listeners.forEach(listener -> listener.accept(change));
+    }
+}
@@ -0,0 +1,40 @@
+package lib.javafx;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * The single date format of the app, {@code dd/MM/yyyy}, and conversions to and from epoch days.
+ * Tasks and reminders keep their dates as epoch days so comparisons work on primitives.
+ */
+public final class Dates {
+
+    public static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /** Marks a date string that could not be parsed. */
+    public static final long NO_DATE = Long.MIN_VALUE;
+
+    private Dates() {}
+
+    /**
+     * @param date a date in {@code dd/MM/yyyy} format
+     * @return the epoch day, or {@link #NO_DATE} if the string is missing or not a valid date
+     */
+    public static long toEpochDay(String date) {
+        if (date == null) return NO_DATE;
+        try {
+            return LocalDate.parse(date, FORMAT).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return NO_DATE;
+        }
+    }
+
+    public static String format(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay).format(FORMAT);
+    }
+
+    public static long today() {
+        return LocalDate.now().toEpochDay();
+    }
+}
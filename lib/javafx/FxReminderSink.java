@@ -0,0 +1,22 @@
+package lib.javafx;
+
+import javafx.application.Platform;
+import javafx.scene.control.Alert;
+
+/**
+ * Shows delivered reminders as a non-blocking information dialog in the running app.
+ */
+public class FxReminderSink implements ReminderSink {
+
+    @Override
+    public void deliver(Reminder reminder) {
+        Platform.runLater(() -> {
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Reminder");
+            alert.setHeaderText(reminder.getTaskTitle() + " (Due: " + reminder.getTaskDueDate() + ")");
+            alert.setContentText(reminder.getMessage() == null || reminder.getMessage().isEmpty()
+                    ? reminder.getReminderType() : reminder.getMessage());
+            alert.show();
+        });
+    }
+}
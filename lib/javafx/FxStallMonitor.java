@@ -0,0 +1,50 @@
+package lib.javafx;
+
+import lib.metrics.LatencyHistogram;
+import lib.metrics.Metrics;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how long the JavaFX thread keeps its queue waiting: every {@link #PROBE_MILLIS} a
+ * probe is posted to it, and the time until it runs goes to the {@code fx.blocked} histogram.
+ * Only one probe is in flight at a time, so a freeze of two seconds is one two-second sample,
+ * not a queue of probes behind it.
+ */
+final class FxStallMonitor {
+
+    private static final long PROBE_MILLIS = 50;
+    private static final long STALL_NANOS = TimeUnit.MILLISECONDS.toNanos(100); // Long enough to notice
+
+    private static final LatencyHistogram blocked = Metrics.histogram("fx.blocked");
+    private static final LongAdder stalls = Metrics.counter("fx.stalls");
+
+    private FxStallMonitor() {}
+
+    /**
+     * @param uiThread runs the probes; {@code Platform::runLater} in the app
+     */
+    static void start(Executor uiThread) {
+        AtomicBoolean pending = new AtomicBoolean();
+        ScheduledExecutorService probes = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fx-stall-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        probes.scheduleAtFixedRate(() -> {
+            if (!pending.compareAndSet(false, true)) return; // The last probe is still waiting
+            long posted = System.nanoTime();
+            uiThread.execute(() -> {
+                long waited = System.nanoTime() - posted;
+                blocked.record(waited);
+                if (waited >= STALL_NANOS) stalls.increment();
+                pending.set(false);
+            });
+        }, PROBE_MILLIS, PROBE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+}
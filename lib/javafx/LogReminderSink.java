@@ -0,0 +1,45 @@
+package lib.javafx;
+
+import lib.json.JSONHandler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Appends delivered reminders to {@code reminders.log} in the data directory. The app
+ * registers it next to {@link FxReminderSink}; a headless caller that starts the dispatcher
+ * can register it to keep the same record.
+ */
+public class LogReminderSink implements ReminderSink {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Path logFile;
+
+    public LogReminderSink() {
+        this(Paths.get(JSONHandler.DATA_DIR, "reminders.log"));
+    }
+
+    public LogReminderSink(Path logFile) {
+        this.logFile = logFile;
+    }
+
+    @Override
+    public void deliver(Reminder reminder) {
+        String line = LocalDateTime.now().format(TIMESTAMP) + "  " + reminder.getTaskTitle()
+                + " (due " + reminder.getTaskDueDate() + ", " + reminder.getReminderType() + "): "
+                + reminder.getMessage() + System.lineSeparator();
+        try {
+            Files.writeString(logFile, line, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Error writing reminder log: " + e.getMessage());
+        }
+    }
+}
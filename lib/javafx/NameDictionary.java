@@ -0,0 +1,90 @@
+package lib.javafx;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns category and priority names as small integer ids. Tasks keep the id, so renaming a
+ * category or priority changes one entry here instead of every task that uses it.
+ * <p>
+ * Names are matched exactly, as stored. Ids are stable for the lifetime of the process and
+ * are never written to disk; the JSON files keep the names. Lookups may run on the
+ * persistence threads, so the id-to-name table is replaced, never modified, on writes.
+ */
+public final class NameDictionary {
+
+    public static final NameDictionary CATEGORIES = new NameDictionary();
+    public static final NameDictionary PRIORITIES = new NameDictionary();
+
+    /** Id of a missing ({@code null}) name. */
+    public static final int NONE = -1;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[0];
+
+    private NameDictionary() {}
+
+    /**
+     * @return the id of {@code name}, assigning a new one on first use
+     */
+    public int intern(String name) {
+        if (name == null) return NONE;
+        Integer id = ids.get(name);
+        return id != null ? id : add(name);
+    }
+
+    private synchronized int add(String name) {
+        Integer id = ids.get(name);
+        if (id != null) return id;
+        String[] grown = Arrays.copyOf(names, names.length + 1);
+        grown[names.length] = name;
+        names = grown;
+        ids.put(name, names.length - 1);
+        return names.length - 1;
+    }
+
+    public String nameOf(int id) {
+        String[] current = names;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * @return the id of {@code name}, or {@link #NONE} if it was never interned
+     */
+    public int idOf(String name) {
+        Integer id = name == null ? null : ids.get(name);
+        return id == null ? NONE : id;
+    }
+
+    /**
+     * @return the ids of every interned name equal to {@code name}, ignoring case
+     */
+    public List<Integer> idsIgnoreCase(String name) {
+        List<Integer> result = new ArrayList<>(1);
+        if (name == null) return result;
+        String[] current = names;
+        for (int id = 0; id < current.length; id++) {
+            if (current[id].equalsIgnoreCase(name)) result.add(id);
+        }
+        return result;
+    }
+
+    /**
+     * Renames an entry in place; every task holding its id reports the new name from now on.
+     *
+     * @return the renamed id, or {@link #NONE} if {@code oldName} is unknown or {@code newName} is already taken
+     */
+    public synchronized int rename(String oldName, String newName) {
+        Integer id = ids.get(oldName);
+        if (id == null || ids.containsKey(newName)) return NONE;
+        String[] renamed = names.clone();
+        renamed[id] = newName;
+        ids.put(newName, id);
+        names = renamed;
+        ids.remove(oldName);
+        return id;
+    }
+}
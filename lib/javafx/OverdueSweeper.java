@@ -0,0 +1,81 @@
+package lib.javafx;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Finds tasks that became overdue without scanning the task list. Every task that can still
+ * become "Delayed" sits in a min-heap keyed on its due date, so a sweep only looks at the
+ * tasks whose due date is before today.
+ * <p>
+ * Tasks changed in place are re-registered with {@link #track(Task)}. Their old heap entry
+ * is not removed; it is recognised as stale and skipped when it reaches the top.
+ */
+public class OverdueSweeper {
+
+    private record Due(long epochDay, Task task) {}
+
+    private final PriorityQueue<Due> heap = new PriorityQueue<>(Comparator.comparingLong(Due::epochDay));
+    private final Map<Task, Long> pending = new IdentityHashMap<>();
+
+    public void rebuild(Collection<Task> tasks) {
+        heap.clear();
+        pending.clear();
+        tasks.forEach(this::track);
+    }
+
+    /**
+     * Registers a new task, or a task whose due date or status changed.
+     */
+    public void track(Task task) {
+        long due = task.getDueEpochDay();
+        if (due == Dates.NO_DATE || "Completed".equalsIgnoreCase(task.getStatus())
+                || "Delayed".equalsIgnoreCase(task.getStatus())) {
+            pending.remove(task); // Can no longer become delayed; its entry goes stale
+            return;
+        }
+        Long previous = pending.put(task, due);
+        if (previous == null || previous != due) {
+            heap.add(new Due(due, task));
+            compactIfStale();
+        }
+    }
+
+    public void untrack(Task task) {
+        pending.remove(task);
+    }
+
+    /**
+     * Marks every task due before today as "Delayed".
+     *
+     * @return the tasks whose status actually changed
+     */
+    public List<Task> sweep() {
+        long today = Dates.today();
+        List<Task> changed = new ArrayList<>();
+        while (!heap.isEmpty() && heap.peek().epochDay() < today) {
+            Due entry = heap.poll();
+            Long current = pending.get(entry.task());
+            if (current == null || current != entry.epochDay()) continue; // Stale entry
+
+            pending.remove(entry.task());
+            String before = entry.task().getStatus();
+            entry.task().checkAndUpdateStatus();
+            if (!before.equals(entry.task().getStatus())) {
+                changed.add(entry.task());
+            }
+        }
+        return changed;
+    }
+
+    private void compactIfStale() {
+        if (heap.size() <= 2 * pending.size() + 16) return;
+        heap.clear();
+        pending.forEach((task, due) -> heap.add(new Due(due, task)));
+    }
+}
@@ -9,27 +9,46 @@ import javafx.scene.Scene;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import lib.json.JSONHandler;
+import lib.json.StoreStats;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class PriorityHandler {
-    private static TableView<Task> taskTableRef;  // ✅ Stores reference to task table
 
-    private static final String PRIORITIES_FILE = System.getProperty("user.dir") + "/medialab/priorities.json";
+    private static final String PRIORITIES_FILE = Paths.get(System.getProperty("user.dir")).resolve(JSONHandler.DATA_DIR).resolve("priorities.json").toString();
     private static ObservableList<String> priorities = FXCollections.observableArrayList();
 
-    static {
-        loadPriorities();
+    // Touched on the JavaFX thread only
+    private static CompletableFuture<List<String>> pendingRead; // Started by loadAsync; null if none
+    private static boolean filled = false;
+
+    /**
+     * Reads the priority file on a background thread; the list is filled on {@code uiThread},
+     * or by {@link #getPriorities()} if it is asked for first.
+     *
+     * @return completes as soon as the names are interned, before the list is filled
+     */
+    public static CompletableFuture<Void> loadAsync(Executor uiThread) {
+        CompletableFuture<List<String>> read = CompletableFuture.supplyAsync(PriorityHandler::readPriorities);
+        pendingRead = read;
+        read.thenAcceptAsync(names -> {
+            if (!filled) fill(names);
+        }, uiThread);
+        return read.thenAccept(names -> {});
     }
 
-    private static void loadPriorities() {
+    // Reads and interns the names, in file order
+    private static List<String> readPriorities() {
         List<String> loadedPriorities = new ArrayList<>();
         File file = new File(PRIORITIES_FILE);
 
@@ -53,30 +72,43 @@ public class PriorityHandler {
             loadedPriorities.add(0, "Default");
         }
 
-        priorities.setAll(loadedPriorities);
+        loadedPriorities.forEach(NameDictionary.PRIORITIES::intern);
+        return loadedPriorities;
     }
 
     public static void savePriorities() {
+        if (!filled) return; // Not loaded yet: saving would lose the file's names
         String json = "[\"" + String.join("\",\"", priorities) + "\"]";
 
         try (FileWriter writer = new FileWriter(PRIORITIES_FILE)) {
             writer.write(json);
+            StoreStats.wrote(json.getBytes(StandardCharsets.UTF_8).length);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * @return the names, in file order. If the background read has not reached the list yet,
+     *         waits for the read rather than hand out an empty list.
+     */
     public static ObservableList<String> getPriorities() {
+        if (!filled) fill(pendingRead != null ? pendingRead.join() : readPriorities());
         return priorities;
     }
 
-    public static void showManagePrioritiesDialog(TableView<Task> taskTable) {
-        taskTableRef = taskTable;
+    private static void fill(List<String> names) {
+        filled = true;
+        pendingRead = null;
+        priorities.setAll(names);
+    }
+
+    public static void showManagePrioritiesDialog() {
         Stage manageDialog = new Stage();
         manageDialog.initModality(Modality.APPLICATION_MODAL);
         manageDialog.setTitle("Manage Priorities");
 
-        ListView<String> priorityListView = new ListView<>(FXCollections.observableArrayList(priorities));
+        ListView<String> priorityListView = new ListView<>(FXCollections.observableArrayList(getPriorities()));
         priorityListView.getSelectionModel().setSelectionMode(SelectionMode.SINGLE);
 
         Button addButton = new Button("Add");
@@ -86,11 +118,8 @@ public class PriorityHandler {
 
 
         addButton.setOnAction(e -> {
-            String newPriority = showNewPriorityDialog();
-            if (newPriority != null && !newPriority.trim().isEmpty() && !priorities.contains(newPriority)) {
-                priorities.add(newPriority);
-                savePriorities();
-               priorityListView.setItems(FXCollections.observableArrayList(priorities));
+            if (TaskService.addPriority(showNewPriorityDialog())) {
+                priorityListView.setItems(FXCollections.observableArrayList(priorities));
             }
         });
 
@@ -104,17 +133,13 @@ public class PriorityHandler {
                 renameDialog.setContentText("New Name:");
 
                 renameDialog.showAndWait().ifPresent(newName -> {
-                    if (!newName.trim().isEmpty() && !priorities.contains(newName)) {
-                        int index = priorities.indexOf(selectedPriority);
-                        priorities.set(index, newName);
-                        savePriorities();
-
-                        updateTasksWithRenamedPriority(selectedPriority, newName);
+                    try {
+                        // Tasks reference the priority by id, so this renames a single dictionary entry
+                        TaskBatch.Result result = TaskService.renamePriority(selectedPriority, newName);
                         priorityListView.setItems(FXCollections.observableArrayList(priorities));
-                        refreshTaskTable();
-                        System.out.println("Priority '" + selectedPriority + "' renamed to '" + newName + "' and tasks updated.");
-                    } else {
-                        showAlert("Rename Error", "Invalid or duplicate priority name.");
+                        System.out.println("Priority '" + selectedPriority + "' renamed to '" + newName + "': " + result);
+                    } catch (TaskService.Rejected rejected) {
+                        showAlert(rejected.title(), rejected.getMessage());
                     }
                 });
             } else {
@@ -136,13 +161,11 @@ public class PriorityHandler {
                         System.out.println("🗑 Deleting priority: " + selectedPriority);
 
                         priorityListView.getSelectionModel().clearSelection();
-                        updateTasksWithDefaultPriority(selectedPriority);
-
-                        priorities.remove(selectedPriority);
-                        savePriorities();
+                        // Every task of the priority moves to 'Default' in a single commit
+                        TaskBatch.Result result = TaskService.deletePriority(selectedPriority);
+                        System.out.println("Tasks moved to 'Default' priority: " + result);
 
                         priorityListView.setItems(FXCollections.observableArrayList(priorities));
-                        refreshTaskTable();
                         System.out.println("✅ Priority and associated tasks successfully updated.");
                     }
                 });
@@ -152,8 +175,7 @@ public class PriorityHandler {
         });
 
         okButton.setOnAction(e -> {
-            System.out.println("OK button clicked: Closing priority manager and refreshing task table.");
-            refreshTaskTable();
+            System.out.println("OK button clicked: Closing priority manager.");
             manageDialog.close();
         });
 
@@ -162,6 +184,7 @@ public class PriorityHandler {
         manageDialog.setScene(new Scene(layout, 300, 300));
         manageDialog.showAndWait();
     }
+
     private static String showNewPriorityDialog() {
         TextInputDialog dialog = new TextInputDialog();
         dialog.setTitle("New Priority");
@@ -171,71 +194,12 @@ public class PriorityHandler {
         return result.orElse(null);
     }
 
-    private static void updateTasksWithRenamedPriority(String oldPriority, String newPriority) {
-        System.out.println("Renaming tasks from priority '" + oldPriority + "' to '" + newPriority + "'...");
-
-        List<Task> taskList = JSONHandler.readTasks();
-        boolean updated = false;
-
-        for (Task task : taskList) {
-            if (task.getPriority().equalsIgnoreCase(oldPriority)) {
-                task.setPriority(newPriority);
-                updated = true;
-            }
-        }
-
-        if (updated) {
-            JSONHandler.writeTasks(taskList);
-            System.out.println("✅ Tasks updated with new priority name.");
-        } else {
-            System.out.println("ℹ️ No tasks found with priority '" + oldPriority + "'.");
-        }
-    }
-
-    private static void updateTasksWithDefaultPriority(String deletedPriority) {
-        System.out.println("🔄 Updating tasks: Setting priority '" + deletedPriority + "' to 'Default'");
-
-        List<Task> taskList = JSONHandler.readTasks();
-        boolean updated = false;
-
-        for (Task task : taskList) {
-            if (task.getPriority().equalsIgnoreCase(deletedPriority)) {
-                task.setPriority("Default");
-                updated = true;
-            }
-        }
-
-        if (updated) {
-            JSONHandler.writeTasks(taskList);
-            System.out.println("✅ Tasks successfully updated to 'Default' priority.");
-        } else {
-            System.out.println("⚠️ No tasks required priority updates.");
-        }
-    }
-
-    private static void refreshTaskTable() {
-        if (taskTableRef == null) {
-            System.out.println("⚠️ Task table reference is null! UI will not update.");
-            return;
-        }
-
-        System.out.println("🔄 Refreshing task table in UI...");
-
-        List<Task> latestTasks = JSONHandler.readTasks();
-        ObservableList<Task> latestTaskList = FXCollections.observableArrayList(latestTasks);
-
-        taskTableRef.setItems(latestTaskList);
-        taskTableRef.refresh();
-
-        System.out.println("✅ UI Task table updated.");
-    }
-
     private static boolean isRenamable(String priority) {
-        return !priority.equals("Default");
+        return !priority.equals(TaskService.DEFAULT_PRIORITY);
     }
 
     private static boolean isDeletable(String priority) {
-        return !priority.equals("Default");
+        return !priority.equals(TaskService.DEFAULT_PRIORITY);
     }
 
     private static void showAlert(String title, String message) {
@@ -1,32 +1,60 @@
 package lib.javafx;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import java.util.Objects;
+
 @JsonIgnoreProperties(ignoreUnknown = true) 
 public class Reminder {
+    private long taskId; // Id of the linked task; 0 in files written before ids existed
     private String taskTitle;
-    private String date; // Stored as String in "dd/MM/yyyy" format
+    private String date; // Stored as String in "dd/MM/yyyy" format; null until formatted if set by epoch day
     private String message;
-    private String reminderType; // Stores: "One day before", "One week before", "One month before", "Custom"
+    private String reminderType; // One of TaskService.REMINDER_TYPES: "One day before deadline", ..., "Custom date"
     private String taskDueDate;
-    
+    private long epochDay = Dates.NO_DATE;        // date, parsed once whenever it is set
+    private long taskDueEpochDay = Dates.NO_DATE; // taskDueDate, parsed once whenever it is set
 
     // Default constructor for Jackson
     public Reminder() {}
 
     public Reminder(String taskTitle, String date,  String message, String reminderType, String taskDueDate ) {
         this.taskTitle = taskTitle;
-        this.date = date;
+        this.date = date; // Not the setters, which subclasses may override
+        this.epochDay = Dates.toEpochDay(date);
         this.message = message;
         this.reminderType = reminderType;
         this.taskDueDate = taskDueDate;
+        this.taskDueEpochDay = Dates.toEpochDay(taskDueDate);
+    }
+
+    // Copy, for stores that write a reminder out while the original may still change
+    public Reminder(Reminder other) {
+        this.taskId = other.taskId;
+        this.taskTitle = other.taskTitle;
+        this.date = other.date;
+        this.message = other.message;
+        this.reminderType = other.reminderType;
+        this.taskDueDate = other.taskDueDate;
+        this.epochDay = other.epochDay;
+        this.taskDueEpochDay = other.taskDueEpochDay;
     }
 
     public String getTaskDueDate() {
+        if (taskDueDate == null && taskDueEpochDay != Dates.NO_DATE) taskDueDate = Dates.format(taskDueEpochDay);
         return taskDueDate;
     }
 
+    public long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(long taskId) {
+        this.taskId = taskId;
+    }
+
     public String getTaskTitle() {
         return taskTitle;
     }
@@ -36,15 +64,43 @@ public class Reminder {
     }
 
     public String getDate() {
+        if (date == null && epochDay != Dates.NO_DATE) date = Dates.format(epochDay);
         return date;
     }
 
     public void setDate(String date) {
         this.date = date;
+        this.epochDay = Dates.toEpochDay(date);
     }
     
     public void setTaskDueDate(String newDueDate) {
         this.taskDueDate = newDueDate; 
+        this.taskDueEpochDay = Dates.toEpochDay(newDueDate);
+    }
+
+    // Reminder date as epoch day, or Dates.NO_DATE if it is not a valid date
+    @JsonIgnore
+    public long getEpochDay() {
+        return epochDay;
+    }
+
+    // Sets a valid date without parsing, for stores that keep epoch days; the string is formatted when first read
+    @JsonIgnore
+    public void setEpochDay(long epochDay) {
+        this.date = null;
+        this.epochDay = epochDay;
+    }
+
+    @JsonIgnore
+    public void setTaskDueEpochDay(long epochDay) {
+        this.taskDueDate = null;
+        this.taskDueEpochDay = epochDay;
+    }
+
+    // Task due date as epoch day, or Dates.NO_DATE if it is not a valid date
+    @JsonIgnore
+    public long getTaskDueEpochDay() {
+        return taskDueEpochDay;
     }
     
 
@@ -65,14 +121,35 @@ public class Reminder {
     }
 
     public boolean isCustomDate() {
-        return "Custom".equalsIgnoreCase(reminderType);
+        return "Custom date".equalsIgnoreCase(reminderType);
+    }
+
+    // Two reminders are equal when they remind of the same task, on the same date, in the same way.
+    // The title only identifies the task for reminders that are not linked to one by id.
+    // Valid dates compare as epoch days, so a date set by epoch day need not be formatted.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Reminder other)) return false;
+        return taskId == other.taskId
+                && (taskId != 0 || Objects.equals(taskTitle, other.taskTitle))
+                && epochDay == other.epochDay
+                && (epochDay != Dates.NO_DATE || Objects.equals(date, other.date))
+                && Objects.equals(reminderType, other.reminderType)
+                && Objects.equals(message, other.message);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(taskId, taskId == 0 ? taskTitle : null,
+                epochDay != Dates.NO_DATE ? epochDay : date, reminderType, message);
     }
 
     @Override
     public String toString() {
         return "Reminder{" +
                 "taskTitle='" + taskTitle + '\'' +
-                ", date='" + date + '\'' +
+                ", date='" + getDate() + '\'' +
                 ", message='" + message + '\'' +
                 ", reminderType='" + reminderType + '\'' +
                 '}';
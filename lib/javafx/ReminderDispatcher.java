@@ -0,0 +1,266 @@
+package lib.javafx;
+
+import lib.json.JSONHandler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers reminders on their date.
+ * <p>
+ * Reminders are kept in a hierarchical timing wheel of {@value #LEVELS} levels with
+ * {@value #WHEEL_SIZE} slots each: level 0 has one slot per day, level 1 one per 64 days,
+ * level 2 one per 4096 days. A reminder goes into the lowest level whose span still holds its
+ * day, so scheduling and cancelling are O(1). Once a day, just after midnight, a background
+ * thread moves on to the new day: when it enters a new span, the span's slot one level up is
+ * cascaded down, and then the day's slot on level 0 is fired.
+ * <p>
+ * Reminders due today fire when the dispatcher starts and, if added later in the day, as soon
+ * as they are scheduled. Reminders for past days are not fired. The last day fired is kept in
+ * a file, so a restart on the same day does not fire today's reminders again. Each reminder
+ * is delivered to every registered {@link ReminderSink}.
+ * <p>
+ * The app starts the dispatcher once its data is loaded; until {@link #start()} nothing is
+ * delivered, so headless callers of {@link TaskRepository} only keep the wheel in sync.
+ */
+public class ReminderDispatcher {
+
+    private static final int SLOT_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << SLOT_BITS; // Power of two, so the slot is a mask
+    private static final int LEVELS = 3; // 64^3 days ahead before the top level wraps
+    private static final String STATE_FILE = "reminders.dispatched";
+
+    // Where a scheduled reminder is filed
+    private record Filed(long day, Set<Reminder> slot) {}
+
+    private final List<List<Set<Reminder>>> levels = new ArrayList<>(LEVELS);
+    private final Map<Reminder, Filed> scheduled = new IdentityHashMap<>();
+    private final Set<Reminder> firedToday = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<ReminderSink> sinks = new CopyOnWriteArrayList<>();
+    private final Path stateFile;
+    private long firedThrough; // Last day whose slot was fired, i.e. "today" once started
+    private boolean advanced;  // False until the first day is fired; firedThrough is only where to begin
+    private ScheduledExecutorService executor;
+
+    public ReminderDispatcher() {
+        this(Paths.get(JSONHandler.DATA_DIR, STATE_FILE), Dates.today() - 1);
+    }
+
+    /**
+     * @param stateFile    keeps the last day fired across restarts
+     * @param firedThrough the day before the first one to fire
+     */
+    ReminderDispatcher(Path stateFile, long firedThrough) {
+        for (int level = 0; level < LEVELS; level++) {
+            List<Set<Reminder>> wheel = new ArrayList<>(WHEEL_SIZE);
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                wheel.add(Collections.newSetFromMap(new IdentityHashMap<>()));
+            }
+            levels.add(wheel);
+        }
+        this.stateFile = stateFile;
+        this.firedThrough = firedThrough;
+    }
+
+    public void addSink(ReminderSink sink) {
+        sinks.add(sink);
+    }
+
+    /**
+     * Starts the background thread: fires today's reminders now, unless an earlier run already
+     * did, and every following day at midnight.
+     */
+    public synchronized void start() {
+        if (executor != null) return;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reminder-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(() -> {
+            skipDispatched(Dates.today());
+            tickAndReschedule();
+        });
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public synchronized void rebuild(Collection<Reminder> reminders) {
+        levels.forEach(wheel -> wheel.forEach(Set::clear));
+        scheduled.clear();
+        reminders.forEach(this::schedule);
+    }
+
+    /**
+     * Schedules a reminder, or moves it if its date changed since it was scheduled.
+     */
+    public void schedule(Reminder reminder) {
+        boolean fireNow;
+        synchronized (this) {
+            long day = reminder.getEpochDay();
+            Filed previous = scheduled.get(reminder);
+            if (previous != null && previous.day() == day) return;
+            cancel(reminder);
+            if (day == Dates.NO_DATE || day < firedThrough) return; // Not a date, or already past
+            if (day > firedThrough) {
+                file(reminder, day, firedThrough + 1);
+                return;
+            }
+            if (!advanced) return; // The day before the first one fired
+            fireNow = firedToday.add(reminder); // Due today and today's slot already fired
+        }
+        if (fireNow) deliver(List.of(reminder));
+    }
+
+    public synchronized void cancel(Reminder reminder) {
+        Filed filed = scheduled.remove(reminder);
+        if (filed != null) {
+            filed.slot().remove(reminder);
+        }
+    }
+
+    public synchronized int pending() {
+        return scheduled.size();
+    }
+
+    private void tickAndReschedule() {
+        fireDueSlots(Dates.today());
+        ZonedDateTime now = ZonedDateTime.now(); // Zoned, so the tick stays at local midnight across DST
+        long millisToMidnight = ChronoUnit.MILLIS.between(now, now.toLocalDate().plusDays(1).atStartOfDay(now.getZone()));
+        synchronized (this) {
+            if (executor != null) {
+                executor.schedule(this::tickAndReschedule, millisToMidnight + 1000, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Moves past the days that the state file says an earlier run fired, up to {@code today},
+     * without delivering their reminders again.
+     */
+    void skipDispatched(long today) {
+        long dispatched = readState();
+        if (dispatched != Dates.NO_DATE) advance(Math.min(dispatched, today), false);
+    }
+
+    /**
+     * Fires the reminders due {@code today}, dropping those of the days skipped since the last
+     * call, and records today as fired.
+     */
+    void fireDueSlots(long today) {
+        List<Reminder> due = advance(today, true);
+        if (due == null) return;
+        writeState(today);
+        deliver(due);
+    }
+
+    /**
+     * Moves the wheel on to {@code today}, one day at a time, emptying the slot of every day
+     * passed. Today's reminders are marked fired and, if {@code fire} is set, returned.
+     *
+     * @return the reminders to deliver, or null if today was already reached
+     */
+    private synchronized List<Reminder> advance(long today, boolean fire) {
+        if (today <= firedThrough) return null;
+        List<Reminder> due = new ArrayList<>();
+        firedToday.clear();
+        for (long day = firedThrough + 1; day <= today; day++) {
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((day & spanMask(level)) == 0) cascade(level, day); // First day of a span on this level
+            }
+            Set<Reminder> slot = levels.get(0).get(slot(day, 0));
+            for (Reminder reminder : slot) {
+                scheduled.remove(reminder);
+                if (day == today) {
+                    firedToday.add(reminder);
+                    if (fire) due.add(reminder);
+                }
+            }
+            slot.clear();
+            firedThrough = day;
+        }
+        advanced = true;
+        return due;
+    }
+
+    // Refiles the slot of the span starting on day, which now falls into a lower level
+    private void cascade(int level, long day) {
+        Set<Reminder> slot = levels.get(level).get(slot(day, level));
+        List<Reminder> moved = new ArrayList<>(slot);
+        slot.clear();
+        for (Reminder reminder : moved) {
+            file(reminder, scheduled.get(reminder).day(), day);
+        }
+    }
+
+    // Files the reminder on the lowest level whose span around `from` holds its day
+    private void file(Reminder reminder, long day, long from) {
+        int level = 0;
+        while (level < LEVELS - 1 && (day >> (SLOT_BITS * (level + 1))) != (from >> (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        Set<Reminder> slot = levels.get(level).get(slot(day, level));
+        slot.add(reminder);
+        scheduled.put(reminder, new Filed(day, slot));
+    }
+
+    private void deliver(List<Reminder> due) {
+        for (Reminder reminder : due) {
+            for (ReminderSink sink : sinks) {
+                try {
+                    sink.deliver(reminder);
+                } catch (RuntimeException e) {
+                    System.err.println("Error delivering reminder: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private long readState() {
+        try {
+            return Files.exists(stateFile) ? Dates.toEpochDay(Files.readString(stateFile, StandardCharsets.UTF_8).trim())
+                    : Dates.NO_DATE;
+        } catch (IOException e) {
+            System.err.println("Error reading " + stateFile + ": " + e.getMessage());
+            return Dates.NO_DATE;
+        }
+    }
+
+    private void writeState(long day) {
+        try {
+            Files.writeString(stateFile, Dates.format(day), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("Error writing " + stateFile + ": " + e.getMessage());
+        }
+    }
+
+    private static int slot(long day, int level) {
+        return (int) ((day >> (SLOT_BITS * level)) & (WHEEL_SIZE - 1));
+    }
+
+    // The bits of a day below this level's slot: zero on the first day of one of its spans
+    private static long spanMask(int level) {
+        return (1L << (SLOT_BITS * level)) - 1;
+    }
+}
@@ -10,14 +10,12 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
-import lib.json.JSONHandler;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 /**
  * Η κλάση {@code ReminderHandler} διαχειρίζεται τις υπενθυμίσεις των εργασιών.
@@ -39,12 +37,7 @@ public static void showSetReminderDialog(Task task) {
 
     // User selects reminder type
     ChoiceBox<String> reminderTypeBox = new ChoiceBox<>();
-    reminderTypeBox.getItems().addAll(
-            "One day before deadline",
-            "One week before deadline",
-            "One month before deadline",
-            "Custom date"
-    );
+    reminderTypeBox.getItems().addAll(TaskService.REMINDER_TYPES);
     reminderTypeBox.setValue("One day before deadline");
 
     // Custom input fields for date
@@ -64,65 +57,14 @@ public static void showSetReminderDialog(Task task) {
     Button saveButton = new Button("Save Reminder");
     saveButton.setOnAction(e -> {
         try {
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-            LocalDate dueDate = LocalDate.parse(task.getDueDate(), dateFormatter);
-            LocalDate today = LocalDate.now();
-            LocalDate reminderDate = null;
-
-
-
-            switch (reminderTypeBox.getValue()) {
-                case "One day before deadline":
-                    reminderDate = dueDate.minusDays(1);
-                    break;
-                case "One week before deadline":
-                    reminderDate = dueDate.minusWeeks(1);
-                    break;
-                case "One month before deadline":
-                    reminderDate = dueDate.minusMonths(1);
-                    break;
-                case "Custom date":
-                    try {
-                        reminderDate = LocalDate.parse(dateField.getText(), dateFormatter);
-                        String parsedDate = reminderDate.format(dateFormatter);
-                        if (!dateField.getText().equals(parsedDate)) {
-                            throw new DateTimeParseException("Invalid date", dateField.getText(), 0);
-                        }
-                    
-                    } catch (DateTimeParseException ex) {
-                        showAlert("Invalid Date", "Please enter a valid reminder date in format dd/MM/yyyy.");
-                        return;
-                    }
-                    break;
-                default:
-                    throw new IllegalArgumentException("Invalid reminder type selected");
-            }
-
-            if (reminderDate.isBefore(today)) {
-                showAlert("Invalid Date", "Reminder date cannot be in the past.");
-                return;
-            }
-
-            if (reminderDate.isAfter(dueDate)) {
-                showAlert("Invalid Date", "Reminder date cannot be after the task's due date (" + dueDate.format(dateFormatter) + ").");
-                return;
-            }
-            
-
-            Reminder newReminder = new Reminder(task.getTitle(), reminderDate.format(dateFormatter), messageField.getText(), reminderTypeBox.getValue(), task.getDueDate());
-
-            List<Reminder> reminders = JSONHandler.readReminders();
-            if (!reminders.contains(newReminder)) {
-                reminders.add(newReminder);
-                JSONHandler.writeReminders(reminders);
-                System.out.println("Reminder set for task: " + task.getTitle() + " on " + reminderDate);
+            if (TaskService.setReminder(task, reminderTypeBox.getValue(), dateField.getText(), messageField.getText())) {
+                System.out.println("Reminder set for task: " + task.getTitle() + " (" + reminderTypeBox.getValue() + ")");
             } else {
-                System.out.println("Duplicate reminder ignored: " + newReminder);
+                System.out.println("Duplicate reminder ignored for task: " + task.getTitle());
             }
-
             dialog.close();
-        } catch (Exception ex) {
-            showAlert("Invalid Input", "Please enter a valid date.");
+        } catch (TaskService.Rejected rejected) {
+            showAlert(rejected.title(), rejected.getMessage());
         }
     });
 
@@ -140,35 +82,11 @@ public static void showSetReminderDialog(Task task) {
     dialog.setScene(new Scene(grid, 350, 250));
     dialog.showAndWait();
 }
-/**
- * Updates the task title in all related reminders.
- * 
- * @param oldTitle The existing task title to be updated.
- * @param newTitle The new task title to replace the old one.
- */
-    
-    public static void updateTaskTitleInReminders(String oldTitle, String newTitle) {
-        List<Reminder> reminders = JSONHandler.readReminders();
-        boolean updated = false;
-    
-        for (Reminder reminder : reminders) {
-            if (reminder.getTaskTitle().equalsIgnoreCase(oldTitle)) {
-                reminder.setTaskTitle(newTitle);
-                updated = true;
-            }
-        }
-    
-        if (updated) {
-            JSONHandler.writeReminders(reminders);
-            System.out.println("✅ Updated reminder titles from '" + oldTitle + "' to '" + newTitle + "'");
-        }
-    }
-    
 
     /**
  * Εμφανίζει ένα παράθυρο διαλόγου για τη διαχείριση των υπενθυμίσεων.
  * Ο χρήστης μπορεί να προβάλλει, να επεξεργαστεί ή να διαγράψει υπάρχουσες υπενθυμίσεις.
- * Τα δεδομένα των υπενθυμίσεων φορτώνονται από το JSON αρχείο.
+ * Τα δεδομένα των υπενθυμίσεων προέρχονται από το {@link TaskRepository}.
  */
 
     public static void showRemindersDialog() {
@@ -177,7 +95,7 @@ public static void showSetReminderDialog(Task task) {
         reminderStage.setTitle("Manage Reminders");
         
         TableView<Reminder> reminderTable = new TableView<>();
-        ObservableList<Reminder> reminders = FXCollections.observableArrayList(JSONHandler.readReminders());
+        ObservableList<Reminder> reminders = TaskRepository.getReminders();
     
         TableColumn<Reminder, String> dateCol = new TableColumn<>("Date");
         dateCol.setCellValueFactory(new PropertyValueFactory<>("date"));
@@ -190,7 +108,18 @@ public static void showSetReminderDialog(Task task) {
         taskCol.setCellValueFactory(new PropertyValueFactory<>("taskTitle"));
     
         reminderTable.getColumns().addAll(dateCol, messageCol, taskCol);
-        reminderTable.setItems(reminders);
+        reminderTable.setItems(reminders); // Additions and removals arrive through the list itself
+
+        // Reminders are edited in place, which the list does not see; redraw only the edited rows
+        Consumer<ChangeBus.Change<Reminder>> redrawUpdated = change -> {
+            if (change.kind() != ChangeBus.Kind.UPDATED) return;
+            for (Reminder reminder : change.items()) {
+                int row = reminders.indexOf(reminder);
+                if (row >= 0) reminders.set(row, reminder);
+            }
+        };
+        TaskRepository.getReminderChanges().addListener(redrawUpdated);
+        reminderStage.setOnHidden(e -> TaskRepository.getReminderChanges().removeListener(redrawUpdated));
     
         Button modifyButton = new Button("Modify");
         modifyButton.setOnAction(e -> {
@@ -209,25 +138,8 @@ public static void showSetReminderDialog(Task task) {
             if (selectedReminder != null) {
                 System.out.println("🗑 Selected Reminder to delete: " + selectedReminder);
         
-                boolean removed = reminders.remove(selectedReminder);
+                boolean removed = TaskRepository.removeReminder(selectedReminder);
                 System.out.println("Removal status: " + removed); // ✅ Check if removal was successful
-        
-                List<Reminder> updatedReminders = reminders.stream().collect(Collectors.toList());
-                System.out.println("Updated Reminders List Before Writing: " + updatedReminders);
-        
-                JSONHandler.writeReminders(updatedReminders);
-        
-                // Reload the reminders from JSON to check if deletion actually happened
-                List<Reminder> reloadedReminders = JSONHandler.readReminders();
-                System.out.println("Reminders After Writing to JSON: " + reloadedReminders);
-        
-                reminderTable.refresh(); 
-        
-                if (!reloadedReminders.contains(selectedReminder)) {
-                    System.out.println("Reminder successfully removed from JSON!");
-                } else {
-                    System.out.println("Reminder still exists in JSON! Check writeReminders() method.");
-                }
             } else {
                 showAlert("No Reminder Selected", "Please select a reminder to delete.");
             }
@@ -270,7 +182,7 @@ public static void showSetReminderDialog(Task task) {
         saveButton.setOnAction(e -> {
         try{
            
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+            DateTimeFormatter dateFormatter = Dates.FORMAT;
             LocalDate newDate = LocalDate.parse(dateField.getText(), dateFormatter);
             LocalDate taskDueDate = LocalDate.parse(reminder.getTaskDueDate(), dateFormatter);
           
@@ -293,8 +205,9 @@ public static void showSetReminderDialog(Task task) {
             reminder.setDate(dateField.getText());
             reminder.setMessage(messageField.getText());
     
-            JSONHandler.writeReminders(new ArrayList<>(reminders));
-            table.refresh();
+            if (!TaskRepository.updateReminders(List.of(reminder)).isEmpty()) {
+                System.out.println("Duplicate reminder removed: " + reminder);
+            }
             dialog.close();
 
         } catch (DateTimeParseException ex) {
@@ -331,114 +244,4 @@ public static void showSetReminderDialog(Task task) {
         alert.setContentText(message);
         alert.showAndWait();
     }
-
-    /**
-     * Διαγράφει όλες τις υπενθυμίσεις που σχετίζονται με μια συγκεκριμένη εργασία.
-     *
-     * @param taskTitle Ο τίτλος της εργασίας της οποίας οι υπενθυμίσεις θα διαγραφούν.
-     */
-
-    public static void deleteRemindersForTask(String taskTitle) {
-        System.out.println(" Deleting all reminders for task: " + taskTitle);
-
-        List<Reminder> reminders = JSONHandler.readReminders();
-        List<Reminder> updatedReminders = reminders.stream()
-                .filter(r -> !r.getTaskTitle().equalsIgnoreCase(taskTitle))  // Keep only reminders NOT related to this task
-                .toList();
-
-        JSONHandler.writeReminders(updatedReminders);
-
-        System.out.println(" Deleted all reminders for completed task: " + taskTitle);
-    }
-
-     /**
-     * Ενημερώνει την ημερομηνία της υπενθύμισης μιας εργασίας όταν αλλάζει η προθεσμία της.
-     *
-     * @param taskTitle  Ο τίτλος της εργασίας.
-     * @param newDueDate Η νέα ημερομηνία προθεσμίας.
-     */
-
-    public static void updateReminderForTask(String taskTitle, String newDueDate) {
-        List<Reminder> reminders = JSONHandler.readReminders(); // Load existing reminders
-    
-        for (Reminder reminder : reminders) {
-            if (reminder.getTaskTitle().equals(taskTitle)) {
-                // Skip update if it's a custom date (we assume custom reminders have a flag)
-                if (reminder.isCustomDate()) {
-                    System.out.println(" Skipping reminder update for task: " + taskTitle + " (Custom Reminder)");
-                    continue;
-                }
-    
-                // Update reminder date based on user preference
-                String newReminderDate;
-                switch (reminder.getReminderType()) {
-                    case "One day before deadline":
-                        newReminderDate = subtractDays(newDueDate, 1);
-                        break;
-                    case "One week before deadline":
-                        newReminderDate = subtractDays(newDueDate, 7);
-                        break;
-                    case "One month before deadline":
-                        newReminderDate = subtractDays(newDueDate, 30);
-                        break;
-                    case "Custom date":
-                        // If it's a custom date, we **don't change** the reminder date
-                        newReminderDate = reminder.getDate();
-                        break;
-                    default:
-                        System.err.println(" Unexpected reminder type: " + reminder.getReminderType());
-                        newReminderDate = reminder.getDate(); // Fallback to existing date
-                        break;
-                }
-    
-                reminder.setDate(newReminderDate);
-                System.out.println("Reminder updated for task: " + taskTitle + " New Reminder Date: " + newReminderDate);
-            }
-        }
-    
-        JSONHandler.writeReminders(reminders); // Save updated reminders
-    }
-
-
-    /**
-     * Υπολογίζει μια νέα ημερομηνία υπενθύμισης, αφαιρώντας έναν αριθμό ημερών από μια δεδομένη ημερομηνία.
-     *
-     * @param dateStr Η αρχική ημερομηνία σε μορφή "dd/MM/yyyy".
-     * @param days    Ο αριθμός των ημερών που θα αφαιρεθούν.
-     * @return Η νέα ημερομηνία σε μορφή "dd/MM/yyyy".
-     */
-
-    private static String subtractDays(String dateStr, int days) {
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-    
-        try {
-            // Convert String to LocalDate for calculation
-            LocalDate date = LocalDate.parse(dateStr, dateFormatter);
-            // Subtract the required days
-            LocalDate newDate = date.minusDays(days);
-            // Convert back to String and return
-            return newDate.format(dateFormatter);
-        } catch (DateTimeParseException e) {
-            System.err.println("⚠️ Invalid date format: " + dateStr);
-            return dateStr; // Return original if parsing fails
-        }
-    }
-/**
-     * Ενημερώνει την ημερομηνία προθεσμίας μιας εργασίας σε όλες τις σχετικές υπενθυμίσεις.
-     * @param taskTitle  Ο τίτλος της εργασίας.
-     * @param newDueDate Η νέα ημερομηνία προθεσμίας.
-     */
-    public static void updateReminderDueDateForTask(String taskTitle, String newDueDate) {
-        List<Reminder> reminders = JSONHandler.readReminders();
-    
-        for (Reminder reminder : reminders) {
-            reminder.setTaskDueDate(newDueDate);
-        }
-    
-        JSONHandler.writeReminders(reminders);
-    }
-    
-    
-    
-    
 }
@@ -0,0 +1,100 @@
+package lib.javafx;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups reminders by the id of the task they belong to, and keeps them distinct by value
+ * (see {@link Reminder#equals(Object)}) with a hash lookup. Renaming a task does not move
+ * its reminders, since the id never changes.
+ * <p>
+ * Reminders are modified in place, so the index remembers the value each one was filed
+ * under; {@link #rekey(Collection)} refiles them after a change.
+ */
+public class ReminderIndex {
+
+    private record Key(long taskId, String taskTitle, String date, String reminderType, String message) {
+        static Key of(Reminder reminder) {
+            return new Key(reminder.getTaskId(), reminder.getTaskId() == 0 ? reminder.getTaskTitle() : null,
+                    reminder.getDate(), reminder.getReminderType(), reminder.getMessage());
+        }
+    }
+
+    private final LongMap<List<Reminder>> byTaskId = new LongMap<>();
+    private final Map<Key, Reminder> distinct = new HashMap<>();
+    private final Map<Reminder, Key> filedUnder = new IdentityHashMap<>();
+
+    /**
+     * @return the reminders that duplicate an earlier one and were left out
+     */
+    public List<Reminder> rebuild(Collection<Reminder> reminders) {
+        byTaskId.clear();
+        distinct.clear();
+        filedUnder.clear();
+        List<Reminder> duplicates = new ArrayList<>();
+        for (Reminder reminder : reminders) {
+            if (!add(reminder)) duplicates.add(reminder);
+        }
+        return duplicates;
+    }
+
+    /**
+     * @return true if a reminder with the same value is already filed
+     */
+    public boolean contains(Reminder reminder) {
+        return distinct.containsKey(Key.of(reminder));
+    }
+
+    /**
+     * Files a reminder unless an equal one is already filed.
+     *
+     * @return false if the reminder is a duplicate and was not added
+     */
+    public boolean add(Reminder reminder) {
+        Key key = Key.of(reminder);
+        if (distinct.putIfAbsent(key, reminder) != null) return false;
+        filedUnder.put(reminder, key);
+        if (reminder.getTaskId() != 0) {
+            byTaskId.computeIfAbsent(reminder.getTaskId(), id -> new ArrayList<>()).add(reminder);
+        }
+        return true;
+    }
+
+    public void remove(Reminder reminder) {
+        Key key = filedUnder.remove(reminder);
+        if (key == null) return;
+        distinct.remove(key);
+        List<Reminder> group = byTaskId.get(key.taskId());
+        if (group != null && group.removeIf(r -> r == reminder) && group.isEmpty()) {
+            byTaskId.remove(key.taskId());
+        }
+    }
+
+    /**
+     * Refiles reminders that were modified in place.
+     *
+     * @return the reminders that now equal another filed reminder; they are no longer filed
+     */
+    public List<Reminder> rekey(Collection<Reminder> changed) {
+        List<Reminder> duplicates = new ArrayList<>();
+        for (Reminder reminder : changed) {
+            Key key = filedUnder.get(reminder);
+            if (key == null || key.equals(Key.of(reminder))) continue;
+            remove(reminder);
+            if (!add(reminder)) duplicates.add(reminder);
+        }
+        return duplicates;
+    }
+
+    /**
+     * @return a copy of the reminders linked to the task
+     */
+    public List<Reminder> remindersFor(long taskId) {
+        List<Reminder> group = byTaskId.get(taskId);
+        return group == null ? new ArrayList<>() : new ArrayList<>(group);
+    }
+}
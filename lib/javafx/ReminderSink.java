@@ -0,0 +1,10 @@
+package lib.javafx;
+
+/**
+ * Receives reminders when their date arrives. Called on the dispatcher thread, so
+ * implementations that touch the UI must hand over to the FX thread themselves.
+ */
+public interface ReminderSink {
+
+    void deliver(Reminder reminder);
+}
@@ -0,0 +1,66 @@
+package lib.javafx;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The search thread's own copy of the tasks, with its own {@link TaskIndex} and
+ * {@link TrigramIndex} over the copies, so that background queries intersect index buckets
+ * and posting lists like {@link TaskSearch#find} does on the live tasks, without reading any
+ * state the repository changes.
+ * <p>
+ * The thread that modifies the repository copies each changed task and hands the copies to
+ * the search thread in order; the search thread applies them before the queries submitted
+ * after them. Only the search thread may call the methods of this class.
+ */
+final class SearchReplica {
+
+    private final Map<Task, Task> copyOf = new IdentityHashMap<>(); // Live task -> its current copy
+    private final Map<Task, Task> liveOf = new IdentityHashMap<>(); // Copy -> its live task
+    private final TaskIndex index = new TaskIndex();
+    private final TrigramIndex text = new TrigramIndex();
+
+    /**
+     * Refiles the copy of a changed task, if the task was added before.
+     */
+    void update(Task live, Task copy) {
+        if (copyOf.containsKey(live)) put(live, copy);
+    }
+
+    /**
+     * Files the copy of a task that was added, in place of any previous copy.
+     */
+    void put(Task live, Task copy) {
+        remove(live);
+        copyOf.put(live, copy);
+        liveOf.put(copy, live);
+        index.add(copy);
+        text.add(copy);
+    }
+
+    void remove(Task live) {
+        Task copy = copyOf.remove(live);
+        if (copy == null) return;
+        liveOf.remove(copy);
+        index.remove(copy);
+        text.remove(copy);
+    }
+
+    Collection<Task> copies() {
+        return liveOf.keySet();
+    }
+
+    TaskIndex index() {
+        return index;
+    }
+
+    TrigramIndex text() {
+        return text;
+    }
+
+    /** @return the live task a copy was taken from */
+    Task live(Task copy) {
+        return liveOf.get(copy);
+    }
+}
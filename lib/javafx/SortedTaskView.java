@@ -0,0 +1,384 @@
+package lib.javafx;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Read-only, always sorted view of the task list for the task table.
+ * <p>
+ * Every sort key has its own order-statistic tree (an AVL tree whose nodes count their
+ * subtree), kept up to date on each change, so an insert or update costs O(log n) per key and
+ * {@link #get(int)} is O(log n). Switching the sort key or direction only changes which tree
+ * is read; the table is told with a permutation and nothing is copied.
+ * <p>
+ * Like {@link TaskIndex}, the view remembers the sort fields each task was filed under, and
+ * {@link #update(Task)} moves a task modified in place. It is maintained by
+ * {@link TaskRepository}; the list itself cannot be modified.
+ */
+public class SortedTaskView extends ObservableListBase<Task> {
+
+    /**
+     * Orders the table can be sorted by. Ties are broken by due date, then by task id.
+     */
+    public enum SortKey {
+        /** Category name, ignoring case. */
+        CATEGORY(Comparator.comparing(Entry::category, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))),
+        /** Priority rank: the order the priorities are listed in, i.e. their {@link NameDictionary} id. */
+        PRIORITY(Comparator.comparingInt(Entry::priorityId)),
+        /** Due date; tasks without a valid due date come last. */
+        DUE_DATE(Comparator.comparingLong(SortedTaskView::dueOrder)),
+        /** Status name, ignoring case. */
+        STATUS(Comparator.comparing(Entry::status, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)));
+
+        private final Comparator<Entry> order;
+
+        SortKey(Comparator<Entry> primary) {
+            this.order = primary.thenComparingLong(SortedTaskView::dueOrder).thenComparingLong(Entry::id);
+        }
+
+        /**
+         * @return the same order over live task values, for lists other than the view
+         */
+        public Comparator<Task> comparator() {
+            return Comparator.comparing(Entry::of, order);
+        }
+    }
+
+    private record Entry(Task task, long id, String category, int priorityId, long dueEpochDay, String status) {
+        static Entry of(Task task) {
+            return new Entry(task, task.getId(), task.getCategory(), task.getPriorityId(),
+                    task.getDueEpochDay(), task.getStatus());
+        }
+    }
+
+    private static long dueOrder(Entry entry) {
+        return entry.dueEpochDay() == Dates.NO_DATE ? Long.MAX_VALUE : entry.dueEpochDay();
+    }
+
+    private final Map<Task, Entry> indexed = new IdentityHashMap<>();
+    private final Map<SortKey, OrderTree> trees = new EnumMap<>(SortKey.class);
+    private SortKey sortKey = SortKey.CATEGORY;
+    private boolean descending = false;
+
+    public SortedTaskView() {
+        for (SortKey key : SortKey.values()) {
+            trees.put(key, new OrderTree(key.order));
+        }
+    }
+
+    @Override
+    public Task get(int index) {
+        return current().get(viewIndex(index)).task();
+    }
+
+    @Override
+    public int size() {
+        return indexed.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Task task && indexed.containsKey(task);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        Entry entry = o instanceof Task task ? indexed.get(task) : null;
+        return entry == null ? -1 : viewIndex(current().rank(entry));
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o); // A task appears once
+    }
+
+    public SortKey getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Switches the order without copying or re-sorting: every order is already maintained.
+     */
+    public void sortBy(SortKey key, boolean descending) {
+        if (key == sortKey && descending == this.descending) return;
+        OrderTree before = current();
+        boolean wasDescending = this.descending;
+        sortKey = key;
+        this.descending = descending;
+        firePermutation(before, wasDescending);
+    }
+
+    // Maintenance, called by TaskRepository only
+
+    void track(Task task) {
+        if (indexed.containsKey(task)) {
+            update(task);
+            return;
+        }
+        Entry entry = Entry.of(task);
+        indexed.put(task, entry);
+        trees.values().forEach(tree -> tree.insert(entry));
+        int position = indexOf(task);
+        beginChange();
+        nextAdd(position, position + 1);
+        endChange();
+    }
+
+    /**
+     * Adds several new tasks as one list change. Into an empty view that is a single range;
+     * otherwise one added row per task.
+     */
+    void trackAll(Collection<Task> added) {
+        if (added.isEmpty()) return;
+        boolean wasEmpty = isEmpty();
+        beginChange();
+        for (Task task : added) {
+            if (indexed.containsKey(task)) continue;
+            Entry entry = Entry.of(task);
+            indexed.put(task, entry);
+            trees.values().forEach(tree -> tree.insert(entry));
+            if (!wasEmpty) {
+                int position = indexOf(task);
+                nextAdd(position, position + 1);
+            }
+        }
+        if (wasEmpty && !isEmpty()) nextAdd(0, size());
+        endChange();
+    }
+
+    void untrack(Task task) {
+        Entry entry = indexed.get(task);
+        if (entry == null) return;
+        int position = indexOf(task);
+        indexed.remove(task);
+        trees.values().forEach(tree -> tree.delete(entry));
+        beginChange();
+        nextRemove(position, task);
+        endChange();
+    }
+
+    /**
+     * Moves a task whose sort fields were changed in place.
+     */
+    void update(Task task) {
+        Entry previous = indexed.get(task);
+        if (previous == null) return;
+        int from = indexOf(task);
+        Entry entry = Entry.of(task);
+        if (!entry.equals(previous)) {
+            indexed.put(task, entry);
+            trees.values().forEach(tree -> {
+                tree.delete(previous);
+                tree.insert(entry);
+            });
+        }
+        int to = indexOf(task);
+        beginChange();
+        if (from == to) {
+            nextUpdate(to);
+        } else {
+            nextRemove(from, task);
+            nextAdd(to, to + 1);
+        }
+        endChange();
+    }
+
+    /**
+     * Moves several tasks modified in place, as one list change. After a category is renamed
+     * in the {@link NameDictionary} these are the tasks that use it: their entries still hold
+     * the old name, so only they are re-filed.
+     */
+    void updateAll(Collection<Task> updated) {
+        if (updated.isEmpty()) return;
+        beginChange();
+        updated.forEach(this::update);
+        endChange();
+    }
+
+    private OrderTree current() {
+        return trees.get(sortKey);
+    }
+
+    private int viewIndex(int treeIndex) {
+        return descending ? size() - 1 - treeIndex : treeIndex;
+    }
+
+    // Tells listeners where each row moved, comparing the order in `before` with the current one
+    private void firePermutation(OrderTree before, boolean wasDescending) {
+        int size = size();
+        if (size < 2) return;
+        int[] permutation = new int[size];
+        int[] treeIndex = {0};
+        before.forEach(old -> {
+            int from = wasDescending ? size - 1 - treeIndex[0] : treeIndex[0];
+            permutation[from] = indexOf(old.task());
+            treeIndex[0]++;
+        });
+        beginChange();
+        nextPermutation(0, size, permutation);
+        endChange();
+    }
+
+    /**
+     * AVL tree of entries in which each node knows the size of its subtree, so the entry at a
+     * position and the position of an entry are both found in O(log n).
+     */
+    private static final class OrderTree {
+
+        private static final class Node {
+            final Entry entry;
+            Node left;
+            Node right;
+            int height = 1;
+            int size = 1;
+
+            Node(Entry entry) {
+                this.entry = entry;
+            }
+        }
+
+        private final Comparator<Entry> order;
+        private Node root;
+
+        OrderTree(Comparator<Entry> order) {
+            this.order = order;
+        }
+
+        void insert(Entry entry) {
+            root = insert(root, entry);
+        }
+
+        void delete(Entry entry) {
+            root = delete(root, entry);
+        }
+
+        Entry get(int index) {
+            Node node = root;
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (index < leftSize) {
+                    node = node.left;
+                } else if (index > leftSize) {
+                    index -= leftSize + 1;
+                    node = node.right;
+                } else {
+                    return node.entry;
+                }
+            }
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        int rank(Entry entry) {
+            int rank = 0;
+            Node node = root;
+            while (node != null) {
+                int c = order.compare(entry, node.entry);
+                if (c < 0) {
+                    node = node.left;
+                } else if (c > 0) {
+                    rank += size(node.left) + 1;
+                    node = node.right;
+                } else {
+                    return rank + size(node.left);
+                }
+            }
+            return -1;
+        }
+
+        void forEach(Consumer<Entry> action) {
+            forEach(root, action);
+        }
+
+        private static void forEach(Node node, Consumer<Entry> action) {
+            if (node == null) return;
+            forEach(node.left, action);
+            action.accept(node.entry);
+            forEach(node.right, action);
+        }
+
+        private Node insert(Node node, Entry entry) {
+            if (node == null) return new Node(entry);
+            if (order.compare(entry, node.entry) < 0) {
+                node.left = insert(node.left, entry);
+            } else {
+                node.right = insert(node.right, entry);
+            }
+            return balance(node);
+        }
+
+        private Node delete(Node node, Entry entry) {
+            if (node == null) return null;
+            int c = order.compare(entry, node.entry);
+            if (c < 0) {
+                node.left = delete(node.left, entry);
+            } else if (c > 0) {
+                node.right = delete(node.right, entry);
+            } else {
+                if (node.left == null) return node.right;
+                if (node.right == null) return node.left;
+                Node successor = node.right;
+                while (successor.left != null) successor = successor.left;
+                Node replacement = new Node(successor.entry);
+                replacement.left = node.left;
+                replacement.right = delete(node.right, successor.entry);
+                node = replacement;
+            }
+            return balance(node);
+        }
+
+        private static Node balance(Node node) {
+            update(node);
+            int skew = height(node.left) - height(node.right);
+            if (skew > 1) {
+                if (height(node.left.left) < height(node.left.right)) node.left = rotateLeft(node.left);
+                return rotateRight(node);
+            }
+            if (skew < -1) {
+                if (height(node.right.right) < height(node.right.left)) node.right = rotateRight(node.right);
+                return rotateLeft(node);
+            }
+            return node;
+        }
+
+        private static Node rotateRight(Node node) {
+            Node pivot = node.left;
+            node.left = pivot.right;
+            pivot.right = node;
+            update(node);
+            update(pivot);
+            return pivot;
+        }
+
+        private static Node rotateLeft(Node node) {
+            Node pivot = node.right;
+            node.right = pivot.left;
+            pivot.left = node;
+            update(node);
+            update(pivot);
+            return pivot;
+        }
+
+        private static void update(Node node) {
+            node.height = 1 + Math.max(height(node.left), height(node.right));
+            node.size = 1 + size(node.left) + size(node.right);
+        }
+
+        private static int height(Node node) {
+            return node == null ? 0 : node.height;
+        }
+
+        private static int size(Node node) {
+            return node == null ? 0 : node.size;
+        }
+    }
+}
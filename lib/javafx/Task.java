@@ -1,14 +1,15 @@
 package lib.javafx;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 public class Task {
+    private long id;          // Assigned by TaskRepository, starting at 1; 0 until then
     private String title;
     private String description;
-    private String category;
-    private String priority;  // Changed to String to represent High/Low
-    private String dueDate;   // Date format "dd/MM/yy"
+    private int categoryId = NameDictionary.NONE; // Interned in NameDictionary.CATEGORIES; JSON keeps the name
+    private int priorityId = NameDictionary.NONE; // Interned in NameDictionary.PRIORITIES; JSON keeps the name
+    private String dueDate;   // Date format "dd/MM/yyyy", kept as a string for the JSON files; null until formatted if set by epoch day
+    private long dueEpochDay = Dates.NO_DATE; // dueDate parsed once, whenever it is set
     private String status;    // Status: "Open", "In Progress", "Postponed", "Completed", "Delayed"
 
     // Default constructor
@@ -20,38 +21,73 @@ public class Task {
     public Task(String title, String description, String category, String priority, String dueDate, String status) {
         this.title = title;
         this.description = description;
-        this.category = category;
-        this.priority = priority;
+        this.categoryId = NameDictionary.CATEGORIES.intern(category); // Not the setters, which subclasses may override
+        this.priorityId = NameDictionary.PRIORITIES.intern(priority);
         this.dueDate = dueDate;
+        this.dueEpochDay = Dates.toEpochDay(dueDate);
         this.status = (status != null) ? status : "Open";  // Default to "Open"
     }
 
+    // Copy, for stores that write a task out while the original may still change
+    public Task(Task other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.description = other.description;
+        this.categoryId = other.categoryId;
+        this.priorityId = other.priorityId;
+        this.dueDate = other.dueDate;
+        this.dueEpochDay = other.dueEpochDay;
+        this.status = other.status;
+    }
+
     // Getters and Setters
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
 
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
-    public String getCategory() { return category; }
-    public void setCategory(String category) { this.category = category; }
+    public String getCategory() { return NameDictionary.CATEGORIES.nameOf(categoryId); }
+    public void setCategory(String category) { this.categoryId = NameDictionary.CATEGORIES.intern(category); }
+
+    @JsonIgnore
+    public int getCategoryId() { return categoryId; }
+
+    public String getPriority() { return NameDictionary.PRIORITIES.nameOf(priorityId); }
+    public void setPriority(String priority) { this.priorityId = NameDictionary.PRIORITIES.intern(priority); }
+
+    @JsonIgnore
+    public int getPriorityId() { return priorityId; }
 
-    public String getPriority() { return priority; }
-    public void setPriority(String priority) { this.priority = priority; }
+    public String getDueDate() {
+        if (dueDate == null && dueEpochDay != Dates.NO_DATE) dueDate = Dates.format(dueEpochDay);
+        return dueDate;
+    }
+    public void setDueDate(String dueDate) {
+        this.dueDate = dueDate;
+        this.dueEpochDay = Dates.toEpochDay(dueDate);
+    }
 
-    public String getDueDate() { return dueDate; }
-    public void setDueDate(String dueDate) { this.dueDate = dueDate; }
+    // Sets a valid due date without parsing, for stores that keep epoch days; the string is formatted when first read
+    @JsonIgnore
+    public void setDueEpochDay(long epochDay) {
+        this.dueDate = null;
+        this.dueEpochDay = epochDay;
+    }
+
+    // Due date as epoch day, or Dates.NO_DATE if dueDate is not a valid date
+    @JsonIgnore
+    public long getDueEpochDay() { return dueEpochDay; }
 
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
 
     // Method to check and update status if overdue
     public void checkAndUpdateStatus() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yy");
-        LocalDate today = LocalDate.now();
-        LocalDate dueDateObj = LocalDate.parse(dueDate, formatter);
-
-        if (!status.equals("Completed") && dueDateObj.isBefore(today)) {
+        if (!status.equals("Completed") && dueEpochDay != Dates.NO_DATE && dueEpochDay < Dates.today()) {
             status = "Delayed";  // Update status if overdue
         }
     }
@@ -0,0 +1,76 @@
+package lib.javafx;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A set of task and reminder changes applied by {@link TaskRepository#apply(TaskBatch)} in one
+ * in-memory pass and persisted in one commit.
+ * <p>
+ * Removing a task cascades to the reminders linked to it. Tasks and reminders are recorded
+ * after they were modified in place, as with {@link TaskRepository#updateTask(Task)}.
+ */
+public class TaskBatch {
+
+    /**
+     * What a batch changed.
+     */
+    public record Result(int tasksUpdated, int tasksRemoved, int remindersUpdated, int remindersRemoved) {
+
+        @Override
+        public String toString() {
+            return tasksUpdated + " tasks updated, " + tasksRemoved + " tasks removed, "
+                    + remindersUpdated + " reminders updated, " + remindersRemoved + " reminders removed";
+        }
+    }
+
+    final Set<Task> updatedTasks = new LinkedHashSet<>();
+    final Set<Task> removedTasks = new LinkedHashSet<>();
+    final Set<Reminder> updatedReminders = Collections.newSetFromMap(new IdentityHashMap<>());
+    final Set<Reminder> removedReminders = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public TaskBatch updateTask(Task task) {
+        if (!removedTasks.contains(task)) updatedTasks.add(task);
+        return this;
+    }
+
+    public TaskBatch updateTasks(Collection<Task> tasks) {
+        tasks.forEach(this::updateTask);
+        return this;
+    }
+
+    /**
+     * Removes the task and every reminder linked to it.
+     */
+    public TaskBatch removeTask(Task task) {
+        updatedTasks.remove(task);
+        removedTasks.add(task);
+        return this;
+    }
+
+    public TaskBatch removeTasks(Collection<Task> tasks) {
+        tasks.forEach(this::removeTask);
+        return this;
+    }
+
+    /**
+     * @param reminder the reminder, already modified in place
+     */
+    public TaskBatch updateReminder(Reminder reminder) {
+        updatedReminders.add(reminder);
+        return this;
+    }
+
+    public TaskBatch removeReminder(Reminder reminder) {
+        removedReminders.add(reminder);
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return updatedTasks.isEmpty() && removedTasks.isEmpty()
+                && updatedReminders.isEmpty() && removedReminders.isEmpty();
+    }
+}
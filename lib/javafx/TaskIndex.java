@@ -0,0 +1,190 @@
+package lib.javafx;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Secondary indexes over the task collection: hash indexes on category, priority and
+ * status, and a sorted index on the due date (as epoch day).
+ * <p>
+ * Categories and priorities are filed under their {@link NameDictionary} id, so renaming
+ * one does not move any task. Lookups by name, like status lookups, ignore case.
+ * The index remembers the keys each task was filed under, so after a task is modified in
+ * place {@link #update(Task)} moves it between buckets without a full rebuild.
+ * Tasks whose due date cannot be parsed are left out of the due-date index.
+ */
+public class TaskIndex {
+
+    private record Keys(int categoryId, int priorityId, String status, long dueEpochDay) {}
+
+    private final Map<Task, Keys> indexed = new IdentityHashMap<>();
+    private final Map<Integer, Set<Task>> byCategory = new HashMap<>();
+    private final Map<Integer, Set<Task>> byPriority = new HashMap<>();
+    private final Map<String, Set<Task>> byStatus = new HashMap<>();
+    private final NavigableMap<Long, Set<Task>> byDueDate = new TreeMap<>();
+
+    public void rebuild(Collection<Task> tasks) {
+        indexed.clear();
+        byCategory.clear();
+        byPriority.clear();
+        byStatus.clear();
+        byDueDate.clear();
+        tasks.forEach(this::add);
+    }
+
+    public void add(Task task) {
+        Keys keys = keysOf(task);
+        indexed.put(task, keys);
+        file(byCategory, keys.categoryId(), task);
+        file(byPriority, keys.priorityId(), task);
+        file(byStatus, keys.status(), task);
+        if (keys.dueEpochDay() != Dates.NO_DATE) {
+            byDueDate.computeIfAbsent(keys.dueEpochDay(), d -> new LinkedHashSet<>()).add(task);
+        }
+    }
+
+    public void remove(Task task) {
+        Keys keys = indexed.remove(task);
+        if (keys == null) return;
+        unfile(byCategory, keys.categoryId(), task);
+        unfile(byPriority, keys.priorityId(), task);
+        unfile(byStatus, keys.status(), task);
+        if (keys.dueEpochDay() != Dates.NO_DATE) {
+            unfile(byDueDate, keys.dueEpochDay(), task);
+        }
+    }
+
+    /**
+     * Re-files a task whose fields were changed in place.
+     */
+    public void update(Task task) {
+        Keys previous = indexed.get(task);
+        if (previous != null && previous.equals(keysOf(task))) return;
+        remove(task);
+        add(task);
+    }
+
+    public List<Task> withCategory(String category) {
+        return copyOf(byCategory, NameDictionary.CATEGORIES.idsIgnoreCase(category));
+    }
+
+    public List<Task> withPriority(String priority) {
+        return copyOf(byPriority, NameDictionary.PRIORITIES.idsIgnoreCase(priority));
+    }
+
+    public List<Task> withStatus(String status) {
+        return copyOf(byStatus, normalize(status));
+    }
+
+    public int countWithCategory(String category) {
+        return sizeOf(byCategory, NameDictionary.CATEGORIES.idsIgnoreCase(category));
+    }
+
+    public int countWithPriority(String priority) {
+        return sizeOf(byPriority, NameDictionary.PRIORITIES.idsIgnoreCase(priority));
+    }
+
+    public List<Task> withCategoryId(int categoryId) {
+        return copyOf(byCategory, categoryId);
+    }
+
+    public List<Task> withPriorityId(int priorityId) {
+        return copyOf(byPriority, priorityId);
+    }
+
+    public int countWithCategoryId(int categoryId) {
+        return sizeOf(byCategory, categoryId);
+    }
+
+    public int countWithPriorityId(int priorityId) {
+        return sizeOf(byPriority, priorityId);
+    }
+
+    public int countWithStatus(String status) {
+        return sizeOf(byStatus, normalize(status));
+    }
+
+    public List<Task> dueOn(LocalDate date) {
+        return copyOf(byDueDate, date.toEpochDay());
+    }
+
+    /**
+     * @return tasks due between {@code from} and {@code to}, both inclusive, in due-date order
+     */
+    public List<Task> dueBetween(LocalDate from, LocalDate to) {
+        List<Task> result = new ArrayList<>();
+        byDueDate.subMap(from.toEpochDay(), true, to.toEpochDay(), true).values().forEach(result::addAll);
+        return result;
+    }
+
+    public boolean isDueOn(Task task, LocalDate date) {
+        Keys keys = indexed.get(task);
+        return keys != null && keys.dueEpochDay() != Dates.NO_DATE && keys.dueEpochDay() == date.toEpochDay();
+    }
+
+    public int countDueBetween(LocalDate from, LocalDate to) {
+        int count = 0;
+        for (Set<Task> bucket : byDueDate.subMap(from.toEpochDay(), true, to.toEpochDay(), true).values()) {
+            count += bucket.size();
+        }
+        return count;
+    }
+
+    public int size() {
+        return indexed.size();
+    }
+
+    private static Keys keysOf(Task task) {
+        return new Keys(task.getCategoryId(), task.getPriorityId(), normalize(task.getStatus()), task.getDueEpochDay());
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static <K> void file(Map<K, Set<Task>> index, K key, Task task) {
+        index.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(task);
+    }
+
+    private static <K> void unfile(Map<K, Set<Task>> index, K key, Task task) {
+        Set<Task> bucket = index.get(key);
+        if (bucket != null && bucket.remove(task) && bucket.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static <K> List<Task> copyOf(Map<K, Set<Task>> index, K key) {
+        Set<Task> bucket = index.get(key);
+        return bucket == null ? new ArrayList<>() : new ArrayList<>(bucket);
+    }
+
+    private static <K> List<Task> copyOf(Map<K, Set<Task>> index, List<K> keys) {
+        if (keys.size() == 1) return copyOf(index, keys.get(0));
+        List<Task> result = new ArrayList<>();
+        keys.forEach(key -> result.addAll(index.getOrDefault(key, Set.of())));
+        return result;
+    }
+
+    private static <K> int sizeOf(Map<K, Set<Task>> index, List<K> keys) {
+        int size = 0;
+        for (K key : keys) {
+            size += sizeOf(index, key);
+        }
+        return size;
+    }
+
+    private static <K> int sizeOf(Map<K, Set<Task>> index, K key) {
+        Set<Task> bucket = index.get(key);
+        return bucket == null ? 0 : bucket.size();
+    }
+}
@@ -1,9 +1,11 @@
 package lib.javafx;
 
 import javafx.animation.Animation;
+import javafx.animation.AnimationTimer;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -14,20 +16,27 @@ import javafx.scene.layout.*;
 import javafx.stage.Stage;
 import javafx.stage.Window;
 import javafx.stage.Modality;
-import lib.json.JSONHandler;
 import javafx.util.Duration;
+import java.io.File;
+import java.io.IOException;
 import java.util.Date;
 import java.text.SimpleDateFormat;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import lib.javafx.CategoryHandler;
+import lib.json.JSONHandler;
+import lib.metrics.Metrics;
 
 
 public class TaskManager extends Application {
@@ -37,14 +46,33 @@ public class TaskManager extends Application {
 
     @Override
     public void start(Stage primaryStage) {
-        showMedialabAssistant(primaryStage); 
+        long launchedAt = System.nanoTime();
+        TaskRepository.getReminderDispatcher().addSink(new FxReminderSink()); // Started once the tasks are loaded
+        TaskRepository.getReminderDispatcher().addSink(new LogReminderSink());
+        FxStallMonitor.start(Platform::runLater);
+
+        // Categories, priorities, tasks and reminders are read on background threads while the window opens.
+        // The load starts before anything reads the repository, so readers see it fill in instead of loading it
+        CompletableFuture<Void> namesLoaded = CompletableFuture.allOf(
+                PriorityHandler.loadAsync(Platform::runLater), CategoryHandler.loadAsync(Platform::runLater));
+        loading = TaskRepository.loadAsync(namesLoaded, Platform::runLater);
+        showMedialabAssistant(primaryStage, launchedAt);
     }
+    private CompletableFuture<Void> loading; // Completes once every task has been streamed in
     private Label totalLabel;
     private Label completedLabel;
     private Label delayedLabel;
     private Label upcomingLabel;
-
-private void showMedialabAssistant(Stage primaryStage) {
+    private Label categoryBreakdownLabel;
+    private Label priorityBreakdownLabel;
+    private Timeline midnightSweep;
+    private ObservableList<Task> filteredTasks; // Rows shown while a search filter is active; null otherwise
+    private final Map<Task, Task> filedAs = new IdentityHashMap<>(); // Each filtered row's sort fields when placed
+    private Predicate<Task> activeFilter;
+    private TaskSearch search; // Filters as the user types; created with the first task window
+    private static final double METRICS_PANEL_HEIGHT = 260;
+
+private void showMedialabAssistant(Stage primaryStage, long launchedAt) {
     Stage assistantStage = new Stage();
 
     assistantStage.setTitle("Medialab Assistant");
@@ -57,10 +85,19 @@ private void showMedialabAssistant(Stage primaryStage) {
     completedLabel = new Label();
     delayedLabel = new Label();
     upcomingLabel = new Label();
+    categoryBreakdownLabel = new Label();
+    categoryBreakdownLabel.setWrapText(true);
+    priorityBreakdownLabel = new Label();
+    priorityBreakdownLabel.setWrapText(true);
 
-    updateTaskStatistics();
+    updateTaskStatistics(); // Counts grow as the loaded tasks stream in
+    TaskRepository.getTaskChanges().addListener(change -> {
+        updateTaskStatistics();
+        applyToFilteredTasks(change);
+    });
 
-    VBox statsBox = new VBox(10, titleLabel, totalLabel, completedLabel, delayedLabel, upcomingLabel);
+    VBox statsBox = new VBox(10, titleLabel, totalLabel, completedLabel, delayedLabel, upcomingLabel,
+            categoryBreakdownLabel, priorityBreakdownLabel);
     statsBox.setStyle("-fx-padding: 15px; -fx-alignment: center; -fx-background-color: #f0f0f0;");
     statsBox.setMinHeight(180); 
 
@@ -72,56 +109,124 @@ private void showMedialabAssistant(Stage primaryStage) {
     manageTasksButton.setMinWidth(250);
     manageTasksButton.setOnAction(e -> {
         showTaskManager(primaryStage);
-        updateTaskStatistics();
     });
 
     Button manageCategoriesButton = new Button("See Categories");
     manageCategoriesButton.setMinWidth(250);
     manageCategoriesButton.setOnAction(e -> {
-        CategoryHandler.showManageCategoriesDialog(tableView);
-        updateTaskStatistics();
+        CategoryHandler.showManageCategoriesDialog();
     });
 
     Button managePrioritiesButton = new Button("See Priorities");
     managePrioritiesButton.setMinWidth(250);
     managePrioritiesButton.setOnAction(e -> {
-        PriorityHandler.showManagePrioritiesDialog(tableView);
-        updateTaskStatistics();
+        PriorityHandler.showManagePrioritiesDialog();
     });
 
     Button seeRemindersButton = new Button("See Reminders");
     seeRemindersButton.setMinWidth(250);
     seeRemindersButton.setOnAction(e -> {
         ReminderHandler.showRemindersDialog();
-        updateTaskStatistics();
     });
 
     VBox buttonBox = new VBox(10, manageTasksButton, manageCategoriesButton, managePrioritiesButton, seeRemindersButton);
     buttonBox.setStyle("-fx-padding: 15px; -fx-alignment: center;");
     buttonBox.setMinHeight(200);
 
-    VBox mainLayout = new VBox(20, statsBox, buttonBox);
+    VBox mainLayout = new VBox(20, statsBox, buttonBox, createMetricsPanel(assistantStage));
     mainLayout.setStyle("-fx-padding: 20px; -fx-alignment: center;");
 
-    Scene scene = new Scene(mainLayout, 400, 400);
+    Scene scene = new Scene(mainLayout, 400, 520);
     assistantStage.setScene(scene);
-    assistantStage.setOnShown(e -> {
-        List<Task> tasks = JSONHandler.readTasks();
-        ObservableList<Task> taskList = FXCollections.observableArrayList(tasks);
-        showDelayedTasksPopup(assistantStage, taskList);
-    });
+    assistantStage.setOnShown(e -> Metrics.histogram("startup.shown").recordSince(launchedAt));
+    scheduleMidnightSweep();
     assistantStage.show();
+    whenLoaded(assistantStage, launchedAt);
 }
 
-    
-private void showDelayedTasksPopup(Stage owner, ObservableList<Task> taskList) {
-    List<Task> delayedTasks = new ArrayList<>();
+/**
+ * The assistant's metrics panel: every metric, refreshed each second while the panel is open,
+ * and a button that writes them to a file in the data directory. Opening it widens the window
+ * to fit the latency table.
+ */
+private TitledPane createMetricsPanel(Stage assistantStage) {
+    TextArea metricsText = new TextArea();
+    metricsText.setEditable(false);
+    metricsText.setStyle("-fx-font-family: monospace; -fx-font-size: 11px;");
+    metricsText.setPrefHeight(METRICS_PANEL_HEIGHT);
+
+    Label dumpedLabel = new Label();
+    Button dumpButton = new Button("Dump to File");
+    dumpButton.setOnAction(e -> {
+        try {
+            File file = Metrics.dump(new File(JSONHandler.DATA_DIR));
+            dumpedLabel.setText("Written to " + file.getName());
+        } catch (IOException ex) {
+            showAlert(assistantStage, "Metrics Error", "Metrics could not be written: " + ex.getMessage());
+        }
+    });
 
-    for (Task task : taskList) {
-        if ("Delayed".equalsIgnoreCase(task.getStatus())) {
-            delayedTasks.add(task);
+    Runnable redraw = () -> {
+        double scrollTop = metricsText.getScrollTop();
+        metricsText.setText(Metrics.report());
+        metricsText.setScrollTop(scrollTop);
+    };
+    Timeline refresh = new Timeline(new KeyFrame(Duration.seconds(1), e -> redraw.run()));
+    refresh.setCycleCount(Animation.INDEFINITE);
+
+    TitledPane metricsPane = new TitledPane("Metrics", new VBox(10, metricsText, new HBox(10, dumpButton, dumpedLabel)));
+    metricsPane.setExpanded(false);
+    double[] collapsedSize = new double[2];
+    metricsPane.expandedProperty().addListener((observable, wasExpanded, expanded) -> {
+        if (expanded) {
+            redraw.run();
+            refresh.play();
+            collapsedSize[0] = assistantStage.getWidth();
+            collapsedSize[1] = assistantStage.getHeight();
+            assistantStage.setWidth(Math.max(collapsedSize[0], 760));
+            assistantStage.setHeight(collapsedSize[1] + METRICS_PANEL_HEIGHT + 50);
+        } else {
+            refresh.stop();
+            assistantStage.setWidth(collapsedSize[0]);
+            assistantStage.setHeight(collapsedSize[1]);
         }
-    }
+    });
+    return metricsPane;
+}
+
+/**
+ * Records in the startup metrics when the first loaded rows are painted and when every task
+ * has arrived, and then starts what needs the tasks.
+ */
+private void whenLoaded(Stage assistantStage, long launchedAt) {
+    // Runs on every frame until the first streamed tasks are counted; that frame paints them
+    AnimationTimer firstPaint = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (TaskRepository.getStatistics().total() == 0) return;
+            Metrics.histogram("startup.firstRows").recordSince(launchedAt);
+            stop();
+        }
+    };
+    firstPaint.start();
+
+    loading.whenComplete((done, error) -> Platform.runLater(() -> {
+        firstPaint.stop();
+        if (error != null) {
+            error.printStackTrace();
+            showAlert(assistantStage, "Load Error", "Tasks could not be loaded: " + error.getMessage());
+            return;
+        }
+        Metrics.histogram("startup.loaded").recordSince(launchedAt); // repository.tasks has the count
+        TaskRepository.sweepOverdue(); // Catch up on tasks that fell due while the app was closed
+        TaskRepository.getReminderDispatcher().start(); // Fires today's reminders unless an earlier run did
+        showDelayedTasksPopup(assistantStage);
+    }));
+}
+
+    
+private void showDelayedTasksPopup(Stage owner) {
+    List<Task> delayedTasks = TaskRepository.getIndex().withStatus("Delayed");
 
     if (!delayedTasks.isEmpty()) {
         StringBuilder message = new StringBuilder("The following tasks are delayed:\n\n");
@@ -134,67 +239,69 @@ private void showDelayedTasksPopup(Stage owner, ObservableList<Task> taskList) {
     }
 }
 private void updateTaskStatistics() {
-    List<Task> tasks = JSONHandler.readTasks(); 
-    long totalTasks = tasks.size();
-    long completedTasks = tasks.stream().filter(task -> "Completed".equalsIgnoreCase(task.getStatus())).count();
-    long delayedTasks = tasks.stream().filter(task -> "Delayed".equalsIgnoreCase(task.getStatus())).count();
-    long upcomingTasks = tasks.stream().filter(task -> isTaskDueWithin7Days(task.getDueDate())).count();
-
-    totalLabel.setText("Total Tasks: " + totalTasks);
-    completedLabel.setText("Completed Tasks: " + completedTasks);
-    delayedLabel.setText("Delayed Tasks: " + delayedTasks);
-    upcomingLabel.setText(" Tasks Due in 7 Days: " + upcomingTasks);
+    // Counters are kept up to date by the repository on every change; nothing is scanned here
+    TaskService.Stats stats = TaskService.stats();
+
+    totalLabel.setText("Total Tasks: " + stats.total());
+    completedLabel.setText("Completed Tasks: " + stats.completed());
+    delayedLabel.setText("Delayed Tasks: " + stats.delayed());
+    upcomingLabel.setText(" Tasks Due in 7 Days: " + stats.dueWithin7Days());
+    categoryBreakdownLabel.setText("By Category: " + formatBreakdown(stats.byCategory()));
+    priorityBreakdownLabel.setText("By Priority: " + formatBreakdown(stats.byPriority()));
+}
+
+private static String formatBreakdown(Map<String, Integer> counts) {
+    if (counts.isEmpty()) return "-";
+    StringBuilder text = new StringBuilder();
+    counts.forEach((name, count) -> {
+        if (text.length() > 0) text.append(", ");
+        text.append(name).append(" (").append(count).append(")");
+    });
+    return text.toString();
 }
 
-    private boolean isTaskDueWithin7Days(String dueDate) {
-        try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-            LocalDate taskDate = LocalDate.parse(dueDate, formatter);
-            LocalDate today = LocalDate.now();
-            return !taskDate.isBefore(today) && !taskDate.isAfter(today.plusDays(7));
-        } catch (DateTimeParseException e) {
-            System.err.println("⚠ Invalid date format for task: " + dueDate);
-            return false;
-        }
-    }
-        
     private void showTaskManager(Stage stage) {
-        // Load tasks from JSON file using JSONHandler
-        List<Task> tasks = JSONHandler.readTasks();
-        ObservableList<Task> taskList = FXCollections.observableArrayList(tasks);
-        tasks.sort(Comparator.comparing(Task::getCategory));
-        updateTaskStatuses(taskList);
-        tableView.setItems(taskList);
+        // Tasks are loaded once by the repository and shared with the other handlers
+        updateTaskStatuses();
+        tableView.setItems(TaskRepository.getSortedTasks()); // Kept sorted by the repository; never re-sorted here
 
 
 
         TableColumn<Task, String> titleCol = new TableColumn<>("Title");
         titleCol.setCellValueFactory(new PropertyValueFactory<>("title"));
+        titleCol.setSortable(false);
 
         TableColumn<Task, String> descCol = new TableColumn<>("Description");
         descCol.setCellValueFactory(new PropertyValueFactory<>("description"));
+        descCol.setSortable(false);
 
+        // Sortable columns carry the SortedTaskView order they switch to
         TableColumn<Task, String> categoryCol = new TableColumn<>("Category");
         categoryCol.setCellValueFactory(new PropertyValueFactory<>("category"));
+        categoryCol.setUserData(SortedTaskView.SortKey.CATEGORY);
 
         TableColumn<Task, String> priorityCol = new TableColumn<>("Priority");
         priorityCol.setCellValueFactory(cellData -> new SimpleStringProperty(cellData.getValue().getPriority()));
+        priorityCol.setUserData(SortedTaskView.SortKey.PRIORITY);
 
         TableColumn<Task, String> dueDateCol = new TableColumn<>("Due Date");
         dueDateCol.setCellValueFactory(new PropertyValueFactory<>("dueDate"));
+        dueDateCol.setUserData(SortedTaskView.SortKey.DUE_DATE);
 
         TableColumn<Task, String> statusCol = new TableColumn<>("Status");
         statusCol.setCellValueFactory(new PropertyValueFactory<>("status"));
+        statusCol.setUserData(SortedTaskView.SortKey.STATUS);
 
         // Add columns to TableView
         tableView.getColumns().addAll(titleCol, descCol, categoryCol, priorityCol, dueDateCol, statusCol);
+        tableView.setSortPolicy(this::sortTable);
         tableView.getSortOrder().add(categoryCol); // Ensure sorting by category
 
         
     // Search Bar UI
 // Create a text field for searching by title
 TextField titleSearchField = new TextField();
-titleSearchField.setPromptText("Search by Title");
+titleSearchField.setPromptText("Search title or description");
 
 // Create a text field for searching by due date
 TextField dueDateField = new TextField();
@@ -215,15 +322,23 @@ categoryFilter.setValue("All"); // Default selection
 ComboBox<String> priorityFilter = new ComboBox<>(priorities);
 priorityFilter.setValue("All"); // Default selection
 
-// Search button with filter logic
-Button searchButton = new Button("Search");
-searchButton.setOnAction(e -> applyFilters(
-    taskList,
+// Filter as the user types; the Search button (or Enter) skips the debounce
+if (search == null) search = new TaskSearch(this::showSearchResult);
+Supplier<TaskSearch.Query> query = () -> new TaskSearch.Query(
     titleSearchField.getText(),
     dueDateField.getText(),
     categoryFilter.getValue(),
     priorityFilter.getValue()
-));
+);
+titleSearchField.textProperty().addListener((obs, oldText, newText) -> search.schedule(query.get()));
+dueDateField.textProperty().addListener((obs, oldText, newText) -> search.schedule(query.get()));
+categoryFilter.valueProperty().addListener((obs, oldValue, newValue) -> search.schedule(query.get()));
+priorityFilter.valueProperty().addListener((obs, oldValue, newValue) -> search.schedule(query.get()));
+titleSearchField.setOnAction(e -> search.runNow(query.get()));
+dueDateField.setOnAction(e -> search.runNow(query.get()));
+
+Button searchButton = new Button("Search");
+searchButton.setOnAction(e -> search.runNow(query.get()));
 
 // Layout for search bar
 HBox searchBox = new HBox(10, titleSearchField, dueDateField, categoryFilter, priorityFilter, searchButton);
@@ -234,9 +349,8 @@ searchBox.setStyle("-fx-padding: 10; -fx-alignment: center;");
         Button addButton = new Button("+");
         addButton.setStyle("-fx-font-size: 20px; -fx-base: #4CAF50; -fx-text-fill: white;");
         addButton.setOnAction(e -> {
-            showAddTaskDialog(taskList);
-            updateTaskStatuses(taskList); // Recheck statuses after adding
-            tableView.refresh();
+            showAddTaskDialog();
+            updateTaskStatuses(); // Recheck statuses after adding
         });
 
         // Create an "Edit" button to edit a selected task
@@ -250,31 +364,13 @@ searchBox.setStyle("-fx-padding: 10; -fx-alignment: center;");
                 return;
             }
         
-            String selectedTaskTitle = selectedTask.getTitle(); // Store title before refreshing
-        
-            List<Task> latestTasks = JSONHandler.readTasks();
-            ObservableList<Task> latestTaskList = FXCollections.observableArrayList(latestTasks);
-            
-            tableView.setItems(latestTaskList);
- 
-            Task updatedTask = latestTaskList.stream()
-                .filter(task -> task.getTitle().equals(selectedTaskTitle))
-                .findFirst()
-                .orElse(null);
-        
-            if (updatedTask != null) {
-                tableView.getSelectionModel().select(updatedTask); // Reselect task in the table
-                showEditTaskDialog(updatedTask, latestTaskList); // Open edit dialog with latest task data
-                updateTaskStatuses(latestTaskList); // Recheck statuses after editing
-                tableView.refresh();
-                JSONHandler.writeTasks(latestTaskList); // Save updated tasks to JSON
-            } else {
-                showAlert(tableView.getScene().getWindow(), "Error", "Selected task not found after refreshing.");
-            }
+            showEditTaskDialog(selectedTask); // The dialog persists the changes through the repository
+            updateTaskStatuses(); // Recheck statuses after editing
         });
 
         // Define a Delete button column
         TableColumn<Task, Void> deleteCol = new TableColumn<>("Delete");
+        deleteCol.setSortable(false);
 
         deleteCol.setCellFactory(col -> new TableCell<>() {
             private final Button deleteButton = new Button("🗑");
@@ -283,8 +379,7 @@ searchBox.setStyle("-fx-padding: 10; -fx-alignment: center;");
                 deleteButton.setStyle("-fx-background-color: red; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 3 5 3 5;");
                 deleteButton.setOnAction(e -> {
                     Task selectedTask = getTableView().getItems().get(getIndex());
-                    showDeleteConfirmation(selectedTask, taskList);
-                    tableView.refresh(); // Refresh the table view after deletion
+                    showDeleteConfirmation(selectedTask); // The row goes with the repository's removal delta
                 });
             }
 
@@ -333,70 +428,117 @@ searchBox.setStyle("-fx-padding: 10; -fx-alignment: center;");
         stage.setScene(scene);
         stage.show();
     }
-    private void applyFilters(ObservableList<Task> taskList, String title, String dueDate, String category, String priority) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-        
-        // Filter tasks based on the provided criteria
-        ObservableList<Task> filteredTasks = taskList.filtered(task -> {
-            boolean matchesTitle = title.isEmpty() || task.getTitle().toLowerCase().contains(title.toLowerCase());
-            boolean matchesCategory = category.equals("All") || task.getCategory().equals(category);
-            boolean matchesPriority = priority.equals("All") || task.getPriority().equals(priority);
-            boolean matchesDueDate = true; // Default to true if no due date is provided
-    
-            if (!dueDate.isEmpty()) {
-                try {
-                    LocalDate filterDate = LocalDate.parse(dueDate, formatter);
-                    LocalDate taskDate = LocalDate.parse(task.getDueDate(), formatter);
-                    matchesDueDate = taskDate.equals(filterDate);
-                } catch (DateTimeParseException e) {
-                    System.err.println("Invalid due date format: " + dueDate);
-                    return false; // If the date format is invalid, exclude the task from results
-                }
-            }
-    
-            return matchesTitle && matchesCategory && matchesPriority && matchesDueDate;
-        });
-    
-        tableView.setItems(filteredTasks);
-        tableView.refresh();
+    /**
+     * Sort policy of the task table. The sorted view only switches to another maintained order;
+     * a filtered result is a small plain list and is sorted with the same order.
+     */
+    private boolean sortTable(TableView<Task> table) {
+        TableColumn<Task, ?> column = table.getSortOrder().isEmpty() ? null : table.getSortOrder().get(0);
+        SortedTaskView.SortKey key = column != null && column.getUserData() instanceof SortedTaskView.SortKey k
+                ? k : SortedTaskView.SortKey.CATEGORY;
+        boolean descending = column != null && column.getSortType() == TableColumn.SortType.DESCENDING;
+
+        TaskRepository.getSortedTasks().sortBy(key, descending); // Also the order filtered rows are kept in
+        if (!(table.getItems() instanceof SortedTaskView)) {
+            FXCollections.sort(table.getItems(), filedOrder(key, descending));
+        }
+        return true;
     }
-    
 
-    private boolean isValidDate(String date) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-    
-        try {
-            LocalDate parsedDate = LocalDate.parse(date, formatter);
-            return !parsedDate.isBefore(LocalDate.now()); // ✅ Ensure date is **not in the past**
-        } catch (DateTimeParseException e) {
-            return false; // ❌ Invalid format
+    /**
+     * The table's order over the filtered rows, by the sort fields each row was placed with.
+     * Like {@link SortedTaskView}, the rows stay sorted by those while a task is modified in
+     * place, so its row is found by binary search before its delta moves it.
+     */
+    private Comparator<Task> filedOrder(SortedTaskView.SortKey key, boolean descending) {
+        Comparator<Task> order = Comparator.comparing(filedAs::get, key.comparator());
+        return descending ? order.reversed() : order;
+    }
+
+    /**
+     * Applies a repository delta to the filtered rows, one row at a time. The unfiltered table
+     * shows the sorted view, which applies its own deltas.
+     */
+    private void applyToFilteredTasks(ChangeBus.Change<Task> change) {
+        if (filteredTasks == null) return;
+        SortedTaskView view = TaskRepository.getSortedTasks();
+        Comparator<Task> order = filedOrder(view.getSortKey(), view.isDescending());
+        for (Task task : change.items()) {
+            int row = filteredRow(task, order);
+            if (change.kind() == ChangeBus.Kind.REMOVED || !activeFilter.test(task)) {
+                if (row >= 0) filteredTasks.remove(row);
+                filedAs.remove(task);
+                continue;
+            }
+            filedAs.put(task, new Task(task)); // From here on its row is ordered by its new values
+            if (row >= 0 && isInOrder(row, task, order)) {
+                filteredTasks.set(row, task); // Redraws just this row
+                continue;
+            }
+            if (row >= 0) filteredTasks.remove(row);
+            int insertAt = Collections.binarySearch(filteredTasks, task, order);
+            filteredTasks.add(insertAt < 0 ? -insertAt - 1 : insertAt, task);
         }
     }
-    
 
-private void updateTaskStatuses(ObservableList<Task> taskList) {
-    LocalDate today = LocalDate.now();
-    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy"); // Matches JSON date format
+    // The task's row, or -1 if it is not shown. Ids are unique, so the search lands on the task itself.
+    private int filteredRow(Task task, Comparator<Task> order) {
+        if (!filedAs.containsKey(task)) return -1;
+        int row = Collections.binarySearch(filteredTasks, task, order);
+        return row >= 0 && filteredTasks.get(row) == task ? row : filteredTasks.indexOf(task);
+    }
 
-    for (Task task : taskList) {
-        if (!"Completed".equalsIgnoreCase(task.getStatus())) {
-            try {
-                LocalDate taskDueDate = LocalDate.parse(task.getDueDate(), formatter);
+    private boolean isInOrder(int row, Task task, Comparator<Task> order) {
+        return (row == 0 || order.compare(filteredTasks.get(row - 1), task) <= 0)
+                && (row == filteredTasks.size() - 1 || order.compare(task, filteredTasks.get(row + 1)) <= 0);
+    }
 
-                if ("Delayed".equalsIgnoreCase(task.getStatus()) && taskDueDate.isAfter(today)) {
-                    task.setStatus("Open");
-                }
-                // If the due date is in the past, mark it as delayed
-                else if (taskDueDate.isBefore(today)) {
-                    task.setStatus("Delayed");
-                }
-            } catch (DateTimeParseException e) {
-                System.err.println("Invalid date format for task: " + task.getTitle() + " - " + task.getDueDate());
-            }
+    /**
+     * Shows a fresh result of {@link TaskSearch}: the live sorted view for an empty query,
+     * otherwise the matching tasks, already in the table's order.
+     */
+    private void showSearchResult(TaskSearch.Result result) {
+        if (result.tasks() == null) {
+            filteredTasks = null;
+            filedAs.clear();
+            activeFilter = null;
+            tableView.setItems(TaskRepository.getSortedTasks()); // No filter: back to the live sorted view
+            return;
         }
+        activeFilter = result.filter(); // Kept to place tasks added or edited while the filter is shown
+        filteredTasks = FXCollections.observableArrayList(result.tasks());
+        filedAs.clear();
+        result.tasks().forEach(task -> filedAs.put(task, new Task(task)));
+        tableView.setItems(filteredTasks);
+        tableView.sort(); // Only moves rows if the sort column was changed while the query ran
     }
 
-    JSONHandler.writeTasks(taskList);
+
+    
+
+// Never waits for the load on the JavaFX thread: while it runs, the update follows it
+private void updateTaskStatuses() {
+    if (!loading.isDone()) {
+        loading.thenRun(() -> Platform.runLater(TaskRepository::updateStatuses));
+    } else if (!loading.isCompletedExceptionally()) {
+        TaskRepository.updateStatuses();
+    }
+}
+
+/**
+ * Runs the overdue sweep right after midnight, then schedules itself for the next local midnight.
+ */
+private void scheduleMidnightSweep() {
+    // Zoned, so a day that is 23 or 25 hours long across a DST change still ends at local midnight
+    ZonedDateTime now = ZonedDateTime.now();
+    long millisToMidnight = ChronoUnit.MILLIS.between(now, now.toLocalDate().plusDays(1).atStartOfDay(now.getZone()));
+
+    midnightSweep = new Timeline(new KeyFrame(Duration.millis(millisToMidnight + 1000), e -> {
+        TaskRepository.sweepOverdue(); // Changed rows and counters follow the repository's deltas
+        updateTaskStatistics(); // The 7-day window moved even if no task changed
+        scheduleMidnightSweep();
+    }));
+    midnightSweep.play();
 }
 
 
@@ -419,7 +561,7 @@ private ComboBox<String> createCategoryComboBox() {
 
     Button manageCategoriesButton = new Button("Manage Categories");
     manageCategoriesButton.setOnAction(e -> {
-        CategoryHandler.showManageCategoriesDialog(tableView);
+        CategoryHandler.showManageCategoriesDialog();
         categoryComboBox.setItems(FXCollections.observableArrayList(CategoryHandler.getCategories()));
     });
 
@@ -427,7 +569,7 @@ private ComboBox<String> createCategoryComboBox() {
 }
 
 
-private void showAddTaskDialog(ObservableList<Task> taskList) {
+private void showAddTaskDialog() {
     Stage dialog = new Stage();
     dialog.initModality(Modality.APPLICATION_MODAL);
     dialog.setTitle("Add New Task");
@@ -437,7 +579,7 @@ private void showAddTaskDialog(ObservableList<Task> taskList) {
     ComboBox<String> categoryComboBox = createCategorySelectionBox();
     TextField dueDateField = new TextField();
     ComboBox<String> priorityComboBox = createPrioritySelectionBox();
-    ChoiceBox<String> statusChoiceBox = new ChoiceBox<>(FXCollections.observableArrayList("Open", "In Progress", "Postponed", "Completed"));
+    ChoiceBox<String> statusChoiceBox = new ChoiceBox<>(FXCollections.observableArrayList(TaskService.STATUSES));
     statusChoiceBox.setValue("Open");
 
     GridPane gridPane = new GridPane();
@@ -458,71 +600,18 @@ private void showAddTaskDialog(ObservableList<Task> taskList) {
 
     Button saveButton = new Button("Save Task");
     saveButton.setOnAction(e -> {
-        String dueDate = dueDateField.getText();
-        String Title = titleField.getText().trim();
-         
-
-        if (Title.isEmpty()) {
-            showAlert(dialog, "Invalid Input", "Task title cannot be empty.");
-            return;
-        }
-        LocalDate parsedDate = null;
-    try {
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-        parsedDate = LocalDate.parse(dueDate, dateFormatter);
-
-        String formattedDate = parsedDate.format(dateFormatter);
-        if (!dueDate.equals(formattedDate)) {
-            showAlert(dialog, "Invalid Date", "Please enter a valid due date in the format dd/MM/yyyy.");
-            return;
-        }
-
-        if (parsedDate.isBefore(LocalDate.now())) {
-            showAlert(dialog, "Invalid Date", "Due date cannot be in the past.");
-            return;
-        }
-    } catch (DateTimeParseException ex) {
-        showAlert(dialog, "Invalid Date", "Please enter a valid due date in the format dd/MM/yyyy.");
-        return;
-    }
-    
-        if (!isValidDate(dueDate)) {
-            showAlert(dialog, "Invalid Date", "Please enter a valid due date in the format dd/MM/yyyy.");
-            return; 
-        }
-      
-        boolean titleExists = taskList.stream().anyMatch(task -> task.getTitle().equalsIgnoreCase(Title));
-        if (titleExists) {
-            showAlert(dialog, "Duplicate Task Title", "A task with this title already exists. Please choose a different title.");
-            return;
+        try {
+            TaskService.addTask(titleField.getText(), descriptionField.getText(), categoryComboBox.getValue(),
+                    priorityComboBox.getValue(), dueDateField.getText(), statusChoiceBox.getValue());
+            dialog.close(); // The sorted view places the new task
+        } catch (TaskService.Rejected rejected) {
+            showAlert(dialog, rejected.title(), rejected.getMessage());
         }
-        Task newTask = new Task(
-            titleField.getText(),
-            descriptionField.getText(),
-            categoryComboBox.getValue(),
-            priorityComboBox.getValue(),
-            dueDateField.getText(),
-            statusChoiceBox.getValue()
-        );
-    
-        taskList.add(newTask);
-        taskList.sort(Comparator.comparing(Task::getCategory));
-        JSONHandler.writeTasks(taskList);
-
-        updateTaskStatistics();
-    
-        ObservableList<Task> updatedTaskList = FXCollections.observableArrayList(JSONHandler.readTasks());
-        tableView.setItems(updatedTaskList);
-        tableView.refresh();
-        dialog.close();
     });
     
 
     Button closeButton = new Button("close");
-    closeButton.setOnAction(e -> {
-        tableView.refresh(); 
-        dialog.close();
-    });
+    closeButton.setOnAction(e -> dialog.close());
 
     HBox buttonBox = new HBox(10, saveButton, closeButton);
     gridPane.add(buttonBox, 1, 6);
@@ -531,11 +620,10 @@ private void showAddTaskDialog(ObservableList<Task> taskList) {
     dialog.showAndWait();
 }
 
-    private void showEditTaskDialog(Task task, ObservableList<Task> taskList) {
+    private void showEditTaskDialog(Task task) {
         Stage dialog = new Stage();
         dialog.initModality(Modality.APPLICATION_MODAL);
         dialog.setTitle("Edit Task");
-        String originalTitle = task.getTitle();
 
         TextField titleField = new TextField(task.getTitle());
         TextField descriptionField = new TextField(task.getDescription());
@@ -544,7 +632,7 @@ private void showAddTaskDialog(ObservableList<Task> taskList) {
         TextField dueDateField = new TextField(task.getDueDate());
         ComboBox<String> priorityComboBox = createPrioritySelectionBox();
         priorityComboBox.setValue(task.getPriority());
-        ChoiceBox<String> statusChoiceBox = new ChoiceBox<>(FXCollections.observableArrayList("Open", "In Progress", "Postponed", "Completed"));
+        ChoiceBox<String> statusChoiceBox = new ChoiceBox<>(FXCollections.observableArrayList(TaskService.STATUSES));
         statusChoiceBox.setValue(task.getStatus());
 
         GridPane gridPane = new GridPane();
@@ -565,53 +653,9 @@ private void showAddTaskDialog(ObservableList<Task> taskList) {
 
         Button saveButton = new Button("Save Changes");
         saveButton.setOnAction(e -> {
-            String oldTitle = task.getTitle();
-            String oldDueDate = task.getDueDate(); 
             String newDueDate = dueDateField.getText();
-            String newTitle = titleField.getText().trim();
-    
-
-            if (newTitle.isEmpty()) {
-                showAlert(dialog, "Invalid Input", "Task title cannot be empty.");
-                return;
-            }
-
-            LocalDate parsedDate = null;
-    try {
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-        parsedDate = LocalDate.parse(newDueDate, dateFormatter);
-
-        // Ensure parsed date matches input
-        String formattedDate = parsedDate.format(dateFormatter);
-        if (!newDueDate.equals(formattedDate)) {
-            showAlert(dialog, "Invalid Date", "Please enter a valid due date in the format dd/MM/yyyy.");
-            return;
-        }
-        if (parsedDate.isBefore(LocalDate.now())) {
-            showAlert(dialog, "Invalid Date", "Due date cannot be in the past.");
-            return;
-        }
-    } catch (DateTimeParseException ex) {
-        showAlert(dialog, "Invalid Date", "Please enter a valid due date in the format dd/MM/yyyy.");
-        return;
-    }
 
-
-            if (!isValidDate(newDueDate)) {
-                showAlert(dialog, "Invalid Date", "Please enter a valid due date in the format dd/MM/yyyy.");
-                return; 
-            }
-        
-            boolean titleExists = taskList.stream()
-            .anyMatch(existingTask -> !existingTask.getTitle().equals(oldTitle) &&
-                                  existingTask.getTitle().equalsIgnoreCase(newTitle));
-
-            if (titleExists) {
-                showAlert(dialog, "Duplicate Task Title", "A task with this title already exists. Please choose a different title.");
-                return;
-             }
-
-            if (isCustomReminderAfterDueDate(task.getTitle(), newDueDate)) {
+            if (TaskService.hasCustomReminderAfter(task, newDueDate)) {
                 Alert alert = new Alert(Alert.AlertType.WARNING);
                 alert.setTitle("Reminder Warning");
                 alert.setHeaderText("Reminder Exists After New Due Date");
@@ -631,36 +675,14 @@ private void showAddTaskDialog(ObservableList<Task> taskList) {
                     return; // Stop saving to let the user update the reminders first
                 }
             }
-            boolean titleChanged = !originalTitle.equals(newTitle);
-            boolean dueDateChanged = !oldDueDate.equals(newDueDate);            
-
-            task.setTitle(newTitle);
-            task.setDescription(descriptionField.getText());
-            task.setCategory(categoryComboBox.getValue());
-            task.setPriority(priorityComboBox.getValue());
-            task.setDueDate(dueDateField.getText());
-            task.setStatus(statusChoiceBox.getValue());
-        
-            if (task.getStatus().equalsIgnoreCase("Completed")) {
-                ReminderHandler.deleteRemindersForTask(task.getTitle());
-            } else {
-                if (!oldDueDate.equals(newDueDate)) {
-                    ReminderHandler.updateReminderForTask(originalTitle, newDueDate); 
-                }
-                if (titleChanged) {
-                    ReminderHandler.updateTaskTitleInReminders(originalTitle, newTitle); 
-                }
-                if(dueDateChanged) {
-                    ReminderHandler.updateReminderDueDateForTask(originalTitle, newDueDate);
-                }
+            try {
+                // Validates, then moves the task within the sorted view and brings its reminders along
+                TaskService.editTask(task, titleField.getText(), descriptionField.getText(), categoryComboBox.getValue(),
+                        priorityComboBox.getValue(), newDueDate, statusChoiceBox.getValue());
+                dialog.close();
+            } catch (TaskService.Rejected rejected) {
+                showAlert(dialog, rejected.title(), rejected.getMessage());
             }
-        
-            taskList.sort(Comparator.comparing(Task::getCategory));
-            JSONHandler.writeTasks(taskList);
-        
-            updateTaskStatistics(); 
-            tableView.refresh();
-            dialog.close();
         });
         
         gridPane.add(saveButton, 1, 6);
@@ -668,30 +690,10 @@ private void showAddTaskDialog(ObservableList<Task> taskList) {
         dialog.showAndWait();
     }        
 
-    private boolean isCustomReminderAfterDueDate(String taskTitle, String newDueDate) {
-        List<Reminder> reminders = JSONHandler.readReminders();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-    
-        try {
-            LocalDate newDueDateParsed = LocalDate.parse(newDueDate, formatter);
-    
-            for (Reminder reminder : reminders) {
-                if (reminder.getTaskTitle().equals(taskTitle) && "Custom date".equalsIgnoreCase(reminder.getReminderType())) {
-                    LocalDate reminderDate = LocalDate.parse(reminder.getDate(), formatter);
-                    if (reminderDate.isAfter(newDueDateParsed)) {
-                        return true; // ✅ Found a "Custom date" reminder after the new due date
-                    }
-                }
-            }
-        } catch (DateTimeParseException e) {
-            System.err.println("Invalid date format: " + newDueDate);
-        }
-        return false;
-    }
     
     
 
-    private void showDeleteConfirmation(Task task, ObservableList<Task> taskList) {
+    private void showDeleteConfirmation(Task task) {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         alert.setTitle("Delete Task");
         alert.setHeaderText(null);
@@ -701,47 +703,14 @@ private void showAddTaskDialog(ObservableList<Task> taskList) {
             if (response == ButtonType.OK) {
                 System.out.println("🗑 Attempting to delete task: " + task.getTitle());
     
-                // 🔹 Retrieve latest task list from JSON (ensures we get the correct title)
-                List<Task> latestTasks = JSONHandler.readTasks();
-                
-                // 🔹 Find task in JSON by checking for matching title
-                Optional<Task> matchingTask = latestTasks.stream()
-                    .filter(t -> t.getTitle().equals(task.getTitle()))
-                    .findFirst();
-    
-                if (matchingTask.isEmpty()) {
-                    System.out.println("⚠ Task not found in JSON, cannot delete!");
-                    showAlert(tableView.getScene().getWindow(), "Error", "Task not found in records.");
-                    return;
-                }
-    
-                String actualTaskTitle = matchingTask.get().getTitle(); // Use the correct title
-                System.out.println("Task title to delete: " + actualTaskTitle);
-    
-                
-                ReminderHandler.deleteRemindersForTask(actualTaskTitle);
-    
-                boolean removedFromMemory = taskList.removeIf(t -> t.getTitle().equals(actualTaskTitle));
-                boolean removedFromJSON = latestTasks.removeIf(t -> t.getTitle().equals(actualTaskTitle));
-    
-                System.out.println("Removal status (Memory): " + removedFromMemory);
-                System.out.println("Removal status (JSON): " + removedFromJSON);
-    
-                if (!removedFromJSON) {
-                    System.out.println("Task could not be removed from JSON. Check logic.");
+                try {
+                    TaskService.deleteTask(task); // The task and its reminders, in one commit
+                } catch (TaskService.Rejected rejected) {
+                    System.out.println("⚠ Task not found in repository, cannot delete!");
+                    showAlert(tableView.getScene().getWindow(), rejected.title(), rejected.getMessage());
                     return;
                 }
     
-    
-                JSONHandler.writeTasks(latestTasks);
-                List<Task> debugTasks = JSONHandler.readTasks();
-                System.out.println(" JSON File After Writing: " + debugTasks);
-    
-                ObservableList<Task> updatedTaskList = FXCollections.observableArrayList(debugTasks);
-                tableView.setItems(updatedTaskList);
-                tableView.refresh();
-                updateTaskStatistics();
-    
                 System.out.println(" Task successfully deleted and reminders removed.");
             }
         });
@@ -762,17 +731,12 @@ private void showAlert(Window owner, String title, String message) {
 public void stop() {
     System.out.println("Saving data before exit...");
 
-    ObservableList<Task> currentTasks = tableView.getItems();
-
-    if (!currentTasks.isEmpty()) { // Only save if there are tasks
-        JSONHandler.writeTasks(currentTasks);
-        System.out.println("Tasks saved.");
-    } else {
-        System.out.println("No tasks to save, skipping...");
+    if (midnightSweep != null) {
+        midnightSweep.stop();
     }
+    TaskRepository.getReminderDispatcher().stop();
 
-    List<Reminder> reminders = JSONHandler.readReminders();
-    JSONHandler.writeReminders(reminders);
+    TaskRepository.flush(); // Write out anything still queued by the write-behind persister
 
     CategoryHandler.saveCategories();
     PriorityHandler.savePriorities(); 
@@ -0,0 +1,787 @@
+package lib.javafx;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import lib.json.BinaryTaskStore;
+import lib.json.JournalTaskStore;
+import lib.json.JsonTaskStore;
+import lib.json.MemoryTaskStore;
+import lib.json.StoreStats;
+import lib.json.TaskStore;
+import lib.metrics.LatencyHistogram;
+import lib.metrics.Metrics;
+import lib.metrics.TaskEvents;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory store for tasks and reminders.
+ * The stores are read once, on first access; afterwards every handler reads and
+ * mutates these lists and persists them only through this class.
+ * <p>
+ * Persistence is delegated to a {@link TaskStore}. By default the JSON files are
+ * rewritten behind on a background thread ({@link JsonTaskStore}); starting with
+ * {@code -Dtaskmanager.store=journal} switches to the append-only {@link JournalTaskStore},
+ * and {@code -Dtaskmanager.store=binary} to the memory-mapped {@link BinaryTaskStore}.
+ * {@link #flush()} forces any pending write to disk.
+ */
+public class TaskRepository {
+
+    private static final ObservableList<Task> tasks = FXCollections.observableArrayList();
+    private static final ObservableList<Reminder> reminders = FXCollections.observableArrayList();
+    private static final SortedTaskView sortedTasks = new SortedTaskView();
+    private static final TaskStatistics statistics = new TaskStatistics();
+    private static final ReminderDispatcher dispatcher = new ReminderDispatcher();
+    private static final ChangeBus<Task> taskChanges = new ChangeBus<>();
+    private static final ChangeBus<Reminder> reminderChanges = new ChangeBus<>();
+    // Built off the UI thread by the load and installed in one step; see install(Loaded)
+    private static TaskIndex index = new TaskIndex();
+    private static LongMap<Task> tasksById = new LongMap<>();
+    private static TitleIndex titles = new TitleIndex();
+    private static TrigramIndex text = new TrigramIndex();
+    private static ReminderIndex reminderGroups = new ReminderIndex();
+    private static OverdueSweeper sweeper = new OverdueSweeper();
+    private static boolean loaded = false;
+    private static volatile CompletableFuture<Loaded> pending; // A background load not yet installed
+    private static long nextId = 1;
+
+    private static final int STREAM_CHUNK = 2_000;
+    private static final Executor loader = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "repository-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Tasks and reminders as read from the store, with every lookup built over them.
+     */
+    private record Loaded(List<Task> tasks, List<Reminder> reminders, LongMap<Task> tasksById, long nextId,
+                          TitleIndex titles, TrigramIndex text, TaskIndex index, OverdueSweeper sweeper, ReminderIndex reminderGroups,
+                          boolean idsAssigned, boolean remindersMigrated) {}
+
+    private static final TaskStore store = createStore();
+
+    private static final LatencyHistogram sweepTime = Metrics.histogram("status.sweep");
+    private static final LatencyHistogram statusUpdateTime = Metrics.histogram("status.update");
+    private static final LatencyHistogram reminderUpdateTime = Metrics.histogram("reminders.update");
+    private static final LongAdder remindersUpdated = Metrics.counter("reminders.updated");
+
+    static {
+        Metrics.gauge("repository.tasks", tasks::size);
+        Metrics.gauge("repository.reminders", reminders::size);
+        Metrics.gauge("store.bytesWritten", StoreStats::bytesWritten);
+        Metrics.gauge("store.writes", StoreStats::writes);
+    }
+
+    private static TaskStore createStore() {
+        String mode = System.getProperty("taskmanager.store", "json");
+        if ("journal".equalsIgnoreCase(mode)) {
+            return new JournalTaskStore(() -> new ArrayList<>(tasks), () -> new ArrayList<>(reminders));
+        }
+        if ("binary".equalsIgnoreCase(mode)) {
+            return new BinaryTaskStore(() -> new ArrayList<>(tasks), () -> new ArrayList<>(reminders));
+        }
+        if ("memory".equalsIgnoreCase(mode)) {
+            return new MemoryTaskStore();
+        }
+        return new JsonTaskStore(() -> new ArrayList<>(tasks), () -> new ArrayList<>(reminders));
+    }
+
+    /**
+     * Loads tasks and reminders from disk. Subsequent calls are no-ops. If {@link #loadAsync}
+     * is still reading, waits for it instead of reading again.
+     */
+    public static synchronized void load() {
+        if (loaded) return;
+        CompletableFuture<Loaded> inFlight = pending;
+        if (inFlight != null) {
+            install(inFlight.join()); // The background load streams the rows when it gets there
+            return;
+        }
+        Loaded read = read(store.loadTasks(), store.loadReminders());
+        install(read);
+        stream(read.tasks(), 0, read.tasks().size());
+    }
+
+    /**
+     * Loads tasks and reminders without blocking the caller. The two stores are read in
+     * parallel and indexed on background threads; the result is installed in one step on
+     * {@code uiThread}, and the tasks are then streamed into {@link #getSortedTasks()} and
+     * {@link #getStatistics()} a chunk per {@code uiThread} task, each published as an
+     * {@link ChangeBus.Kind#ADDED} change, so the window keeps painting while rows arrive.
+     * <p>
+     * Until then the live lists are empty; methods that change data wait for the read.
+     *
+     * @param namesLoaded completes once the category and priority files are interned, so that
+     *                    names keep the dictionary order of those files (the priority rank)
+     * @param uiThread    the UI thread, e.g. {@code Platform::runLater}
+     * @return completes on {@code uiThread} once every task has been streamed
+     */
+    public static synchronized CompletableFuture<Void> loadAsync(CompletableFuture<?> namesLoaded, Executor uiThread) {
+        if (loaded || pending != null) return CompletableFuture.completedFuture(null);
+        CompletableFuture<List<Task>> readTasks = namesLoaded.thenApplyAsync(names -> store.loadTasks(), loader);
+        CompletableFuture<List<Reminder>> readReminders = CompletableFuture.supplyAsync(store::loadReminders, loader);
+        pending = readTasks.thenCombineAsync(readReminders, TaskRepository::read, loader);
+
+        CompletableFuture<Void> streamed = new CompletableFuture<>();
+        pending.thenAcceptAsync(read -> {
+            synchronized (TaskRepository.class) {
+                if (!loaded) install(read);
+            }
+            streamChunks(read.tasks(), 0, uiThread, streamed);
+        }, uiThread).exceptionally(e -> {
+            streamed.completeExceptionally(e);
+            return null;
+        });
+        return streamed;
+    }
+
+    // Runs off the UI thread: touches nothing that is already installed
+    private static Loaded read(List<Task> loadedTasks, List<Reminder> loadedReminders) {
+        // Give every task without an id (or with a duplicate one) the next free id
+        long next = 1;
+        for (Task task : loadedTasks) {
+            next = Math.max(next, task.getId() + 1);
+        }
+        LongMap<Task> byId = new LongMap<>(loadedTasks.size());
+        boolean idsAssigned = false;
+        for (Task task : loadedTasks) {
+            if (task.getId() <= 0 || byId.containsKey(task.getId())) {
+                task.setId(next++);
+                idsAssigned = true;
+            }
+            byId.put(task.getId(), task);
+        }
+
+        TitleIndex titleIndex = new TitleIndex();
+        titleIndex.rebuild(loadedTasks);
+
+        // Link reminders that only carry a task title to that task's id
+        boolean remindersLinked = false;
+        for (Reminder reminder : loadedReminders) {
+            if (reminder.getTaskId() == 0) {
+                Optional<Task> task = titleIndex.findTask(reminder.getTaskTitle());
+                if (task.isPresent()) {
+                    reminder.setTaskId(task.get().getId());
+                    remindersLinked = true;
+                }
+            }
+        }
+
+        TrigramIndex textIndex = new TrigramIndex();
+        textIndex.rebuild(loadedTasks);
+        TaskIndex taskIndex = new TaskIndex();
+        taskIndex.rebuild(loadedTasks);
+        OverdueSweeper overdue = new OverdueSweeper();
+        overdue.rebuild(loadedTasks);
+        ReminderIndex groups = new ReminderIndex();
+        List<Reminder> duplicates = groups.rebuild(loadedReminders);
+        if (!duplicates.isEmpty()) {
+            Set<Reminder> identities = Collections.newSetFromMap(new IdentityHashMap<>());
+            identities.addAll(duplicates);
+            loadedReminders = new ArrayList<>(loadedReminders);
+            loadedReminders.removeIf(identities::contains);
+        }
+        return new Loaded(loadedTasks, loadedReminders, byId, next, titleIndex, textIndex, taskIndex, overdue, groups,
+                idsAssigned, remindersLinked || !duplicates.isEmpty());
+    }
+
+    // On the UI thread: swaps in the lookups; rows and counters follow through stream()
+    private static void install(Loaded read) {
+        tasksById = read.tasksById();
+        nextId = read.nextId();
+        titles = read.titles();
+        text = read.text();
+        index = read.index();
+        sweeper = read.sweeper();
+        reminderGroups = read.reminderGroups();
+        tasks.setAll(read.tasks());
+        reminders.setAll(read.reminders());
+        dispatcher.rebuild(reminders);
+        pending = null;
+        loaded = true;
+
+        // Files written before tasks had ids, or with duplicate reminders, are migrated once and saved in the new form
+        if (read.idsAssigned()) store.saveTasks();
+        if (read.remindersMigrated()) store.saveReminders();
+    }
+
+    private static void streamChunks(List<Task> loadedTasks, int from, Executor uiThread, CompletableFuture<Void> done) {
+        int to = Math.min(from + STREAM_CHUNK, loadedTasks.size());
+        stream(loadedTasks, from, to);
+        if (to < loadedTasks.size()) {
+            uiThread.execute(() -> streamChunks(loadedTasks, to, uiThread, done)); // Lets a frame paint in between
+        } else {
+            done.complete(null);
+        }
+    }
+
+    // Adds loaded tasks to the sorted view and the counters, skipping any removed or already added meanwhile
+    private static void stream(List<Task> loadedTasks, int from, int to) {
+        List<Task> chunk = new ArrayList<>(to - from);
+        for (Task task : loadedTasks.subList(from, to)) {
+            if (tasksById.get(task.getId()) == task && !sortedTasks.contains(task)) {
+                chunk.add(task);
+            }
+        }
+        sortedTasks.trackAll(chunk);
+        chunk.forEach(statistics::add);
+        taskChanges.publish(ChangeBus.Kind.ADDED, chunk);
+    }
+
+    // Readers do not wait for a background load: they see what has been installed or streamed so far
+    private static void loadUnlessPending() {
+        if (pending == null) load();
+    }
+
+    /**
+     * @return the live task list, shared by every view; empty while {@link #loadAsync} is reading
+     */
+    public static ObservableList<Task> getTasks() {
+        loadUnlessPending();
+        return tasks;
+    }
+
+    /**
+     * @return the live reminder list, shared by every view
+     */
+    public static ObservableList<Reminder> getReminders() {
+        loadUnlessPending();
+        return reminders;
+    }
+
+    /**
+     * @return a read-only view of {@link #getTasks()} that stays sorted as tasks change
+     */
+    public static SortedTaskView getSortedTasks() {
+        loadUnlessPending();
+        return sortedTasks;
+    }
+
+    /**
+     * @return the category/priority/status/due-date index over {@link #getTasks()}
+     */
+    public static TaskIndex getIndex() {
+        loadUnlessPending();
+        return index;
+    }
+
+    /**
+     * @return the substring index over task titles and descriptions
+     */
+    public static TrigramIndex getTextIndex() {
+        loadUnlessPending();
+        return text;
+    }
+
+    /**
+     * @return the live counters shown by the Medialab Assistant; they count the tasks loaded so
+     *         far and never start a load, so they are zero until {@link #load()} or
+     *         {@link #loadAsync} has begun streaming
+     */
+    public static TaskStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * @return the dispatcher that delivers reminders on their date, kept in sync with every reminder
+     *         change; it delivers nothing until started, which the app does once the data is loaded
+     */
+    public static ReminderDispatcher getReminderDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * @return the deltas of every task change made through this class
+     */
+    public static ChangeBus<Task> getTaskChanges() {
+        return taskChanges;
+    }
+
+    /**
+     * @return the deltas of every reminder change made through this class
+     */
+    public static ChangeBus<Reminder> getReminderChanges() {
+        return reminderChanges;
+    }
+
+    /**
+     * @param id the task id
+     * @return the task, if present
+     */
+    public static Optional<Task> getTask(long id) {
+        load();
+        return Optional.ofNullable(tasksById.get(id));
+    }
+
+    /**
+     * Finds a task by its exact title.
+     *
+     * @param title the task title
+     * @return the task, if present
+     */
+    public static Optional<Task> findTask(String title) {
+        return findTaskIgnoreCase(title).filter(task -> task.getTitle().equals(title));
+    }
+
+    /**
+     * Finds a task by title, ignoring case. Titles are unique ignoring case, so this
+     * is also the duplicate check used by the add and edit dialogs.
+     *
+     * @param title the task title
+     * @return the task, if present
+     */
+    public static Optional<Task> findTaskIgnoreCase(String title) {
+        load();
+        return titles.findTask(title);
+    }
+
+    /**
+     * @param taskTitle the task title, matched ignoring case
+     * @return a copy of the reminders linked to the task
+     */
+    public static List<Reminder> getRemindersForTask(String taskTitle) {
+        return findTaskIgnoreCase(taskTitle).map(TaskRepository::getRemindersForTask).orElseGet(ArrayList::new);
+    }
+
+    /**
+     * @return a copy of the reminders linked to the task
+     */
+    public static List<Reminder> getRemindersForTask(Task task) {
+        load();
+        return reminderGroups.remindersFor(task.getId());
+    }
+
+    /**
+     * Adds a task, assigning it the next id if it has none.
+     */
+    public static void addTask(Task task) {
+        load();
+        if (task.getId() <= 0 || tasksById.containsKey(task.getId())) {
+            task.setId(nextId++);
+        } else {
+            nextId = Math.max(nextId, task.getId() + 1);
+        }
+        tasks.add(task);
+        tasksById.put(task.getId(), task);
+        index.add(task);
+        sortedTasks.track(task);
+        statistics.add(task);
+        sweeper.track(task);
+        titles.addTask(task);
+        text.add(task);
+        store.tasksChanged(List.of(task), List.of());
+        taskChanges.publish(ChangeBus.Kind.ADDED, List.of(task));
+    }
+
+    /**
+     * Persists a task that was modified in place through its setters.
+     *
+     * @param task the modified task
+     */
+    public static void updateTask(Task task) {
+        load();
+        index.update(task);
+        sortedTasks.update(task);
+        statistics.update(task);
+        sweeper.track(task);
+        titles.updateTask(task);
+        text.update(task);
+        store.tasksChanged(List.of(task), List.of());
+        taskChanges.publish(ChangeBus.Kind.UPDATED, List.of(task));
+    }
+
+    /**
+     * Persists several tasks that were modified in place, in a single commit.
+     *
+     * @param updated the modified tasks
+     */
+    public static void updateTasks(Collection<Task> updated) {
+        if (updated.isEmpty()) return;
+        load();
+        updated.forEach(index::update);
+        updated.forEach(sortedTasks::update);
+        updated.forEach(statistics::update);
+        updated.forEach(sweeper::track);
+        updated.forEach(titles::updateTask);
+        updated.forEach(text::update);
+        store.tasksChanged(updated, List.of());
+        taskChanges.publish(ChangeBus.Kind.UPDATED, updated);
+    }
+
+    /**
+     * Marks tasks that are now past their due date as "Delayed" and persists only those.
+     * Only tasks due before today are examined; see {@link OverdueSweeper}.
+     *
+     * @return the tasks whose status changed
+     */
+    public static List<Task> sweepOverdue() {
+        load();
+        TaskEvents.StatusUpdate event = new TaskEvents.StatusUpdate();
+        event.begin();
+        long started = System.nanoTime();
+        List<Task> changed = sweeper.sweep();
+        updateTasks(changed);
+        sweepTime.recordSince(started);
+        if (event.shouldCommit()) {
+            event.operation = "sweep";
+            event.tasks = tasks.size();
+            event.delayed = changed.size();
+            event.commit();
+        }
+        return changed;
+    }
+
+    /**
+     * Brings every status up to date with today: sweeps overdue tasks to "Delayed", and reopens
+     * delayed tasks whose due date was moved into the future. Run by the task window whenever
+     * it opens or a task is saved.
+     *
+     * @return the tasks whose status changed
+     */
+    public static List<Task> updateStatuses() {
+        TaskEvents.StatusUpdate event = new TaskEvents.StatusUpdate();
+        event.begin();
+        long started = System.nanoTime();
+        List<Task> changed = new ArrayList<>(sweepOverdue());
+        int delayed = changed.size();
+
+        // A delayed task whose due date was moved into the future is open again
+        long today = Dates.today();
+        List<Task> reopened = new ArrayList<>();
+        for (Task task : index.withStatus("Delayed")) {
+            if (task.getDueEpochDay() != Dates.NO_DATE && task.getDueEpochDay() > today) {
+                task.setStatus("Open");
+                reopened.add(task);
+            }
+        }
+        updateTasks(reopened);
+        changed.addAll(reopened);
+        statusUpdateTime.recordSince(started);
+        if (event.shouldCommit()) {
+            event.operation = "update";
+            event.tasks = tasks.size();
+            event.delayed = delayed;
+            event.reopened = reopened.size();
+            event.commit();
+        }
+        return changed;
+    }
+
+    public static boolean removeTask(Task task) {
+        load();
+        boolean removed = tasks.remove(task);
+        if (removed) {
+            index.remove(task);
+            sortedTasks.untrack(task);
+            statistics.remove(task);
+            sweeper.untrack(task);
+            titles.removeTask(task);
+            text.remove(task);
+            tasksById.remove(task.getId());
+            store.tasksChanged(List.of(), List.of(task.getId()));
+            taskChanges.publish(ChangeBus.Kind.REMOVED, List.of(task));
+        }
+        return removed;
+    }
+
+    /**
+     * Removes several tasks in a single commit.
+     *
+     * @param removed the tasks to remove
+     */
+    public static void removeTasks(Collection<Task> removed) {
+        if (removed.isEmpty()) return;
+        load();
+        tasks.removeAll(new HashSet<>(removed)); // Hash lookups instead of a linear contains per element
+        removed.forEach(index::remove);
+        removed.forEach(sortedTasks::untrack);
+        removed.forEach(statistics::remove);
+        removed.forEach(sweeper::untrack);
+        removed.forEach(titles::removeTask);
+        removed.forEach(text::remove);
+        removed.forEach(task -> tasksById.remove(task.getId()));
+        store.tasksChanged(List.of(), removed.stream().map(Task::getId).toList());
+        taskChanges.publish(ChangeBus.Kind.REMOVED, removed);
+    }
+
+    /**
+     * Applies a batch of changes, including the reminders of removed tasks, in one pass
+     * and persists tasks and reminders with one commit each.
+     *
+     * @param batch the changes
+     * @return counts of what changed
+     */
+    public static TaskBatch.Result apply(TaskBatch batch) {
+        load();
+        int tasksBefore = tasks.size();
+        int remindersBefore = reminders.size();
+
+        Set<Reminder> removedReminders = Collections.newSetFromMap(new IdentityHashMap<>());
+        removedReminders.addAll(batch.removedReminders);
+        for (Task task : batch.removedTasks) {
+            removedReminders.addAll(reminderGroups.remindersFor(task.getId())); // Cascade
+        }
+
+        if (!batch.removedTasks.isEmpty()) {
+            tasks.removeAll(batch.removedTasks);
+        }
+        for (Task task : batch.removedTasks) {
+            index.remove(task);
+            sortedTasks.untrack(task);
+            statistics.remove(task);
+            sweeper.untrack(task);
+            titles.removeTask(task);
+            text.remove(task);
+            tasksById.remove(task.getId());
+        }
+        for (Task task : batch.updatedTasks) {
+            index.update(task);
+            sortedTasks.update(task);
+            statistics.update(task);
+            sweeper.track(task);
+            titles.updateTask(task);
+            text.update(task);
+        }
+
+        Set<Long> reminderTaskIds = new LinkedHashSet<>();
+        if (!removedReminders.isEmpty()) {
+            reminders.removeAll(removedReminders);
+        }
+        for (Reminder reminder : removedReminders) {
+            reminderGroups.remove(reminder);
+            dispatcher.cancel(reminder);
+            reminderTaskIds.add(reminder.getTaskId());
+        }
+        List<Reminder> updatedReminders = new ArrayList<>();
+        for (Reminder reminder : batch.updatedReminders) {
+            if (removedReminders.contains(reminder)) continue;
+            reminderTaskIds.add(reminder.getTaskId());
+            updatedReminders.add(reminder);
+        }
+
+        if (!batch.updatedTasks.isEmpty() || !batch.removedTasks.isEmpty()) {
+            store.tasksChanged(batch.updatedTasks, batch.removedTasks.stream().map(Task::getId).toList());
+        }
+        persistReminders(reminderTaskIds); // Also reschedules the updated reminders
+
+        taskChanges.publish(ChangeBus.Kind.REMOVED, batch.removedTasks);
+        taskChanges.publish(ChangeBus.Kind.UPDATED, batch.updatedTasks);
+        reminderChanges.publish(ChangeBus.Kind.REMOVED, removedReminders);
+        reminderChanges.publish(ChangeBus.Kind.UPDATED, updatedReminders);
+        return new TaskBatch.Result(batch.updatedTasks.size(), tasksBefore - tasks.size(),
+                updatedReminders.size(), remindersBefore - reminders.size());
+    }
+
+    /**
+     * Renames a category for every task that uses it. Tasks reference the category by its
+     * {@link NameDictionary} id, so only the dictionary entry changes and only the rename is
+     * persisted; tasks filed under another spelling of the old name, or every task if the new
+     * name is already in use, are moved one by one. The sorted view re-files just the tasks
+     * with the renamed category.
+     *
+     * @return counts of what changed
+     */
+    public static TaskBatch.Result renameCategory(String oldName, String newName) {
+        return rename(NameDictionary.CATEGORIES, oldName, newName, Task::getCategoryId,
+                index::withCategoryId, index::withCategory, Task::setCategory, store::categoryRenamed);
+    }
+
+    /**
+     * Renames a priority for every task that uses it; see {@link #renameCategory(String, String)}.
+     *
+     * @return counts of what changed
+     */
+    public static TaskBatch.Result renamePriority(String oldName, String newName) {
+        return rename(NameDictionary.PRIORITIES, oldName, newName, Task::getPriorityId,
+                index::withPriorityId, index::withPriority, Task::setPriority, store::priorityRenamed);
+    }
+
+    private static TaskBatch.Result rename(NameDictionary names, String oldName, String newName, ToIntFunction<Task> idOf,
+                                           IntFunction<List<Task>> withId, Function<String, List<Task>> withName,
+                                           BiConsumer<Task, String> setter, BiConsumer<String, String> persist) {
+        load();
+        int renamedId = names.rename(oldName, newName);
+        List<Task> renamed = renamedId == NameDictionary.NONE ? List.of() : withId.apply(renamedId);
+        if (renamedId != NameDictionary.NONE) {
+            persist.accept(oldName, newName);
+        }
+
+        TaskBatch batch = new TaskBatch();
+        for (Task task : withName.apply(oldName)) {
+            // After a rename that only changes case, the renamed tasks still match the old name
+            if (renamedId != NameDictionary.NONE && idOf.applyAsInt(task) == renamedId) continue;
+            setter.accept(task, newName);
+            batch.updateTask(task);
+        }
+        TaskBatch.Result moved = apply(batch);
+
+        if (!renamed.isEmpty()) {
+            // The tasks were not touched, but their rows show the old name; priorities sort by id, which a rename keeps
+            sortedTasks.updateAll(renamed);
+            taskChanges.publish(ChangeBus.Kind.UPDATED, renamed);
+        }
+        return new TaskBatch.Result(renamed.size() + moved.tasksUpdated(), moved.tasksRemoved(),
+                moved.remindersUpdated(), moved.remindersRemoved());
+    }
+
+    /**
+     * @return true if a reminder equal to this one (same task, date, type and message) exists
+     */
+    public static boolean containsReminder(Reminder reminder) {
+        load();
+        return reminderGroups.contains(reminder);
+    }
+
+    /**
+     * Adds a reminder unless an equal one already exists. A reminder without a task id
+     * is linked to the task with its title.
+     *
+     * @return false if the reminder was a duplicate and was not added
+     */
+    public static boolean addReminder(Reminder reminder) {
+        load();
+        if (reminder.getTaskId() == 0) {
+            findTaskIgnoreCase(reminder.getTaskTitle()).ifPresent(task -> reminder.setTaskId(task.getId()));
+        }
+        if (!reminderGroups.add(reminder)) return false;
+        reminders.add(reminder);
+        dispatcher.schedule(reminder);
+        persistReminders(Set.of(reminder.getTaskId()));
+        reminderChanges.publish(ChangeBus.Kind.ADDED, List.of(reminder));
+        return true;
+    }
+
+    public static boolean removeReminder(Reminder reminder) {
+        load();
+        boolean removed = reminders.remove(reminder);
+        if (removed) {
+            reminderGroups.remove(reminder);
+            dispatcher.cancel(reminder);
+            persistReminders(Set.of(reminder.getTaskId()));
+            reminderChanges.publish(ChangeBus.Kind.REMOVED, List.of(reminder));
+        }
+        return removed;
+    }
+
+    /**
+     * Removes several reminders in a single pass and a single commit.
+     *
+     * @param removed the reminders to remove
+     */
+    public static void removeReminders(Collection<Reminder> removed) {
+        if (removed.isEmpty()) return;
+        load();
+        reminders.removeAll(new HashSet<>(removed));
+        removed.forEach(reminderGroups::remove);
+        removed.forEach(dispatcher::cancel);
+        persistReminders(removed.stream().map(Reminder::getTaskId).collect(Collectors.toSet()));
+        reminderChanges.publish(ChangeBus.Kind.REMOVED, removed);
+    }
+
+    /**
+     * Persists reminders that were modified in place. A reminder that now equals another
+     * one is removed.
+     *
+     * @param changed the modified reminders
+     * @return the reminders removed as duplicates
+     */
+    public static List<Reminder> updateReminders(Collection<Reminder> changed) {
+        if (changed.isEmpty()) return List.of();
+        load();
+        long started = System.nanoTime();
+        List<Reminder> duplicates = reminderGroups.rekey(changed);
+        dropReminders(duplicates);
+        persistReminders(changed.stream().map(Reminder::getTaskId).collect(Collectors.toSet()));
+        reminderChanges.publish(ChangeBus.Kind.UPDATED, changed.stream().filter(r -> duplicates.stream().noneMatch(d -> d == r)).toList());
+        reminderUpdateTime.recordSince(started);
+        remindersUpdated.add(changed.size());
+        return duplicates;
+    }
+
+    /**
+     * Persists the reminders of the given tasks after they were modified in place,
+     * and reschedules any whose date changed.
+     *
+     * @param taskIds the ids of the tasks whose reminders changed
+     */
+    public static void remindersChanged(Collection<Long> taskIds) {
+        load();
+        List<Reminder> changed = new ArrayList<>();
+        persistReminders(taskIds).values().forEach(changed::addAll);
+        reminderChanges.publish(ChangeBus.Kind.UPDATED, changed);
+    }
+
+    // Refiles, reschedules and writes the reminders of the given tasks; returns the groups written
+    private static Map<Long, List<Reminder>> persistReminders(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) return Map.of();
+        Map<Long, List<Reminder>> groups = new LinkedHashMap<>();
+        for (long taskId : taskIds) {
+            if (taskId == 0) continue;
+            List<Reminder> group = reminderGroups.remindersFor(taskId);
+            List<Reminder> duplicates = reminderGroups.rekey(group); // Edits may have made two reminders equal
+            if (!duplicates.isEmpty()) {
+                dropReminders(duplicates);
+                group = reminderGroups.remindersFor(taskId);
+            }
+            groups.put(taskId, group);
+        }
+        groups.values().forEach(group -> group.forEach(dispatcher::schedule));
+        if (groups.size() < taskIds.size()) {
+            store.saveReminders(); // Reminders of no known task have no group to write
+        } else {
+            store.remindersChanged(groups);
+        }
+        return groups;
+    }
+
+    // Removes reminders that are no longer filed in reminderGroups from the list and the dispatcher
+    private static void dropReminders(List<Reminder> dropped) {
+        if (dropped.isEmpty()) return;
+        Set<Reminder> identities = Collections.newSetFromMap(new IdentityHashMap<>());
+        identities.addAll(dropped);
+        reminders.removeIf(identities::contains); // Not removeAll: the kept reminder is equal to the dropped one
+        dropped.forEach(dispatcher::cancel);
+        reminderChanges.publish(ChangeBus.Kind.REMOVED, dropped);
+    }
+
+    /**
+     * Persists the whole task list, for bulk edits made directly on {@link #getTasks()}.
+     */
+    public static void saveTasks() {
+        store.saveTasks();
+    }
+
+    /**
+     * Persists the whole reminder list, for bulk edits made directly on {@link #getReminders()}.
+     */
+    public static void saveReminders() {
+        store.saveReminders();
+    }
+
+    /**
+     * Writes any pending tasks and reminders synchronously. Called on shutdown.
+     */
+    public static void flush() {
+        store.flush();
+    }
+}
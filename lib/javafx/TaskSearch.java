@@ -0,0 +1,361 @@
+package lib.javafx;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.util.Duration;
+import lib.metrics.LatencyHistogram;
+import lib.metrics.Metrics;
+import lib.metrics.TaskEvents;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Filters the task table as the user types.
+ * <p>
+ * Each edit of a search control restarts a short debounce; when it runs out the query is
+ * matched on a background thread, cancelling the one still running. The background thread
+ * never reads the repository: it queries a {@link SearchReplica}, copies of the tasks with
+ * their own category/priority/due-date and trigram indexes, which this class keeps current
+ * from the repository's {@link ChangeBus}. Changes reach the replica through the same
+ * single-threaded executor as the queries, so each query sees every change made before it
+ * was submitted. A result is handed to the table only if it is fresh: no newer query was
+ * scheduled and no task changed while it ran (otherwise it is run again).
+ * <p>
+ * All methods must be called on the JavaFX thread.
+ */
+public class TaskSearch {
+
+    /**
+     * The values of the search controls; {@code "All"} means any category or priority.
+     */
+    public record Query(String title, String dueDate, String category, String priority) {
+        public boolean isEmpty() {
+            return title.isEmpty() && dueDate.isEmpty() && category.equals("All") && priority.equals("All");
+        }
+    }
+
+    /**
+     * Matching tasks in {@code order}, or null for an empty query (show every task), and the
+     * predicate that places tasks added or edited while the result is shown.
+     */
+    public record Result(Query query, List<Task> tasks, Predicate<Task> filter, long latencyNanos) {}
+
+    private static final Duration DEBOUNCE = Duration.millis(150);
+    private static final int MAX_ATTEMPTS = 3; // Then the query runs on the JavaFX thread, which cannot race an edit
+    private static final int LATENCY_SAMPLES = 256;
+    private static final int CANCEL_CHECK_MASK = 0xFFF; // Every 4096 candidates
+
+    private static final LatencyHistogram queryTime = Metrics.histogram("search.query");     // Running the query
+    private static final LatencyHistogram resultTime = Metrics.histogram("search.latency");  // Until the table shows it
+    private static final LongAdder retries = Metrics.counter("search.retries");
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Consumer<Result> publisher;
+    private final PauseTransition debounce = new PauseTransition(DEBOUNCE);
+    private final long[] latencies = new long[LATENCY_SAMPLES]; // Ring of the latest query latencies, in ns
+    private int queries;
+    private long generation; // Bumped by every scheduled query; older results are dropped
+    private long tasksVersion; // Bumped by every repository change
+    private final SearchReplica replica = new SearchReplica(); // Touched on the search thread only
+    private boolean seeded; // The replica was given every task, on the first background query
+    private Future<?> inFlight;
+
+    /**
+     * @param publisher receives fresh results on the JavaFX thread
+     */
+    public TaskSearch(Consumer<Result> publisher) {
+        this.publisher = publisher;
+        TaskRepository.getTaskChanges().addListener(change -> {
+            tasksVersion++;
+            if (seeded) copy(change);
+        });
+    }
+
+    /**
+     * Runs the query once the user stops typing for {@link #DEBOUNCE}.
+     */
+    public void schedule(Query query) {
+        long scheduled = supersede();
+        debounce.setOnFinished(e -> submit(query, scheduled, System.nanoTime(), 1));
+        debounce.playFromStart();
+    }
+
+    /**
+     * Runs the query without waiting, as the Search button does.
+     */
+    public void runNow(Query query) {
+        debounce.stop();
+        submit(query, supersede(), System.nanoTime(), 1);
+    }
+
+    /**
+     * Runs a query on the calling thread, which must be the one that modifies the repository.
+     * It starts from the smallest matching index bucket instead of scanning every task.
+     *
+     * @return the matching tasks in the table's current order; every task for an empty query
+     */
+    public static List<Task> find(Query query) {
+        if (query.isEmpty()) return new ArrayList<>(TaskRepository.getSortedTasks());
+        return find(new Criteria(query), rowOrder());
+    }
+
+    /**
+     * @return the latency of the most recent queries (up to {@value #LATENCY_SAMPLES}), in
+     *         nanoseconds, oldest first
+     */
+    public long[] recentLatencies() {
+        int count = Math.min(queries, LATENCY_SAMPLES);
+        long[] recent = new long[count];
+        for (int i = 0; i < count; i++) {
+            recent[i] = latencies[(queries - count + i) % LATENCY_SAMPLES];
+        }
+        return recent;
+    }
+
+    private long supersede() {
+        if (inFlight != null) inFlight.cancel(true);
+        inFlight = null;
+        return ++generation;
+    }
+
+    private void submit(Query query, long scheduled, long startedAt, int attempt) {
+        if (query.isEmpty()) {
+            publish(new Result(query, null, null, System.nanoTime() - startedAt));
+            return;
+        }
+        Criteria criteria = new Criteria(query);
+        Comparator<Task> order = rowOrder();
+        long version = tasksVersion;
+        if (attempt > MAX_ATTEMPTS) {
+            show(criteria, find(criteria, order), startedAt);
+            return;
+        }
+        seed();
+        int taskCount = TaskRepository.getTasks().size();
+        inFlight = executor.submit(() -> {
+            List<Task> found;
+            try {
+                found = measured(criteria, taskCount, () -> searchReplica(criteria, order));
+            } catch (CancellationException e) {
+                return; // A newer query took over
+            } catch (RuntimeException e) {
+                Platform.runLater(() -> { throw e; }); // Reported on the JavaFX thread, like any other error in the UI
+                return;
+            }
+            Platform.runLater(() -> deliver(criteria, found, version, scheduled, startedAt, attempt));
+        });
+    }
+
+    private void deliver(Criteria criteria, List<Task> found, long version, long scheduled, long startedAt, int attempt) {
+        if (scheduled != generation) return; // Superseded by a newer query
+        if (version != tasksVersion) {
+            retries.increment();
+            submit(criteria.query, scheduled, startedAt, attempt + 1);
+            return;
+        }
+        show(criteria, found, startedAt);
+    }
+
+    private void show(Criteria criteria, List<Task> found, long startedAt) {
+        inFlight = null;
+        publish(new Result(criteria.query, found, criteria.filter(TaskRepository.getTextIndex()),
+                System.nanoTime() - startedAt));
+    }
+
+    private void publish(Result result) {
+        latencies[queries++ % LATENCY_SAMPLES] = result.latencyNanos();
+        resultTime.record(result.latencyNanos());
+        publisher.accept(result);
+    }
+
+    private void seed() {
+        if (seeded) return;
+        seeded = true;
+        copy(new ChangeBus.Change<>(ChangeBus.Kind.ADDED, TaskRepository.getTasks()));
+    }
+
+    // Copies on this thread, where the tasks are consistent with tasksVersion; files them on the search thread
+    private void copy(ChangeBus.Change<Task> change) {
+        List<Task> live = List.copyOf(change.items());
+        if (change.kind() == ChangeBus.Kind.REMOVED) {
+            executor.execute(() -> live.forEach(replica::remove));
+            return;
+        }
+        boolean added = change.kind() == ChangeBus.Kind.ADDED;
+        List<Task> copies = new ArrayList<>(live.size());
+        live.forEach(task -> copies.add(new Task(task)));
+        executor.execute(() -> {
+            for (int i = 0; i < live.size(); i++) {
+                if (added) {
+                    replica.put(live.get(i), copies.get(i));
+                } else {
+                    replica.update(live.get(i), copies.get(i));
+                }
+            }
+        });
+    }
+
+    // On the search thread: the same index lookups as find(), over the copies, answered with the live tasks
+    private Found searchReplica(Criteria criteria, Comparator<Task> order) {
+        Found copies = criteria.select(replica.copies(), replica.index(), replica.text(), order);
+        List<Task> found = new ArrayList<>(copies.tasks().size());
+        copies.tasks().forEach(copy -> found.add(replica.live(copy)));
+        return new Found(found, copies.candidates());
+    }
+
+    private static List<Task> find(Criteria criteria, Comparator<Task> order) {
+        List<Task> tasks = TaskRepository.getTasks();
+        TaskIndex index = TaskRepository.getIndex();
+        TrigramIndex text = TaskRepository.getTextIndex();
+        return measured(criteria, tasks.size(), () -> criteria.select(tasks, index, text, order));
+    }
+
+    // Records the query time and the Search event around one run
+    private static List<Task> measured(Criteria criteria, int taskCount, Supplier<Found> search) {
+        TaskEvents.Search event = new TaskEvents.Search();
+        event.begin();
+        long started = System.nanoTime();
+        Found found = null;
+        try {
+            found = criteria.invalidDate ? new Found(List.of(), 0) : search.get(); // A half-typed date matches nothing
+            return found.tasks();
+        } finally {
+            queryTime.recordSince(started);
+            if (event.shouldCommit()) {
+                event.query = describe(criteria.query);
+                event.tasks = taskCount;
+                event.candidates = found == null ? 0 : found.candidates();
+                event.matches = found == null ? 0 : found.tasks().size();
+                event.cancelled = found == null;
+                event.commit();
+            }
+        }
+    }
+
+    private static String describe(Query query) {
+        List<String> parts = new ArrayList<>();
+        if (!query.title().isEmpty()) parts.add("\"" + query.title() + "\"");
+        if (!query.dueDate().isEmpty()) parts.add("due " + query.dueDate());
+        if (!query.category().equals("All")) parts.add(query.category());
+        if (!query.priority().equals("All")) parts.add(query.priority());
+        return parts.isEmpty() ? "(none)" : String.join(", ", parts);
+    }
+
+    private static Comparator<Task> rowOrder() {
+        SortedTaskView view = TaskRepository.getSortedTasks();
+        Comparator<Task> order = view.getSortKey().comparator();
+        return view.isDescending() ? order.reversed() : order;
+    }
+
+    /**
+     * The matching tasks in order, and how many tasks were tested after the index lookups.
+     */
+    private record Found(List<Task> tasks, int candidates) {}
+
+    /**
+     * One query, resolved once: the title lower-cased, the names interned, the date parsed.
+     */
+    private static final class Criteria {
+        final Query query;
+        final String title;
+        final boolean anyCategory;
+        final boolean anyPriority;
+        final int categoryId; // Exact matches compare interned ids
+        final int priorityId;
+        final LocalDate dueDate; // Null for any date, or if invalid
+        final boolean invalidDate;
+
+        Criteria(Query query) {
+            this.query = query;
+            this.title = TrigramIndex.normalize(query.title());
+            this.anyCategory = query.category().equals("All");
+            this.anyPriority = query.priority().equals("All");
+            this.categoryId = NameDictionary.CATEGORIES.idOf(query.category());
+            this.priorityId = NameDictionary.PRIORITIES.idOf(query.priority());
+
+            LocalDate date = null;
+            boolean invalid = false;
+            if (!query.dueDate().isEmpty()) {
+                try {
+                    date = LocalDate.parse(query.dueDate(), Dates.FORMAT);
+                } catch (DateTimeParseException e) {
+                    invalid = true; // Matches no task
+                }
+            }
+            this.dueDate = date;
+            this.invalidDate = invalid;
+        }
+
+        /**
+         * @param text the task's indexed text (see {@link TrigramIndex#indexedText}), or null
+         */
+        boolean test(Task task, String text) {
+            boolean matchesTitle = title.isEmpty() || (text != null && text.contains(title));
+            boolean matchesCategory = anyCategory || (categoryId != NameDictionary.NONE && task.getCategoryId() == categoryId);
+            boolean matchesPriority = anyPriority || (priorityId != NameDictionary.NONE && task.getPriorityId() == priorityId);
+            boolean matchesDueDate = query.dueDate().isEmpty()
+                    || (dueDate != null && task.getDueEpochDay() == dueDate.toEpochDay());
+            return matchesTitle && matchesCategory && matchesPriority && matchesDueDate;
+        }
+
+        /**
+         * @return the predicate for live tasks, on the thread that modifies the repository
+         */
+        Predicate<Task> filter(TrigramIndex text) {
+            return task -> test(task, text.indexedText(task));
+        }
+
+        /**
+         * Matches the tasks of {@code index} and {@code text}, starting from the title's posting-list
+         * intersection or the smallest index bucket among the active filters.
+         *
+         * @throws CancellationException if the thread was interrupted by a newer query
+         */
+        Found select(Collection<Task> tasks, TaskIndex index, TrigramIndex text, Comparator<Task> order) {
+            Collection<Task> candidates = dueDate != null ? index.dueOn(dueDate) : tasks;
+            boolean trigrams = title.length() >= 3;
+            if (trigrams) candidates = smaller(candidates, text.search(title)); // Posting-list intersection
+            // Counted before copying, so a bucket larger than the title matches is never materialized
+            if (!anyCategory && index.countWithCategory(query.category()) < candidates.size()) {
+                candidates = index.withCategory(query.category());
+            }
+            if (!anyPriority && index.countWithPriority(query.priority()) < candidates.size()) {
+                candidates = index.withPriority(query.priority());
+            }
+            if (!title.isEmpty() && !trigrams) candidates = smaller(candidates, text.search(title)); // Scans texts only
+
+            Task[] found = new Task[candidates.size()];
+            int count = 0;
+            int tested = 0;
+            for (Task task : candidates) {
+                if ((tested++ & CANCEL_CHECK_MASK) == 0 && Thread.interrupted()) throw new CancellationException();
+                if (test(task, text.indexedText(task))) found[count++] = task;
+            }
+            Arrays.sort(found, 0, count, order);
+            return new Found(Arrays.asList(Arrays.copyOf(found, count)), candidates.size());
+        }
+
+        private static Collection<Task> smaller(Collection<Task> candidates, List<Task> matches) {
+            return matches.size() < candidates.size() ? matches : candidates;
+        }
+    }
+}
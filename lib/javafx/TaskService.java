@@ -0,0 +1,406 @@
+package lib.javafx;
+
+import javafx.collections.ObservableList;
+import lib.metrics.TaskEvents;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * The operations behind the task manager's dialogs, without the dialogs: adding, editing and
+ * deleting tasks, setting reminders, managing categories and priorities, search and statistics.
+ * The dialogs read their fields, call these and show a {@link Rejected} as an alert; load
+ * tests and other headless callers call them directly.
+ *
+ * <p>Like {@link TaskRepository}, everything here must run on the thread that owns the
+ * repository: the JavaFX thread in the app, a single worker thread headless.
+ */
+public final class TaskService {
+
+    public static final List<String> STATUSES = List.of("Open", "In Progress", "Postponed", "Completed");
+    public static final List<String> REMINDER_TYPES = List.of(
+            "One day before deadline", "One week before deadline", "One month before deadline", "Custom date");
+
+    public static final String DEFAULT_CATEGORY = "General";
+    public static final String DEFAULT_PRIORITY = "Default";
+
+    private static final String INVALID_DUE_DATE = "Please enter a valid due date in the format dd/MM/yyyy.";
+    private static final String INVALID_REMINDER_DATE = "Please enter a valid reminder date in format dd/MM/yyyy.";
+
+    private TaskService() {}
+
+    /**
+     * An operation refused because of its input. The message is meant for the user.
+     */
+    public static class Rejected extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        private final String title;
+
+        Rejected(String title, String message) {
+            super(message);
+            this.title = title;
+        }
+
+        /** The title of the alert the dialogs show for it. */
+        public String title() {
+            return title;
+        }
+    }
+
+    /**
+     * The figures of the statistics panel.
+     */
+    public record Stats(int total, int completed, int delayed, int dueWithin7Days,
+                        Map<String, Integer> byCategory, Map<String, Integer> byPriority) {}
+
+    /**
+     * Adds a task after the checks of the Add Task dialog.
+     *
+     * @param dueDate a date in {@code dd/MM/yyyy} format, not in the past
+     * @return the new task, with its id assigned
+     * @throws Rejected if the title is empty or taken, or the due date is invalid
+     */
+    public static Task addTask(String title, String description, String category, String priority,
+                               String dueDate, String status) {
+        String newTitle = requireTitle(title);
+        requireDueDate(dueDate);
+        requireFreeTitle(newTitle, null);
+
+        Task task = new Task(newTitle, description, category, priority, dueDate, status);
+        TaskRepository.addTask(task);
+        return task;
+    }
+
+    /**
+     * Changes every field of a task after the checks of the Edit Task dialog, and brings its
+     * reminders along: they are deleted when the task is completed, and otherwise follow the
+     * new title and due date. Custom date reminders keep their date.
+     *
+     * @throws Rejected if the title is empty or taken by another task, or the due date is invalid
+     */
+    public static void editTask(Task task, String title, String description, String category, String priority,
+                                String dueDate, String status) {
+        String newTitle = requireTitle(title);
+        requireDueDate(dueDate);
+        requireFreeTitle(newTitle, task);
+
+        List<Reminder> reminders = TaskRepository.getRemindersForTask(task);
+        boolean titleChanged = !task.getTitle().equals(newTitle);
+        boolean dueDateChanged = !Objects.equals(task.getDueDate(), dueDate);
+
+        task.setTitle(newTitle);
+        task.setDescription(description);
+        task.setCategory(category);
+        task.setPriority(priority);
+        task.setDueDate(dueDate);
+        task.setStatus(status);
+
+        TaskEvents.ReminderRecalculation event = new TaskEvents.ReminderRecalculation();
+        event.begin();
+        int rescheduled = 0;
+        int removed = 0;
+        if (task.getStatus().equalsIgnoreCase("Completed")) {
+            TaskRepository.removeReminders(reminders);
+            removed = reminders.size();
+        } else if (!reminders.isEmpty() && (titleChanged || dueDateChanged)) {
+            LocalDate newDueDate = LocalDate.ofEpochDay(task.getDueEpochDay());
+            for (Reminder reminder : reminders) {
+                if (dueDateChanged) {
+                    LocalDate date = reminder.isCustomDate() ? null : reminderDate(reminder.getReminderType(), newDueDate);
+                    if (date != null) {
+                        reminder.setEpochDay(date.toEpochDay());
+                        rescheduled++;
+                    }
+                    reminder.setTaskDueDate(dueDate);
+                }
+                if (titleChanged) reminder.setTaskTitle(newTitle);
+            }
+            removed = TaskRepository.updateReminders(reminders).size(); // Duplicates after the move
+        }
+        if (!reminders.isEmpty() && event.shouldCommit()) {
+            event.taskId = task.getId();
+            event.taskTitle = newTitle;
+            event.reminders = reminders.size();
+            event.rescheduled = rescheduled;
+            event.removed = removed;
+            event.dueDateChanged = dueDateChanged;
+            event.titleChanged = titleChanged;
+            event.commit();
+        }
+
+        TaskRepository.updateTask(task);
+    }
+
+    // The date of a reminder of the given type for a task due on dueDate; null for "Custom date" or an unknown type
+    private static LocalDate reminderDate(String type, LocalDate dueDate) {
+        if (type == null) return null;
+        return switch (type) {
+            case "One day before deadline" -> dueDate.minusDays(1);
+            case "One week before deadline" -> dueDate.minusWeeks(1);
+            case "One month before deadline" -> dueDate.minusMonths(1);
+            default -> null;
+        };
+    }
+
+    /**
+     * @return true if moving the task's due date to {@code newDueDate} would leave one of its
+     *         custom date reminders after the deadline
+     */
+    public static boolean hasCustomReminderAfter(Task task, String newDueDate) {
+        long newDueEpochDay = Dates.toEpochDay(newDueDate);
+        if (newDueEpochDay == Dates.NO_DATE) return false;
+
+        for (Reminder reminder : TaskRepository.getRemindersForTask(task)) {
+            if (reminder.isCustomDate() && reminder.getEpochDay() > newDueEpochDay) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Deletes a task and its reminders in one commit.
+     *
+     * @throws Rejected if the task is no longer in the repository
+     */
+    public static TaskBatch.Result deleteTask(Task task) {
+        if (TaskRepository.getTask(task.getId()).orElse(null) != task) {
+            throw new Rejected("Error", "Task not found in records.");
+        }
+        return TaskRepository.apply(new TaskBatch().removeTask(task));
+    }
+
+    /**
+     * Sets a reminder after the checks of the Set Reminder dialog.
+     *
+     * @param type       one of {@link #REMINDER_TYPES}
+     * @param customDate the date in {@code dd/MM/yyyy} format, read for "Custom date" only
+     * @return false if the task already had the same reminder
+     * @throws Rejected if the task is completed or the reminder date is invalid, in the past
+     *                  or after the due date
+     */
+    public static boolean setReminder(Task task, String type, String customDate, String message) {
+        if (task.getStatus().equalsIgnoreCase("Completed")) {
+            throw new Rejected("Action Denied", "You cannot set reminders for completed tasks.");
+        }
+        if (task.getDueEpochDay() == Dates.NO_DATE) {
+            throw new Rejected("Invalid Input", "Please enter a valid date.");
+        }
+        LocalDate dueDate = LocalDate.ofEpochDay(task.getDueEpochDay());
+        LocalDate reminderDate = "Custom date".equals(type)
+                ? parseDate(customDate, INVALID_REMINDER_DATE)
+                : reminderDate(type, dueDate);
+        if (reminderDate == null) {
+            throw new Rejected("Invalid Input", "Invalid reminder type selected");
+        }
+
+        if (reminderDate.isBefore(LocalDate.now())) {
+            throw new Rejected("Invalid Date", "Reminder date cannot be in the past.");
+        }
+        if (reminderDate.isAfter(dueDate)) {
+            throw new Rejected("Invalid Date", "Reminder date cannot be after the task's due date ("
+                    + dueDate.format(Dates.FORMAT) + ").");
+        }
+
+        Reminder reminder = new Reminder(task.getTitle(), reminderDate.format(Dates.FORMAT), message, type, task.getDueDate());
+        reminder.setTaskId(task.getId());
+        return TaskRepository.addReminder(reminder);
+    }
+
+    /**
+     * @return false if the name is blank or already a category
+     */
+    public static boolean addCategory(String name) {
+        return addName(CategoryHandler.getCategories(), NameDictionary.CATEGORIES, name, CategoryHandler::saveCategories);
+    }
+
+    /**
+     * Renames a category; tasks follow without being rewritten.
+     *
+     * @throws Rejected for the default or an unknown category, or if the new name is blank or taken
+     */
+    public static TaskBatch.Result renameCategory(String oldName, String newName) {
+        ObservableList<String> categories = CategoryHandler.getCategories();
+        int at = requireListed(categories, oldName, "category", "Rename Error");
+        String listed = categories.get(at);
+        if (listed.equals(DEFAULT_CATEGORY)) {
+            throw new Rejected("Rename Error", "This category cannot be renamed.");
+        }
+        if (newName.trim().isEmpty() || isListedElsewhere(categories, newName, at)) {
+            throw new Rejected("Rename Error", "Invalid or duplicate category name.");
+        }
+        return cascade("category", "rename", listed, newName, () -> {
+            categories.set(at, newName);
+            CategoryHandler.saveCategories();
+            return TaskRepository.renameCategory(listed, newName);
+        });
+    }
+
+    /**
+     * Deletes a category together with its tasks and their reminders, in one commit.
+     *
+     * @throws Rejected for the default or an unknown category
+     */
+    public static TaskBatch.Result deleteCategory(String name) {
+        ObservableList<String> categories = CategoryHandler.getCategories();
+        String listed = categories.get(requireListed(categories, name, "category", "Delete Error"));
+        if (listed.equals(DEFAULT_CATEGORY)) {
+            throw new Rejected("Delete Error", "The 'General' category cannot be deleted.");
+        }
+        return cascade("category", "delete", listed, null, () -> {
+            TaskBatch.Result result = TaskRepository.apply(new TaskBatch().removeTasks(TaskRepository.getIndex().withCategory(listed)));
+            categories.remove(listed);
+            CategoryHandler.saveCategories();
+            return result;
+        });
+    }
+
+    /**
+     * @return false if the name is blank or already a priority
+     */
+    public static boolean addPriority(String name) {
+        return addName(PriorityHandler.getPriorities(), NameDictionary.PRIORITIES, name, PriorityHandler::savePriorities);
+    }
+
+    /**
+     * Renames a priority; tasks follow without being rewritten.
+     *
+     * @throws Rejected for the default or an unknown priority, or if the new name is blank or taken
+     */
+    public static TaskBatch.Result renamePriority(String oldName, String newName) {
+        ObservableList<String> priorities = PriorityHandler.getPriorities();
+        int at = requireListed(priorities, oldName, "priority", "Rename Error");
+        String listed = priorities.get(at);
+        if (listed.equals(DEFAULT_PRIORITY)) {
+            throw new Rejected("Rename Error", "This priority cannot be renamed.");
+        }
+        if (newName.trim().isEmpty() || isListedElsewhere(priorities, newName, at)) {
+            throw new Rejected("Rename Error", "Invalid or duplicate priority name.");
+        }
+        return cascade("priority", "rename", listed, newName, () -> {
+            priorities.set(at, newName);
+            PriorityHandler.savePriorities();
+            return TaskRepository.renamePriority(listed, newName);
+        });
+    }
+
+    /**
+     * Deletes a priority; its tasks move to the default priority in one commit.
+     *
+     * @throws Rejected for the default or an unknown priority
+     */
+    public static TaskBatch.Result deletePriority(String name) {
+        ObservableList<String> priorities = PriorityHandler.getPriorities();
+        String listed = priorities.get(requireListed(priorities, name, "priority", "Delete Error"));
+        if (listed.equals(DEFAULT_PRIORITY)) {
+            throw new Rejected("Delete Error", "This priority cannot be deleted.");
+        }
+        return cascade("priority", "delete", listed, DEFAULT_PRIORITY, () -> {
+            TaskBatch batch = new TaskBatch();
+            for (Task task : TaskRepository.getIndex().withPriority(listed)) {
+                task.setPriority(DEFAULT_PRIORITY);
+                batch.updateTask(task);
+            }
+            TaskBatch.Result result = TaskRepository.apply(batch);
+            priorities.remove(listed);
+            PriorityHandler.savePriorities();
+            return result;
+        });
+    }
+
+    /**
+     * Runs a search on the calling thread. The app's search box goes through
+     * {@link TaskSearch} instead, which runs it in the background.
+     */
+    public static List<Task> search(TaskSearch.Query query) {
+        return TaskSearch.find(query);
+    }
+
+    public static Stats stats() {
+        TaskStatistics stats = TaskRepository.getStatistics();
+        return new Stats(stats.total(), stats.countWithStatus("Completed"), stats.countWithStatus("Delayed"),
+                stats.countDueWithin(Dates.today(), 7), stats.byCategory(), stats.byPriority());
+    }
+
+    // Runs a rename or delete of a name inside a NameCascade event
+    private static TaskBatch.Result cascade(String kind, String operation, String name, String newName,
+                                            Supplier<TaskBatch.Result> change) {
+        TaskEvents.NameCascade event = new TaskEvents.NameCascade();
+        event.begin();
+        TaskBatch.Result result = change.get();
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.operation = operation;
+            event.name = name;
+            event.newName = newName;
+            event.tasksUpdated = result.tasksUpdated();
+            event.tasksRemoved = result.tasksRemoved();
+            event.remindersRemoved = result.remindersRemoved();
+            event.commit();
+        }
+        return result;
+    }
+
+    private static boolean addName(ObservableList<String> names, NameDictionary dictionary, String name, Runnable save) {
+        if (name == null || name.trim().isEmpty() || names.contains(name)) return false;
+        dictionary.intern(name);
+        names.add(name);
+        save.run();
+        return true;
+    }
+
+    // Names are looked up ignoring case, like the dictionary and title lookups
+    private static int requireListed(List<String> names, String name, String kind, String title) {
+        for (int i = 0; name != null && i < names.size(); i++) {
+            if (names.get(i).equalsIgnoreCase(name)) return i;
+        }
+        throw new Rejected(title, "There is no " + kind + " named '" + name + "'.");
+    }
+
+    // A rename may change only the case of its own name
+    private static boolean isListedElsewhere(List<String> names, String name, int self) {
+        for (int i = 0; i < names.size(); i++) {
+            if (i != self && names.get(i).equalsIgnoreCase(name)) return true;
+        }
+        return false;
+    }
+
+    private static String requireTitle(String title) {
+        String trimmed = title == null ? "" : title.trim();
+        if (trimmed.isEmpty()) {
+            throw new Rejected("Invalid Input", "Task title cannot be empty.");
+        }
+        return trimmed;
+    }
+
+    private static void requireDueDate(String dueDate) {
+        if (parseDate(dueDate, INVALID_DUE_DATE).isBefore(LocalDate.now())) {
+            throw new Rejected("Invalid Date", "Due date cannot be in the past.");
+        }
+    }
+
+    // Titles are unique ignoring case; the task being edited may keep its own
+    private static void requireFreeTitle(String title, Task self) {
+        if (TaskRepository.findTaskIgnoreCase(title).filter(existing -> existing != self).isPresent()) {
+            throw new Rejected("Duplicate Task Title", "A task with this title already exists. Please choose a different title.");
+        }
+    }
+
+    // Parses dd/MM/yyyy, refusing dates the formatter would silently adjust, like 31/02
+    private static LocalDate parseDate(String date, String invalidMessage) {
+        if (date != null) {
+            try {
+                LocalDate parsed = LocalDate.parse(date, Dates.FORMAT);
+                if (parsed.format(Dates.FORMAT).equals(date)) return parsed;
+            } catch (DateTimeParseException e) {
+                // Reported below
+            }
+        }
+        throw new Rejected("Invalid Date", invalidMessage);
+    }
+}
@@ -0,0 +1,132 @@
+package lib.javafx;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Live counters behind the Medialab Assistant summary: tasks per status, category and
+ * priority, and tasks per due date. {@link TaskRepository} updates them on every
+ * mutation, so reading a count never scans the task list.
+ * <p>
+ * Categories and priorities are counted by {@link NameDictionary} id, so a rename needs no
+ * recount; breakdowns resolve the current names when they are read. Statuses are counted
+ * ignoring case, as {@link TaskIndex} files them.
+ * Like {@link TaskIndex}, the counter remembers what each task was counted under, so a
+ * task changed in place is moved with {@link #update(Task)}.
+ */
+public class TaskStatistics {
+
+    /** The breakdown label of tasks without a category or priority. */
+    public static final String UNNAMED = "(none)";
+
+    private record Counted(int categoryId, int priorityId, String status, long dueEpochDay) {}
+
+    private final Map<Task, Counted> counted = new IdentityHashMap<>();
+    private final Map<String, Integer> byStatus = new TreeMap<>(); // By lower-cased status
+    private final Map<Integer, Integer> byCategory = new HashMap<>();
+    private final Map<Integer, Integer> byPriority = new HashMap<>();
+    private final NavigableMap<Long, Integer> byDueDate = new TreeMap<>();
+
+    public void rebuild(Collection<Task> tasks) {
+        counted.clear();
+        byStatus.clear();
+        byCategory.clear();
+        byPriority.clear();
+        byDueDate.clear();
+        tasks.forEach(this::add);
+    }
+
+    public void add(Task task) {
+        Counted c = counted(task);
+        if (counted.put(task, c) != null) return;
+        adjust(c, 1);
+    }
+
+    public void remove(Task task) {
+        Counted c = counted.remove(task);
+        if (c != null) adjust(c, -1);
+    }
+
+    /**
+     * Recounts a task whose fields were changed in place.
+     */
+    public void update(Task task) {
+        Counted previous = counted.get(task);
+        Counted current = counted(task);
+        if (current.equals(previous)) return;
+        if (previous != null) adjust(previous, -1);
+        counted.put(task, current);
+        adjust(current, 1);
+    }
+
+    public int total() {
+        return counted.size();
+    }
+
+    /**
+     * @return the number of tasks with {@code status}, ignoring case
+     */
+    public int countWithStatus(String status) {
+        return byStatus.getOrDefault(normalize(status), 0);
+    }
+
+    /**
+     * @return the number of tasks due from {@code today} to {@code today + days}, both inclusive
+     */
+    public int countDueWithin(long today, int days) {
+        int count = 0;
+        for (int n : byDueDate.subMap(today, true, today + days, true).values()) {
+            count += n;
+        }
+        return count;
+    }
+
+    /**
+     * @return task count per category, sorted by name; tasks without one under {@link #UNNAMED}
+     */
+    public Map<String, Integer> byCategory() {
+        return byName(byCategory, NameDictionary.CATEGORIES);
+    }
+
+    /**
+     * @return task count per priority, sorted by name; tasks without one under {@link #UNNAMED}
+     */
+    public Map<String, Integer> byPriority() {
+        return byName(byPriority, NameDictionary.PRIORITIES);
+    }
+
+    private static Map<String, Integer> byName(Map<Integer, Integer> counts, NameDictionary names) {
+        Map<String, Integer> result = new TreeMap<>();
+        counts.forEach((id, count) -> {
+            String name = names.nameOf(id);
+            result.merge(name == null ? UNNAMED : name, count, Integer::sum);
+        });
+        return result;
+    }
+
+    private static Counted counted(Task task) {
+        return new Counted(task.getCategoryId(), task.getPriorityId(), normalize(task.getStatus()), task.getDueEpochDay());
+    }
+
+    private static String normalize(String status) {
+        return status == null ? "" : status.toLowerCase(Locale.ROOT);
+    }
+
+    private void adjust(Counted c, int delta) {
+        adjust(byStatus, c.status(), delta);
+        adjust(byCategory, c.categoryId(), delta);
+        adjust(byPriority, c.priorityId(), delta);
+        if (c.dueEpochDay() != Dates.NO_DATE) {
+            adjust(byDueDate, c.dueEpochDay(), delta);
+        }
+    }
+
+    private static <K> void adjust(Map<K, Integer> counts, K key, int delta) {
+        counts.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+}
@@ -0,0 +1,69 @@
+package lib.javafx;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Case-insensitive task title lookups, used for the unique-title check and to resolve
+ * titles typed by the user. Like {@link TaskIndex}, it remembers the key each task was
+ * filed under, so renamed tasks are re-filed with {@link #updateTask(Task)}.
+ * Titles that differ only in case share a key; every task filed under it is kept, so the
+ * others are still found once the first is removed.
+ * Reminders are linked by task id and grouped in {@link ReminderIndex}.
+ */
+public class TitleIndex {
+
+    private final Map<String, List<Task>> tasksByTitle = new HashMap<>(); // Immutable lists, in the order filed
+    private final Map<Task, String> taskKeys = new IdentityHashMap<>();
+
+    public void rebuild(Collection<Task> tasks) {
+        tasksByTitle.clear();
+        taskKeys.clear();
+        tasks.forEach(this::addTask);
+    }
+
+    public void addTask(Task task) {
+        String key = key(task.getTitle());
+        taskKeys.put(task, key);
+        tasksByTitle.merge(key, List.of(task), (filed, added) -> {
+            List<Task> all = new ArrayList<>(filed);
+            all.addAll(added);
+            return List.copyOf(all);
+        });
+    }
+
+    public void removeTask(Task task) {
+        String key = taskKeys.remove(task);
+        if (key == null) return;
+        tasksByTitle.computeIfPresent(key, (k, filed) -> {
+            List<Task> rest = new ArrayList<>(filed);
+            rest.removeIf(other -> other == task);
+            return rest.isEmpty() ? null : List.copyOf(rest);
+        });
+    }
+
+    public void updateTask(Task task) {
+        if (key(task.getTitle()).equals(taskKeys.get(task))) return;
+        removeTask(task);
+        addTask(task);
+    }
+
+    /**
+     * @return the task whose title equals {@code title}, ignoring case; the one filed first if
+     *         several do
+     */
+    public Optional<Task> findTask(String title) {
+        List<Task> filed = tasksByTitle.get(key(title));
+        return filed == null ? Optional.empty() : Optional.of(filed.get(0));
+    }
+
+    private static String key(String title) {
+        return title == null ? "" : title.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,243 @@
+package lib.javafx;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Substring search over task titles and descriptions, ignoring case.
+ * <p>
+ * Every run of three characters (trigram) of a task's text points to the tasks containing it.
+ * A query is answered by intersecting the posting lists of its trigrams, smallest first, and
+ * checking the few remaining candidates against the text; queries shorter than three
+ * characters scan the stored texts. Texts are lower-cased once, when a task is indexed.
+ * <p>
+ * Tasks are numbered internally with dense, reused document numbers, so posting lists are
+ * sorted {@code int} arrays. The index keeps each task's indexed text, which is how
+ * {@link #update(Task)} finds the trigrams to move after an edit in place.
+ * <p>
+ * The repository keeps one over the live tasks, for {@link TaskSearch#find}; the search thread
+ * keeps another over its copies ({@link SearchReplica}), which answers the queries typed in the
+ * search bar.
+ */
+public class TrigramIndex {
+
+    private static final char SEPARATOR = '\u0000'; // Between title and description; never in a query
+
+    private final LongMap<Postings> postings = new LongMap<>();
+    private final Map<Task, Integer> docOf = new IdentityHashMap<>();
+    private Task[] docs = new Task[16];
+    private String[] texts = new String[16];
+    private int docLimit; // Every document number in use is below this
+    private int[] freeDocs = new int[16];
+    private int freeCount;
+
+    public void rebuild(Collection<Task> tasks) {
+        postings.clear();
+        docOf.clear();
+        Arrays.fill(docs, null);
+        Arrays.fill(texts, null);
+        docLimit = 0;
+        freeCount = 0;
+        tasks.forEach(this::add);
+    }
+
+    public void add(Task task) {
+        if (docOf.containsKey(task)) return;
+        int doc = freeCount > 0 ? freeDocs[--freeCount] : newDoc();
+        String text = textOf(task);
+        docOf.put(task, doc);
+        docs[doc] = task;
+        texts[doc] = text;
+        forEachTrigram(text, key -> postings.computeIfAbsent(key, k -> new Postings()).add(doc));
+    }
+
+    public void remove(Task task) {
+        Integer doc = docOf.remove(task);
+        if (doc == null) return;
+        unpost(texts[doc], doc);
+        docs[doc] = null;
+        texts[doc] = null;
+        if (freeCount == freeDocs.length) freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+        freeDocs[freeCount++] = doc;
+    }
+
+    /**
+     * Re-indexes a task whose title or description was changed in place.
+     */
+    public void update(Task task) {
+        Integer doc = docOf.get(task);
+        if (doc == null) return;
+        String text = textOf(task);
+        if (text.equals(texts[doc])) return;
+        unpost(texts[doc], doc);
+        texts[doc] = text;
+        forEachTrigram(text, key -> postings.computeIfAbsent(key, k -> new Postings()).add(doc));
+    }
+
+    /**
+     * @return the tasks whose title or description contains {@code query}, ignoring case,
+     *         in no particular order; every task for a blank query
+     */
+    public List<Task> search(String query) {
+        String q = normalize(query);
+        List<Task> found = new ArrayList<>();
+        if (q.length() < 3) {
+            for (int doc = 0; doc < docLimit; doc++) {
+                if (texts[doc] != null && texts[doc].contains(q)) found.add(docs[doc]);
+            }
+            return found;
+        }
+
+        List<Postings> lists = new ArrayList<>();
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            Postings list = postings.get(trigram(q, i));
+            if (list == null) return found; // Some trigram occurs nowhere
+            if (!lists.contains(list)) lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        int[] candidates = Arrays.copyOf(lists.get(0).docs, lists.get(0).size);
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = lists.get(i).retainAll(candidates, count);
+        }
+        for (int i = 0; i < count; i++) {
+            int doc = candidates[i];
+            if (q.length() == 3 || texts[doc].contains(q)) found.add(docs[doc]); // Trigrams match, positions may not
+        }
+        return found;
+    }
+
+    /**
+     * @return true if the task's title or description contains {@code query}, ignoring case
+     */
+    public boolean matches(Task task, String query) {
+        String indexed = indexedText(task);
+        return indexed != null && indexed.contains(normalize(query));
+    }
+
+    /**
+     * @return the task's title and description as indexed, lower-cased, for matching against
+     *         a {@link #normalize normalized} query; null if the task is not indexed
+     */
+    String indexedText(Task task) {
+        Integer doc = docOf.get(task);
+        return doc == null ? null : texts[doc];
+    }
+
+    public int size() {
+        return docOf.size();
+    }
+
+    /**
+     * @return the query as indexed texts are stored: lower-cased; empty for null
+     */
+    static String normalize(String query) {
+        return query == null ? "" : query.toLowerCase(Locale.ROOT);
+    }
+
+    private static String textOf(Task task) {
+        String title = task.getTitle() == null ? "" : task.getTitle();
+        String description = task.getDescription() == null ? "" : task.getDescription();
+        return (title + SEPARATOR + description).toLowerCase(Locale.ROOT);
+    }
+
+    private int newDoc() {
+        if (docLimit == docs.length) {
+            docs = Arrays.copyOf(docs, docLimit * 2);
+            texts = Arrays.copyOf(texts, docLimit * 2);
+        }
+        return docLimit++;
+    }
+
+    private void unpost(String text, int doc) {
+        forEachTrigram(text, key -> {
+            Postings list = postings.get(key);
+            if (list != null && list.remove(doc) && list.size == 0) postings.remove(key);
+        });
+    }
+
+    private interface TrigramConsumer {
+        void accept(long key);
+    }
+
+    private static void forEachTrigram(String text, TrigramConsumer action) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            action.accept(trigram(text, i));
+        }
+    }
+
+    // Three UTF-16 units packed into one key; the marker bit keeps it non-zero for LongMap
+    private static long trigram(String text, int at) {
+        return 1L << 48 | (long) text.charAt(at) << 32 | (long) text.charAt(at + 1) << 16 | text.charAt(at + 2);
+    }
+
+    /**
+     * Sorted document numbers containing one trigram. Documents are mostly added in
+     * increasing order, so adding is usually an append.
+     */
+    private static final class Postings {
+        int[] docs = new int[4];
+        int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] >= doc) {
+                int at = Arrays.binarySearch(docs, 0, size, doc);
+                if (at >= 0) return; // The trigram occurs twice in the text
+                insert(-at - 1, doc);
+            } else {
+                insert(size, doc);
+            }
+        }
+
+        private void insert(int at, int doc) {
+            if (size == docs.length) docs = Arrays.copyOf(docs, size * 2);
+            System.arraycopy(docs, at, docs, at + 1, size - at);
+            docs[at] = doc;
+            size++;
+        }
+
+        boolean remove(int doc) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at < 0) return false;
+            System.arraycopy(docs, at + 1, docs, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Keeps in {@code candidates} (sorted, first {@code count} used) only the documents
+         * also listed here, galloping through this list since it is the longer one.
+         *
+         * @return the number of candidates kept
+         */
+        int retainAll(int[] candidates, int count) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count && from < size; i++) {
+                int doc = candidates[i];
+                int step = 1;
+                int to = from;
+                while (to < size && docs[to] < doc) {
+                    from = to + 1;
+                    to += step;
+                    step <<= 1;
+                }
+                int at = Arrays.binarySearch(docs, from, Math.min(to + 1, size), doc);
+                if (at >= 0) {
+                    candidates[kept++] = doc;
+                    from = at + 1;
+                } else {
+                    from = -at - 1;
+                }
+            }
+            return kept;
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package lib.json;
+
+import lib.javafx.Dates;
+import lib.javafx.Reminder;
+import lib.javafx.Task;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Binary store for tasks and reminders in a single file, {@code medialab/store.bin}.
+ * <p>
+ * Layout (version 2, big-endian):
+ * <pre>
+ * int    magic "TMGR"
+ * short  version
+ * int    dictionary size, then that many strings  (categories, priorities, statuses, reminder types)
+ * int    task count, then per task:
+ *        long id, string title, string description, int category, int priority, date dueDate, int status
+ * int    reminder count, then per reminder:
+ *        long taskId, string taskTitle, date date, string message, int reminderType, date taskDueDate
+ * </pre>
+ * Version 1 files, which have no ids, are still read; their ids come back as 0.
+ * A string is an {@code int} byte length ({@code -1} for null) followed by UTF-8 bytes.
+ * A date is an {@code int} epoch day; dates that are not valid {@code dd/MM/yyyy} values are
+ * written as {@link #RAW_DATE} followed by the original string, so conversion is lossless.
+ * Dictionary references are indexes into the dictionary ({@code -1} for null).
+ * <p>
+ * Loading reads the file into one heap buffer and sets dates by epoch day, so valid dates are
+ * neither parsed nor formatted. The file is not memory-mapped: a mapping stays open until it is
+ * garbage collected, and Windows refuses to replace a mapped file. Writes are coalesced behind
+ * a {@link WriteBehindPersister} and serialize a {@link StoreMirror}, so a change only copies
+ * the records it touched. {@link #main(String[])} converts between this file and the JSON files.
+ */
+public class BinaryTaskStore implements TaskStore {
+
+    private static final String STORE_FILE = JSONHandler.DATA_DIR + "/store.bin";
+    private static final int MAGIC = 0x544D4752; // "TMGR"
+    private static final short VERSION = 2;
+    private static final int RAW_DATE = Integer.MIN_VALUE;
+
+    private static final long WRITE_DEBOUNCE_MILLIS = 300;
+    private static final long WRITE_MAX_STALENESS_MILLIS = 2000;
+
+    /** The full contents of a store file. */
+    public static class Contents {
+        public final List<Task> tasks;
+        public final List<Reminder> reminders;
+
+        public Contents(List<Task> tasks, List<Reminder> reminders) {
+            this.tasks = tasks;
+            this.reminders = reminders;
+        }
+    }
+
+    private final Path file;
+    private final Supplier<List<Task>> taskSnapshot;
+    private final Supplier<List<Reminder>> reminderSnapshot;
+    private final StoreMirror mirror = new StoreMirror();
+    private final WriteBehindPersister<Contents> writer;
+    private Contents loaded;
+
+    /**
+     * @param taskSnapshot     returns the current tasks; called on the mutating thread by full saves
+     * @param reminderSnapshot returns the current reminders; called on the mutating thread by full saves
+     */
+    public BinaryTaskStore(Supplier<List<Task>> taskSnapshot, Supplier<List<Reminder>> reminderSnapshot) {
+        this(Paths.get(STORE_FILE), taskSnapshot, reminderSnapshot);
+    }
+
+    public BinaryTaskStore(Path file, Supplier<List<Task>> taskSnapshot, Supplier<List<Reminder>> reminderSnapshot) {
+        this.file = file;
+        this.taskSnapshot = taskSnapshot;
+        this.reminderSnapshot = reminderSnapshot;
+        this.writer = new WriteBehindPersister<>("binary store", contents -> {
+            try {
+                write(file, contents.tasks, contents.reminders);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, WRITE_DEBOUNCE_MILLIS, WRITE_MAX_STALENESS_MILLIS);
+    }
+
+    @Override
+    public synchronized List<Task> loadTasks() {
+        return ensureLoaded().tasks;
+    }
+
+    @Override
+    public synchronized List<Reminder> loadReminders() {
+        return ensureLoaded().reminders;
+    }
+
+    private Contents ensureLoaded() {
+        if (loaded == null) {
+            try {
+                if (Files.exists(file)) {
+                    loaded = read(file);
+                } else {
+                    System.out.println("No binary store found, importing tasks.json and reminders.json...");
+                    loaded = new Contents(JSONHandler.readTasks(), JSONHandler.readReminders());
+                    write(file, loaded.tasks, loaded.reminders);
+                }
+                mirror.resetTasks(loaded.tasks);
+                mirror.resetReminders(loaded.reminders);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open binary store " + file, e);
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public void tasksChanged(Collection<Task> updated, Collection<Long> removedIds) {
+        mirror.tasksChanged(updated, removedIds);
+        saveAll();
+    }
+
+    @Override
+    public void remindersChanged(Map<Long, List<Reminder>> remindersByTaskId) {
+        mirror.remindersChanged(remindersByTaskId);
+        saveAll();
+    }
+
+    // The copies keep the interned id, so the file only needs writing again with the new name
+    @Override
+    public void categoryRenamed(String oldName, String newName) {
+        saveAll();
+    }
+
+    @Override
+    public void priorityRenamed(String oldName, String newName) {
+        saveAll();
+    }
+
+    @Override
+    public void saveTasks() {
+        mirror.resetTasks(taskSnapshot.get());
+        saveAll();
+    }
+
+    @Override
+    public void saveReminders() {
+        mirror.resetReminders(reminderSnapshot.get());
+        saveAll();
+    }
+
+    @Override
+    public void flush() {
+        writer.flush();
+    }
+
+    private void saveAll() {
+        writer.submit(() -> new Contents(mirror.tasks(), mirror.reminders()));
+    }
+
+    /**
+     * Writes a store file. The file is written next to the target and moved into place.
+     */
+    public static void write(Path target, List<Task> tasks, List<Reminder> reminders) throws IOException {
+        List<String> dictionary = new ArrayList<>();
+        Map<String, Integer> refs = new HashMap<>();
+        for (Task task : tasks) {
+            intern(task.getCategory(), dictionary, refs);
+            intern(task.getPriority(), dictionary, refs);
+            intern(task.getStatus(), dictionary, refs);
+        }
+        for (Reminder reminder : reminders) {
+            intern(reminder.getReminderType(), dictionary, refs);
+        }
+
+        Path parent = target.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = parent.resolve(target.getFileName() + ".tmp");
+        try (OutputStream stream = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+
+            out.writeInt(dictionary.size());
+            for (String entry : dictionary) {
+                writeString(out, entry);
+            }
+
+            out.writeInt(tasks.size());
+            for (Task task : tasks) {
+                out.writeLong(task.getId());
+                writeString(out, task.getTitle());
+                writeString(out, task.getDescription());
+                out.writeInt(ref(task.getCategory(), refs));
+                out.writeInt(ref(task.getPriority(), refs));
+                writeDate(out, task.getDueDate(), task.getDueEpochDay());
+                out.writeInt(ref(task.getStatus(), refs));
+            }
+
+            out.writeInt(reminders.size());
+            for (Reminder reminder : reminders) {
+                out.writeLong(reminder.getTaskId());
+                writeString(out, reminder.getTaskTitle());
+                writeDate(out, reminder.getDate(), reminder.getEpochDay());
+                writeString(out, reminder.getMessage());
+                out.writeInt(ref(reminder.getReminderType(), refs));
+                writeDate(out, reminder.getTaskDueDate(), reminder.getTaskDueEpochDay());
+            }
+        }
+        StoreStats.wrote(Files.size(temp));
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a store file in one read.
+     */
+    public static Contents read(Path source) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(source));
+        if (buffer.remaining() < Integer.BYTES + Short.BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException(source + " is not a task store file");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION && version != 1) {
+            throw new IOException("Unsupported task store version " + version + " in " + source);
+        }
+        try {
+            return read(buffer, version, source);
+        } catch (BufferUnderflowException e) {
+            throw new IOException(source + " is truncated", e);
+        }
+    }
+
+    private static Contents read(ByteBuffer buffer, short version, Path source) throws IOException {
+        String[] dictionary = new String[readCount(buffer, source)];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = readString(buffer);
+        }
+
+        int taskCount = readCount(buffer, source);
+        List<Task> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            Task task = new Task();
+            task.setId(version >= 2 ? buffer.getLong() : 0);
+            task.setTitle(readString(buffer));
+            task.setDescription(readString(buffer));
+            task.setCategory(lookup(dictionary, buffer.getInt(), source));
+            task.setPriority(lookup(dictionary, buffer.getInt(), source));
+            readDate(buffer, task::setDueEpochDay, task::setDueDate);
+            String status = lookup(dictionary, buffer.getInt(), source);
+            if (status != null) task.setStatus(status); // Otherwise the default, "Open"
+            tasks.add(task);
+        }
+
+        int reminderCount = readCount(buffer, source);
+        List<Reminder> reminders = new ArrayList<>(reminderCount);
+        for (int i = 0; i < reminderCount; i++) {
+            Reminder reminder = new Reminder();
+            reminder.setTaskId(version >= 2 ? buffer.getLong() : 0);
+            reminder.setTaskTitle(readString(buffer));
+            readDate(buffer, reminder::setEpochDay, reminder::setDate);
+            reminder.setMessage(readString(buffer));
+            reminder.setReminderType(lookup(dictionary, buffer.getInt(), source));
+            readDate(buffer, reminder::setTaskDueEpochDay, reminder::setTaskDueDate);
+            reminders.add(reminder);
+        }
+        return new Contents(tasks, reminders);
+    }
+
+    /**
+     * Converts between the binary store and the JSON files.
+     * <pre>
+     * import  medialab/*.json  -&gt; medialab/store.bin
+     * export  medialab/store.bin -&gt; medialab/*.json
+     * </pre>
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: BinaryTaskStore import|export");
+            return;
+        }
+        Path storeFile = Paths.get(STORE_FILE);
+        switch (args[0]) {
+            case "import" -> {
+                List<Task> tasks = JSONHandler.readTasks();
+                List<Reminder> reminders = JSONHandler.readReminders();
+                write(storeFile, tasks, reminders);
+                System.out.println("Imported " + tasks.size() + " tasks and " + reminders.size() + " reminders into " + storeFile);
+            }
+            case "export" -> {
+                Contents contents = read(storeFile);
+                JSONHandler.writeTasks(contents.tasks);
+                JSONHandler.writeReminders(contents.reminders);
+                System.out.println("Exported " + contents.tasks.size() + " tasks and " + contents.reminders.size() + " reminders to " + JSONHandler.DATA_DIR + "/");
+            }
+            default -> System.err.println("Unknown command: " + args[0]);
+        }
+    }
+
+    private static void intern(String value, List<String> dictionary, Map<String, Integer> refs) {
+        if (value != null && !refs.containsKey(value)) {
+            refs.put(value, dictionary.size());
+            dictionary.add(value);
+        }
+    }
+
+    private static int ref(String value, Map<String, Integer> refs) {
+        return value == null ? -1 : refs.get(value);
+    }
+
+    private static String lookup(String[] dictionary, int ref, Path source) throws IOException {
+        if (ref == -1) return null;
+        if (ref < 0 || ref >= dictionary.length) {
+            throw new IOException(source + " is corrupt: string " + ref + " is not in its table of " + dictionary.length);
+        }
+        return dictionary[ref];
+    }
+
+    // Every entry takes at least four bytes, so a larger count cannot be right
+    private static int readCount(ByteBuffer buffer, Path source) throws IOException {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / Integer.BYTES) {
+            throw new IOException(source + " is corrupt: it cannot hold " + count + " entries");
+        }
+        return count;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDate(DataOutputStream out, String date, long epochDay) throws IOException {
+        // The models parse their dates when set; only dates that format back to the same string are encoded
+        if (epochDay != Dates.NO_DATE && Dates.format(epochDay).equals(date)) {
+            out.writeInt((int) epochDay);
+            return;
+        }
+        out.writeInt(RAW_DATE);
+        writeString(out, date);
+    }
+
+    // An epoch day is set as is; a raw date goes through the string setter, which parses it
+    private static void readDate(ByteBuffer buffer, LongConsumer byEpochDay, Consumer<String> byString) {
+        int epochDay = buffer.getInt();
+        if (epochDay == RAW_DATE) {
+            byString.accept(readString(buffer));
+        } else {
+            byEpochDay.accept(epochDay);
+        }
+    }
+}
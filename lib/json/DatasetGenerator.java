@@ -0,0 +1,341 @@
+package lib.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lib.javafx.Dates;
+import lib.javafx.Reminder;
+import lib.javafx.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Writes synthetic {@code tasks.json}, {@code reminders.json}, {@code categories.json} and
+ * {@code priorities.json} files, in the format the app reads, for benchmarks and load tests.
+ * <p>
+ * The output depends only on the settings, the seed and the anchor date (today unless set), so
+ * the same command always writes the same files. Tasks are produced one at a time while the
+ * file is written, and reminders by producing the same tasks again, so memory use does not grow
+ * with the number of tasks.
+ * <p>
+ * Skew: categories and priorities follow a Zipf distribution over their listed order (exponent
+ * 0 is uniform); due dates are normally distributed around the anchor; statuses follow the given
+ * weights; the number of reminders per task is Poisson distributed (at most one of each
+ * reminder type); description lengths are exponentially distributed.
+ * <pre>
+ * java lib.json.DatasetGenerator --out &lt;dir&gt; [--tasks 1000000] [--seed 42] ...
+ * </pre>
+ */
+public class DatasetGenerator {
+
+    private static final String[] BASE_CATEGORIES = {"General", "uni", "work", "personal", "health"};
+    private static final String[] BASE_PRIORITIES = {"Default", "high", "medium", "low"};
+    private static final String[] REMINDER_TYPES = {
+            "One day before deadline", "One week before deadline", "One month before deadline", "Custom date"};
+    private static final int[] REMINDER_DAYS_BEFORE = {1, 7, 30, -1}; // -1: a random day before the due date
+    private static final int MAX_DESCRIPTION_WORDS = 200;
+    private static final String[] WORDS = {
+            "review", "report", "meeting", "client", "deploy", "budget", "design", "release", "doctor",
+            "exam", "lecture", "groceries", "invoice", "sprint", "backup", "travel", "gym", "dentist",
+            "presentation", "contract", "refactor", "thesis", "renewal", "inventory", "payroll", "call",
+            "email", "draft", "plan", "prepare", "submit", "update", "schedule", "order", "fix", "clean",
+            "weekly", "quarterly", "project", "team", "family", "car", "insurance", "taxes", "garden",
+            "library", "course", "interview", "workshop", "conference", "notes", "slides", "paper"};
+
+    private long seed = 42;
+    private int tasks = 1_000;
+    private LocalDate anchor = LocalDate.now();
+    private int categories = BASE_CATEGORIES.length;
+    private double categorySkew = 1.0;
+    private int priorities = BASE_PRIORITIES.length;
+    private double prioritySkew = 0.5;
+    private int dueMeanDays = 14;
+    private int dueSpreadDays = 60;
+    private Map<String, Double> statusWeights = parseWeights("Open=45,In Progress=20,Postponed=5,Completed=25,Delayed=5");
+    private double remindersPerTask = 0.5;
+    private double descriptionWords = 12;
+    private boolean pretty = false;
+
+    public DatasetGenerator seed(long seed) { this.seed = seed; return this; }
+
+    public DatasetGenerator tasks(int tasks) { this.tasks = tasks; return this; }
+
+    /** The day due dates are spread around; "today" for the generated data. */
+    public DatasetGenerator anchor(LocalDate anchor) { this.anchor = anchor; return this; }
+
+    public DatasetGenerator categories(int count, double skew) { this.categories = count; this.categorySkew = skew; return this; }
+
+    public DatasetGenerator priorities(int count, double skew) { this.priorities = count; this.prioritySkew = skew; return this; }
+
+    /** Due dates fall {@code meanDays} after the anchor on average, with standard deviation {@code spreadDays}. */
+    public DatasetGenerator dueDates(int meanDays, int spreadDays) { this.dueMeanDays = meanDays; this.dueSpreadDays = spreadDays; return this; }
+
+    /** Relative weight of each status, e.g. {@code Open=45,Completed=25}. */
+    public DatasetGenerator statuses(Map<String, Double> weights) { this.statusWeights = new LinkedHashMap<>(weights); return this; }
+
+    public DatasetGenerator remindersPerTask(double mean) { this.remindersPerTask = mean; return this; }
+
+    public DatasetGenerator descriptionWords(double mean) { this.descriptionWords = mean; return this; }
+
+    public DatasetGenerator pretty(boolean pretty) { this.pretty = pretty; return this; }
+
+    /**
+     * Numbers of records written by {@link #writeTo(File)}.
+     */
+    public record Written(int tasks, int reminders, int categories, int priorities) {}
+
+    /**
+     * Writes the four files into {@code dir}, replacing files of the same name.
+     */
+    public Written writeTo(File dir) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+        List<String> categoryNames = names(BASE_CATEGORIES, categories, "category-");
+        List<String> priorityNames = names(BASE_PRIORITIES, priorities, "priority-");
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.writeValue(new File(dir, "categories.json"), categoryNames);
+        mapper.writeValue(new File(dir, "priorities.json"), priorityNames);
+
+        StreamingJSONCodec.writeTasks(new File(dir, "tasks.json"), () -> new TaskSequence(categoryNames, priorityNames), pretty);
+        int[] reminderCount = {0};
+        StreamingJSONCodec.writeReminders(new File(dir, "reminders.json"), () -> new ReminderSequence(
+                new TaskSequence(categoryNames, priorityNames), reminderCount), pretty);
+        return new Written(tasks, reminderCount[0], categoryNames.size(), priorityNames.size());
+    }
+
+    private static List<String> names(String[] base, int count, String prefix) {
+        List<String> names = new ArrayList<>(Arrays.asList(base).subList(0, Math.min(count, base.length)));
+        for (int i = names.size() + 1; names.size() < count; i++) {
+            names.add(prefix + i);
+        }
+        return names;
+    }
+
+    /**
+     * The tasks, made on demand from their own random stream; iterating twice gives the same tasks.
+     */
+    private final class TaskSequence implements Iterator<Task> {
+        private final SplittableRandom random = new SplittableRandom(seed);
+        private final List<String> categoryNames;
+        private final List<String> priorityNames;
+        private final double[] categoryOdds;
+        private final double[] priorityOdds;
+        private final String[] statusNames;
+        private final double[] statusOdds;
+        private final long anchorDay = anchor.toEpochDay();
+        private int made;
+
+        TaskSequence(List<String> categoryNames, List<String> priorityNames) {
+            this.categoryNames = categoryNames;
+            this.priorityNames = priorityNames;
+            this.categoryOdds = cumulative(zipf(categoryNames.size(), categorySkew));
+            this.priorityOdds = cumulative(zipf(priorityNames.size(), prioritySkew));
+            this.statusNames = statusWeights.keySet().toArray(String[]::new);
+            this.statusOdds = cumulative(statusWeights.values().stream().mapToDouble(Double::doubleValue).toArray());
+        }
+
+        @Override
+        public boolean hasNext() {
+            return made < tasks;
+        }
+
+        @Override
+        public Task next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            long id = ++made;
+            StringBuilder title = new StringBuilder(capitalize(word()));
+            for (int words = 1 + random.nextInt(3); words > 0; words--) {
+                title.append(' ').append(word());
+            }
+            title.append(" #").append(id); // Titles must be unique
+
+            StringBuilder description = new StringBuilder();
+            int descriptionLength = (int) Math.min(MAX_DESCRIPTION_WORDS, Math.round(-descriptionWords * Math.log(1 - random.nextDouble())));
+            for (int i = 0; i < descriptionLength; i++) {
+                if (i > 0) description.append(' ');
+                description.append(word());
+            }
+
+            long due = anchorDay + dueMeanDays + Math.round(gaussian() * dueSpreadDays);
+            Task task = new Task(title.toString(), description.toString(),
+                    categoryNames.get(pick(categoryOdds)), priorityNames.get(pick(priorityOdds)),
+                    Dates.format(due), statusNames[pick(statusOdds)]);
+            task.setId(id);
+            return task;
+        }
+
+        private String word() {
+            return WORDS[random.nextInt(WORDS.length)];
+        }
+
+        private int pick(double[] cumulativeOdds) {
+            int at = Arrays.binarySearch(cumulativeOdds, random.nextDouble());
+            return Math.min(at < 0 ? -at - 1 : at, cumulativeOdds.length - 1);
+        }
+
+        // Box-Muller; one of the pair is dropped so that each task uses a fixed number of draws per field
+        private double gaussian() {
+            double u = 1 - random.nextDouble();
+            return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+        }
+    }
+
+    /**
+     * Reminders of the tasks of a second {@link TaskSequence}, from a random stream of their own.
+     */
+    private final class ReminderSequence implements Iterator<Reminder> {
+        private final SplittableRandom random = new SplittableRandom(seed ^ 0x5DEECE66DL);
+        private final TaskSequence taskSequence;
+        private final int[] count;
+        private final List<Reminder> pending = new ArrayList<>(REMINDER_TYPES.length);
+
+        ReminderSequence(TaskSequence taskSequence, int[] count) {
+            this.taskSequence = taskSequence;
+            this.count = count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (pending.isEmpty() && taskSequence.hasNext()) {
+                addReminders(taskSequence.next());
+            }
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public Reminder next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            count[0]++;
+            return pending.remove(pending.size() - 1);
+        }
+
+        private void addReminders(Task task) {
+            int wanted = Math.min(poisson(remindersPerTask), REMINDER_TYPES.length);
+            int first = random.nextInt(REMINDER_TYPES.length);
+            for (int i = 0; i < wanted; i++) {
+                int type = (first + i) % REMINDER_TYPES.length; // Distinct types: never duplicates
+                int daysBefore = REMINDER_DAYS_BEFORE[type] > 0 ? REMINDER_DAYS_BEFORE[type] : 1 + random.nextInt(60);
+                Reminder reminder = new Reminder(task.getTitle(), Dates.format(task.getDueEpochDay() - daysBefore),
+                        "Reminder for " + task.getTitle(), REMINDER_TYPES[type], task.getDueDate());
+                reminder.setTaskId(task.getId());
+                pending.add(reminder);
+            }
+        }
+
+        // Knuth's method; the means used here are small
+        private int poisson(double mean) {
+            double limit = Math.exp(-mean);
+            double product = random.nextDouble();
+            int n = 0;
+            while (product > limit) {
+                n++;
+                product *= random.nextDouble();
+            }
+            return n;
+        }
+    }
+
+    private static double[] zipf(int count, double exponent) {
+        double[] weights = new double[count];
+        for (int i = 0; i < count; i++) {
+            weights[i] = 1 / Math.pow(i + 1, exponent);
+        }
+        return weights;
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double total = Arrays.stream(weights).sum();
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum / total;
+        }
+        return cumulative;
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static Map<String, Double> parseWeights(String spec) {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) throw new IllegalArgumentException("Expected name=weight: " + entry);
+            weights.put(parts[0].trim(), Double.parseDouble(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    private static final String USAGE = """
+            Usage: DatasetGenerator --out <dir> [options]
+              --tasks N                   number of tasks (default 1000)
+              --seed N                    random seed (default 42)
+              --anchor dd/MM/yyyy         day the due dates are spread around (default today)
+              --categories N[:SKEW]       category count and Zipf exponent (default 5:1.0)
+              --priorities N[:SKEW]       priority count and Zipf exponent (default 4:0.5)
+              --due MEAN:SPREAD           due date mean and standard deviation in days from the anchor (default 14:60)
+              --statuses NAME=W,...       status weights (default Open=45,In Progress=20,Postponed=5,Completed=25,Delayed=5)
+              --reminders-per-task MEAN   Poisson mean, at most 4 per task (default 0.5)
+              --description-words MEAN    exponential mean, at most 200 (default 12)
+              --pretty                    indented JSON
+              --force                     replace existing files in <dir>""";
+
+    public static void main(String[] args) throws IOException {
+        DatasetGenerator generator = new DatasetGenerator();
+        File out = null;
+        boolean force = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                switch (option) {
+                    case "--pretty" -> generator.pretty(true);
+                    case "--force" -> force = true;
+                    default -> {
+                        if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + option);
+                        String value = args[++i];
+                        String[] pair = value.split(":");
+                        switch (option) {
+                            case "--out" -> out = new File(value);
+                            case "--tasks" -> generator.tasks(Integer.parseInt(value));
+                            case "--seed" -> generator.seed(Long.parseLong(value));
+                            case "--anchor" -> generator.anchor(LocalDate.parse(value, Dates.FORMAT));
+                            case "--categories" -> generator.categories(Integer.parseInt(pair[0]),
+                                    pair.length > 1 ? Double.parseDouble(pair[1]) : generator.categorySkew);
+                            case "--priorities" -> generator.priorities(Integer.parseInt(pair[0]),
+                                    pair.length > 1 ? Double.parseDouble(pair[1]) : generator.prioritySkew);
+                            case "--due" -> generator.dueDates(Integer.parseInt(pair[0]), Integer.parseInt(pair[1]));
+                            case "--statuses" -> generator.statuses(parseWeights(value));
+                            case "--reminders-per-task" -> generator.remindersPerTask(Double.parseDouble(value));
+                            case "--description-words" -> generator.descriptionWords(Double.parseDouble(value));
+                            default -> throw new IllegalArgumentException("Unknown option " + option);
+                        }
+                    }
+                }
+            }
+            if (out == null) throw new IllegalArgumentException("--out is required");
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return;
+        }
+        if (!force && new File(out, "tasks.json").exists()) {
+            System.err.println(new File(out, "tasks.json") + " exists; use --force to replace it");
+            return;
+        }
+
+        long started = System.nanoTime();
+        Written written = generator.writeTo(out);
+        System.out.printf("✅ Wrote %d tasks, %d reminders, %d categories and %d priorities to %s in %d ms (seed %d, anchor %s)%n",
+                written.tasks(), written.reminders(), written.categories(), written.priorities(), out,
+                (System.nanoTime() - started) / 1_000_000, generator.seed, generator.anchor.format(Dates.FORMAT));
+    }
+}
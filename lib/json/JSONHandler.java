@@ -1,28 +1,29 @@
 package lib.json;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lib.javafx.Reminder;
 import lib.javafx.Task;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 
 public class JSONHandler {
 
-    private static final String FILE_PATH = "medialab/tasks.json"; 
-    private static final String REMINDERS_FILE = "medialab/reminders.json";
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    // Every store keeps its files here; -Dtaskmanager.dir points the app, benchmarks or tools elsewhere
+    public static final String DATA_DIR = System.getProperty("taskmanager.dir", "medialab");
+    private static final String FILE_PATH = DATA_DIR + "/tasks.json";
+    private static final String REMINDERS_FILE = DATA_DIR + "/reminders.json";
+    // Indented output by default; start with -Dtaskmanager.json.pretty=false for compact production files
+    private static final boolean PRETTY = Boolean.parseBoolean(System.getProperty("taskmanager.json.pretty", "true"));
 
     public static List<Task> readTasks() {
         try {
             File file = new File(FILE_PATH);
             if (!file.exists()) return new ArrayList<>();
-            return objectMapper.readValue(file, new TypeReference<List<Task>>() {});
+            List<Task> tasks = new ArrayList<>();
+            StreamingJSONCodec.forEachTask(file, tasks::add);
+            return tasks;
         } catch (IOException e) {
             e.printStackTrace();
             return new ArrayList<>();
@@ -31,7 +32,7 @@ public class JSONHandler {
 
     public static void writeTasks(List<Task> tasks) {
         try {
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(FILE_PATH), tasks);
+            StreamingJSONCodec.writeTasks(new File(FILE_PATH), tasks, PRETTY);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -46,8 +47,8 @@ public class JSONHandler {
                 return new ArrayList<>();
             }
     
-            List<Reminder> reminders = objectMapper.readValue(file, new TypeReference<List<Reminder>>() {});
-            System.out.println("Loaded Reminders from JSON: " + reminders.size());
+            List<Reminder> reminders = new ArrayList<>();
+            StreamingJSONCodec.forEachReminder(file, reminders::add); // Counted in the json.read metrics
             return reminders;
     
         } catch (IOException e) {
@@ -58,11 +59,7 @@ public class JSONHandler {
     public static void writeReminders(List<Reminder> reminders) {
         try {
             File file = new File(REMINDERS_FILE);
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, reminders);
-    
-            System.out.println("✅ Successfully saved reminders to JSON! Total reminders: " + reminders.size());
-            List<Reminder> reloadedReminders = readReminders();
-            System.out.println(" Final Reminders in JSON after writing: " + reloadedReminders);
+            StreamingJSONCodec.writeReminders(file, reminders, PRETTY); // Counted in the json.write metrics
         } catch (IOException e) {
             System.err.println("Error writing reminders: " + e.getMessage());
         }
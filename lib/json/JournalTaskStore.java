@@ -0,0 +1,409 @@
+package lib.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lib.javafx.Reminder;
+import lib.javafx.Task;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only store: every change is appended as a small JSON line to
+ * {@code medialab/journal/journal-<generation>.log}, and the journal is periodically
+ * compacted into {@code medialab/journal/snapshot.json} on a background thread.
+ * <p>
+ * Tasks are keyed by id and reminders are grouped per task id, so a record either
+ * replaces one task, deletes one task, replaces the reminders of one task, or renames a
+ * category or priority for every task that uses it. A full save appends records only for
+ * what differs from the store's {@link StoreMirror}, and compactions write the mirror.
+ * <p>
+ * Records and snapshots written before tasks had ids are keyed by title instead (reminder
+ * groups ignoring case) and still replay; the repository assigns ids and saves in full, which
+ * for them is a compaction. All records are idempotent, which makes replaying a segment that
+ * was already folded into the snapshot harmless. On the first start the existing
+ * {@link JSONHandler} files are imported.
+ */
+public class JournalTaskStore implements TaskStore {
+
+    private static final String JOURNAL_DIR = JSONHandler.DATA_DIR + "/journal";
+    private static final String SNAPSHOT_FILE = "snapshot.json";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("journal-(\\d+)\\.log");
+    private static final int COMPACT_AFTER_RECORDS = 1000;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Path directory;
+    private final Supplier<List<Task>> taskSnapshot;
+    private final Supplier<List<Reminder>> reminderSnapshot;
+    private final StoreMirror mirror = new StoreMirror();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, Task> loadedTasks = new LinkedHashMap<>();
+    private final Map<String, List<Reminder>> loadedReminders = new LinkedHashMap<>();
+    private boolean loaded = false;
+
+    private long generation;
+    private BufferedWriter journal;
+    private int recordsSinceSnapshot;
+
+    /** A snapshot of the whole store, valid up to (excluding) segment {@code generation}. */
+    public static class Snapshot {
+        public long generation;
+        public List<Task> tasks = new ArrayList<>();
+        public List<Reminder> reminders = new ArrayList<>();
+    }
+
+    /** One journal line. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Record {
+        public static final String PUT_TASK = "putTask";
+        public static final String DELETE_TASK = "deleteTask";
+        public static final String PUT_REMINDERS = "putReminders";
+        public static final String RENAME_CATEGORY = "renameCategory";
+        public static final String RENAME_PRIORITY = "renamePriority";
+
+        public String op;
+        @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+        public long id;
+        public String key; // Task title, in records written before tasks had ids
+        public Task task;
+        public List<Reminder> reminders;
+        public String oldName; // Rename records
+        public String newName;
+
+        public Record() {}
+
+        Record(String op, long id, Task task, List<Reminder> reminders) {
+            this.op = op;
+            this.id = id;
+            this.task = task;
+            this.reminders = reminders;
+        }
+    }
+
+    /**
+     * @param taskSnapshot     returns the current tasks; called on the mutating thread by full saves
+     * @param reminderSnapshot returns the current reminders; called on the mutating thread by full saves
+     */
+    public JournalTaskStore(Supplier<List<Task>> taskSnapshot, Supplier<List<Reminder>> reminderSnapshot) {
+        this(Paths.get(JOURNAL_DIR), taskSnapshot, reminderSnapshot);
+    }
+
+    public JournalTaskStore(Path directory, Supplier<List<Task>> taskSnapshot, Supplier<List<Reminder>> reminderSnapshot) {
+        this.directory = directory;
+        this.taskSnapshot = taskSnapshot;
+        this.reminderSnapshot = reminderSnapshot;
+    }
+
+    @Override
+    public synchronized List<Task> loadTasks() {
+        ensureLoaded();
+        List<Task> tasks = new ArrayList<>(loadedTasks.values());
+        loadedTasks.clear(); // Only needed once; the repository owns the state from here on
+        mirror.resetTasks(tasks);
+        return tasks;
+    }
+
+    @Override
+    public synchronized List<Reminder> loadReminders() {
+        ensureLoaded();
+        List<Reminder> reminders = new ArrayList<>();
+        loadedReminders.values().forEach(reminders::addAll);
+        loadedReminders.clear();
+        mirror.resetReminders(reminders);
+        return reminders;
+    }
+
+    @Override
+    public synchronized void tasksChanged(Collection<Task> updated, Collection<Long> removedIds) {
+        ensureLoaded();
+        mirror.tasksChanged(updated, removedIds);
+        for (long id : removedIds) {
+            append(new Record(Record.DELETE_TASK, id, null, null));
+        }
+        for (Task task : updated) {
+            append(new Record(Record.PUT_TASK, task.getId(), task, null));
+        }
+        endCommit();
+    }
+
+    @Override
+    public synchronized void remindersChanged(Map<Long, List<Reminder>> remindersByTaskId) {
+        ensureLoaded();
+        mirror.remindersChanged(remindersByTaskId);
+        remindersByTaskId.forEach((taskId, reminders) ->
+                append(new Record(Record.PUT_REMINDERS, taskId, null, reminders)));
+        endCommit();
+    }
+
+    @Override
+    public synchronized void categoryRenamed(String oldName, String newName) {
+        rename(Record.RENAME_CATEGORY, oldName, newName);
+    }
+
+    @Override
+    public synchronized void priorityRenamed(String oldName, String newName) {
+        rename(Record.RENAME_PRIORITY, oldName, newName);
+    }
+
+    private void rename(String op, String oldName, String newName) {
+        ensureLoaded();
+        Record record = new Record(op, 0, null, null);
+        record.oldName = oldName;
+        record.newName = newName;
+        append(record);
+        endCommit();
+    }
+
+    @Override
+    public synchronized void saveTasks() {
+        ensureLoaded();
+        List<Task> tasks = taskSnapshot.get();
+        if (mirror.containsTask(0)) {
+            // Tasks loaded without ids are keyed by title in the journal; a snapshot replaces those keys
+            mirror.resetTasks(tasks);
+            compact();
+            return;
+        }
+        StoreMirror.TaskChanges changes = mirror.diffTasks(tasks);
+        tasksChanged(changes.updated(), changes.removedIds());
+    }
+
+    @Override
+    public synchronized void saveReminders() {
+        ensureLoaded();
+        List<Reminder> reminders = reminderSnapshot.get();
+        Map<Long, List<Reminder>> changed = mirror.diffReminders(reminders);
+        if (changed.containsKey(0L)) {
+            // Reminders of no task are grouped by title in the journal, which a group record cannot address
+            mirror.resetReminders(reminders);
+            compact();
+            return;
+        }
+        remindersChanged(changed);
+    }
+
+    @Override
+    public void flush() {
+        synchronized (this) {
+            if (journal != null) {
+                try {
+                    journal.flush();
+                } catch (IOException e) {
+                    System.err.println("Error flushing journal: " + e.getMessage());
+                }
+            }
+        }
+        try {
+            compactor.submit(() -> { }).get(); // Wait for any queued compaction
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Error waiting for journal compaction: " + e.getMessage());
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        try {
+            Files.createDirectories(directory);
+            Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+            List<Long> segments = listSegments();
+
+            if (!Files.exists(snapshotFile) && segments.isEmpty()) {
+                importFromJSONHandler();
+            } else {
+                Snapshot snapshot = Files.exists(snapshotFile)
+                        ? objectMapper.readValue(snapshotFile.toFile(), Snapshot.class)
+                        : new Snapshot();
+                putLoaded(snapshot);
+                generation = snapshot.generation;
+
+                for (long segment : segments) {
+                    if (segment >= snapshot.generation) {
+                        replay(segmentPath(segment));
+                        generation = Math.max(generation, segment);
+                    }
+                }
+            }
+
+            journal = Files.newBufferedWriter(segmentPath(generation), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            loaded = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open journal store in " + directory, e);
+        }
+    }
+
+    private void importFromJSONHandler() throws IOException {
+        Snapshot snapshot = new Snapshot();
+        snapshot.tasks = JSONHandler.readTasks();
+        snapshot.reminders = JSONHandler.readReminders();
+        putLoaded(snapshot);
+        writeSnapshot(snapshot);
+        generation = 0;
+    }
+
+    // Tasks without an id are keyed by title, so that records written before ids replay onto them;
+    // a later task with the same title is keyed by its position instead of replacing the first
+    private void putLoaded(Snapshot snapshot) {
+        for (int position = 0; position < snapshot.tasks.size(); position++) {
+            Task task = snapshot.tasks.get(position);
+            String key = taskKey(task.getId(), task.getTitle());
+            if (task.getId() == 0 && loadedTasks.containsKey(key)) key = "position:" + position;
+            loadedTasks.put(key, task);
+        }
+        snapshot.reminders.forEach(reminder -> loadedReminders.computeIfAbsent(
+                groupKey(reminder.getTaskId(), reminder.getTaskTitle()), t -> new ArrayList<>()).add(reminder));
+    }
+
+    private void replay(Path segment) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                Record record;
+                try {
+                    record = objectMapper.readValue(line, Record.class);
+                } catch (IOException e) {
+                    // A torn last line from a crash; everything before it is intact
+                    System.err.println("Skipping unreadable journal record in " + segment.getFileName());
+                    continue;
+                }
+                switch (record.op) {
+                    case Record.PUT_TASK -> loadedTasks.put(taskKey(record.id, record.key), record.task);
+                    case Record.DELETE_TASK -> loadedTasks.remove(taskKey(record.id, record.key));
+                    case Record.PUT_REMINDERS -> {
+                        if (record.reminders == null || record.reminders.isEmpty()) {
+                            loadedReminders.remove(groupKey(record.id, record.key));
+                        } else {
+                            loadedReminders.put(groupKey(record.id, record.key), new ArrayList<>(record.reminders));
+                        }
+                    }
+                    case Record.RENAME_CATEGORY -> loadedTasks.values().stream()
+                            .filter(task -> Objects.equals(task.getCategory(), record.oldName))
+                            .forEach(task -> task.setCategory(record.newName));
+                    case Record.RENAME_PRIORITY -> loadedTasks.values().stream()
+                            .filter(task -> Objects.equals(task.getPriority(), record.oldName))
+                            .forEach(task -> task.setPriority(record.newName));
+                    default -> System.err.println("Unknown journal operation: " + record.op);
+                }
+            }
+        }
+    }
+
+    private void append(Record record) {
+        try {
+            String line = objectMapper.writeValueAsString(record);
+            journal.write(line);
+            journal.newLine();
+            StoreStats.wrote(line.getBytes(StandardCharsets.UTF_8).length + 1);
+            recordsSinceSnapshot++;
+        } catch (IOException e) {
+            System.err.println("Error appending to journal: " + e.getMessage());
+        }
+    }
+
+    private void endCommit() {
+        try {
+            journal.flush();
+        } catch (IOException e) {
+            System.err.println("Error flushing journal: " + e.getMessage());
+        }
+        if (recordsSinceSnapshot >= COMPACT_AFTER_RECORDS) {
+            compact();
+        }
+    }
+
+    /**
+     * Starts a new journal segment and writes a snapshot of the mirror in the background.
+     * The snapshot covers every segment before the new one, which is deleted once it is on disk.
+     */
+    private void compact() {
+        Snapshot snapshot = new Snapshot();
+        snapshot.tasks = mirror.tasks();
+        snapshot.reminders = mirror.reminders();
+        try {
+            journal.close();
+            generation++;
+            snapshot.generation = generation;
+            journal = Files.newBufferedWriter(segmentPath(generation), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            recordsSinceSnapshot = 0;
+        } catch (IOException e) {
+            System.err.println("Error rotating journal: " + e.getMessage());
+            return;
+        }
+
+        compactor.submit(() -> {
+            try {
+                writeSnapshot(snapshot);
+                for (long segment : listSegments()) {
+                    if (segment < snapshot.generation) {
+                        Files.deleteIfExists(segmentPath(segment));
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error compacting journal: " + e.getMessage());
+            }
+        });
+    }
+
+    private void writeSnapshot(Snapshot snapshot) throws IOException {
+        Path target = directory.resolve(SNAPSHOT_FILE);
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        objectMapper.writeValue(temp.toFile(), snapshot);
+        StoreStats.wrote(Files.size(temp));
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> SEGMENT_NAME.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static String taskKey(long id, String title) {
+        return id != 0 ? "id:" + id : "title:" + title;
+    }
+
+    private static String groupKey(long taskId, String taskTitle) {
+        if (taskId != 0) return "id:" + taskId;
+        return "title:" + (taskTitle == null ? "" : taskTitle.toLowerCase(Locale.ROOT));
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve("journal-" + segment + ".log");
+    }
+}
@@ -0,0 +1,92 @@
+package lib.json;
+
+import lib.javafx.Reminder;
+import lib.javafx.Task;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Default store: the whole {@code medialab/tasks.json} and {@code medialab/reminders.json}
+ * files are rewritten on every change, behind a {@link WriteBehindPersister}. The writes
+ * serialize a {@link StoreMirror}, so a change only copies the records it touched.
+ */
+public class JsonTaskStore implements TaskStore {
+
+    private static final long WRITE_DEBOUNCE_MILLIS = 300;
+    private static final long WRITE_MAX_STALENESS_MILLIS = 2000;
+
+    private final Supplier<List<Task>> taskSnapshot;
+    private final Supplier<List<Reminder>> reminderSnapshot;
+    private final StoreMirror mirror = new StoreMirror();
+    private final WriteBehindPersister<List<Task>> taskWriter =
+            new WriteBehindPersister<>("tasks", JSONHandler::writeTasks, WRITE_DEBOUNCE_MILLIS, WRITE_MAX_STALENESS_MILLIS);
+    private final WriteBehindPersister<List<Reminder>> reminderWriter =
+            new WriteBehindPersister<>("reminders", JSONHandler::writeReminders, WRITE_DEBOUNCE_MILLIS, WRITE_MAX_STALENESS_MILLIS);
+
+    /**
+     * @param taskSnapshot     returns the current tasks; called on the mutating thread by full saves
+     * @param reminderSnapshot returns the current reminders; called on the mutating thread by full saves
+     */
+    public JsonTaskStore(Supplier<List<Task>> taskSnapshot, Supplier<List<Reminder>> reminderSnapshot) {
+        this.taskSnapshot = taskSnapshot;
+        this.reminderSnapshot = reminderSnapshot;
+    }
+
+    @Override
+    public List<Task> loadTasks() {
+        List<Task> tasks = JSONHandler.readTasks();
+        mirror.resetTasks(tasks);
+        return tasks;
+    }
+
+    @Override
+    public List<Reminder> loadReminders() {
+        List<Reminder> reminders = JSONHandler.readReminders();
+        mirror.resetReminders(reminders);
+        return reminders;
+    }
+
+    @Override
+    public void tasksChanged(Collection<Task> updated, Collection<Long> removedIds) {
+        mirror.tasksChanged(updated, removedIds);
+        taskWriter.submit(mirror::tasks);
+    }
+
+    @Override
+    public void remindersChanged(Map<Long, List<Reminder>> remindersByTaskId) {
+        mirror.remindersChanged(remindersByTaskId);
+        reminderWriter.submit(mirror::reminders);
+    }
+
+    // The copies keep the interned id, so the file only needs writing again with the new name
+    @Override
+    public void categoryRenamed(String oldName, String newName) {
+        taskWriter.submit(mirror::tasks);
+    }
+
+    @Override
+    public void priorityRenamed(String oldName, String newName) {
+        taskWriter.submit(mirror::tasks);
+    }
+
+    @Override
+    public void saveTasks() {
+        mirror.resetTasks(taskSnapshot.get());
+        taskWriter.submit(mirror::tasks);
+    }
+
+    @Override
+    public void saveReminders() {
+        mirror.resetReminders(reminderSnapshot.get());
+        reminderWriter.submit(mirror::reminders);
+    }
+
+    @Override
+    public void flush() {
+        taskWriter.flush();
+        reminderWriter.flush();
+    }
+}
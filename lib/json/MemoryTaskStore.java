@@ -0,0 +1,54 @@
+package lib.json;
+
+import lib.javafx.Reminder;
+import lib.javafx.Task;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the {@link JSONHandler} files once and never writes: every change lives in memory
+ * only. For benchmarks and load tests of the in-memory paths, which must not be measured
+ * together with background file writes.
+ */
+public class MemoryTaskStore implements TaskStore {
+
+    @Override
+    public List<Task> loadTasks() {
+        return JSONHandler.readTasks();
+    }
+
+    @Override
+    public List<Reminder> loadReminders() {
+        return JSONHandler.readReminders();
+    }
+
+    @Override
+    public void tasksChanged(Collection<Task> updated, Collection<Long> removedIds) {
+    }
+
+    @Override
+    public void remindersChanged(Map<Long, List<Reminder>> remindersByTaskId) {
+    }
+
+    @Override
+    public void categoryRenamed(String oldName, String newName) {
+    }
+
+    @Override
+    public void priorityRenamed(String oldName, String newName) {
+    }
+
+    @Override
+    public void saveTasks() {
+    }
+
+    @Override
+    public void saveReminders() {
+    }
+
+    @Override
+    public void flush() {
+    }
+}
@@ -0,0 +1,146 @@
+package lib.json;
+
+import lib.javafx.Reminder;
+import lib.javafx.Task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A store's own copy of every task and reminder, for stores that write them out whole on a
+ * background thread. The repository edits its records in place; the mirror copies only the
+ * records a change reports, on the thread that made it, so a write never sees a task half
+ * edited and a change costs what it touched rather than the whole list. The copies keep the
+ * interned category and priority ids, whose names {@link lib.javafx.NameDictionary} lets any
+ * thread read. Being the state last persisted, the mirror also tells a full save what changed.
+ */
+final class StoreMirror {
+
+    private final Map<Long, Task> tasks = new LinkedHashMap<>();                // By id, in repository order
+    private final Map<Long, List<Reminder>> reminders = new LinkedHashMap<>();  // By task id; 0 if not linked
+
+    /**
+     * What a full save changes: the tasks that differ from their copy or have none, and the
+     * ids of copies whose task is gone.
+     */
+    record TaskChanges(List<Task> updated, List<Long> removedIds) {}
+
+    /**
+     * Replaces every task, e.g. when the store is loaded or saved in full.
+     */
+    synchronized void resetTasks(Collection<Task> all) {
+        tasks.clear();
+        all.forEach(task -> tasks.put(task.getId(), new Task(task)));
+    }
+
+    /**
+     * Replaces every reminder.
+     */
+    synchronized void resetReminders(Collection<Reminder> all) {
+        reminders.clear();
+        all.forEach(reminder -> reminders.computeIfAbsent(reminder.getTaskId(), id -> new ArrayList<>())
+                .add(new Reminder(reminder)));
+    }
+
+    synchronized void tasksChanged(Collection<Task> updated, Collection<Long> removedIds) {
+        removedIds.forEach(tasks::remove);
+        updated.forEach(task -> tasks.put(task.getId(), new Task(task)));
+    }
+
+    synchronized void remindersChanged(Map<Long, List<Reminder>> remindersByTaskId) {
+        remindersByTaskId.forEach((taskId, group) -> {
+            if (group.isEmpty()) {
+                reminders.remove(taskId);
+            } else {
+                reminders.put(taskId, group.stream().map(Reminder::new).toList());
+            }
+        });
+    }
+
+    synchronized boolean containsTask(long id) {
+        return tasks.containsKey(id);
+    }
+
+    /**
+     * Compares the repository's tasks with the copies, field by field, without changing them.
+     */
+    synchronized TaskChanges diffTasks(Collection<Task> current) {
+        Set<Long> gone = new HashSet<>(tasks.keySet());
+        List<Task> updated = new ArrayList<>();
+        for (Task task : current) {
+            gone.remove(task.getId());
+            Task copy = tasks.get(task.getId());
+            if (copy == null || !sameTask(copy, task)) updated.add(task);
+        }
+        return new TaskChanges(updated, new ArrayList<>(gone));
+    }
+
+    /**
+     * Compares the repository's reminders with the copies, group by group, without changing them.
+     *
+     * @return the current group of every task whose reminders differ, and an empty group for
+     *         every task that no longer has any
+     */
+    synchronized Map<Long, List<Reminder>> diffReminders(Collection<Reminder> current) {
+        Map<Long, List<Reminder>> groups = new LinkedHashMap<>();
+        current.forEach(reminder -> groups.computeIfAbsent(reminder.getTaskId(), id -> new ArrayList<>()).add(reminder));
+        Map<Long, List<Reminder>> changed = new LinkedHashMap<>();
+        groups.forEach((taskId, group) -> {
+            if (!sameGroup(reminders.get(taskId), group)) changed.put(taskId, group);
+        });
+        reminders.keySet().forEach(taskId -> {
+            if (!groups.containsKey(taskId)) changed.put(taskId, List.of());
+        });
+        return changed;
+    }
+
+    /**
+     * @return the tasks, for a write on any thread; the copies must not be modified
+     */
+    synchronized List<Task> tasks() {
+        return new ArrayList<>(tasks.values());
+    }
+
+    /**
+     * @return the reminders, grouped by task; the copies must not be modified
+     */
+    synchronized List<Reminder> reminders() {
+        List<Reminder> all = new ArrayList<>();
+        reminders.values().forEach(all::addAll);
+        return all;
+    }
+
+    private static boolean sameTask(Task a, Task b) {
+        return a.getId() == b.getId()
+                && Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getDescription(), b.getDescription())
+                && a.getCategoryId() == b.getCategoryId()
+                && a.getPriorityId() == b.getPriorityId()
+                && Objects.equals(a.getDueDate(), b.getDueDate())
+                && Objects.equals(a.getStatus(), b.getStatus());
+    }
+
+    // Reminder.equals leaves out the title of linked reminders and the task's due date, which the files keep
+    private static boolean sameGroup(List<Reminder> copies, List<Reminder> group) {
+        if (copies == null || copies.size() != group.size()) return false;
+        for (int i = 0; i < group.size(); i++) {
+            Reminder a = copies.get(i);
+            Reminder b = group.get(i);
+            if (!(a.getTaskId() == b.getTaskId()
+                    && Objects.equals(a.getTaskTitle(), b.getTaskTitle())
+                    && Objects.equals(a.getDate(), b.getDate())
+                    && Objects.equals(a.getMessage(), b.getMessage())
+                    && Objects.equals(a.getReminderType(), b.getReminderType())
+                    && Objects.equals(a.getTaskDueDate(), b.getTaskDueDate()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
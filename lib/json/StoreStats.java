@@ -0,0 +1,31 @@
+package lib.json;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts what the stores write to disk, for load tests and the metrics of the running app.
+ * Whole-file rewrites count the size of the new file; journal appends count each record.
+ */
+public final class StoreStats {
+
+    private static final LongAdder bytesWritten = new LongAdder();
+    private static final LongAdder writes = new LongAdder();
+
+    private StoreStats() {}
+
+    /**
+     * Records one write of {@code bytes} bytes.
+     */
+    public static void wrote(long bytes) {
+        bytesWritten.add(bytes);
+        writes.increment();
+    }
+
+    public static long bytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    public static long writes() {
+        return writes.sum();
+    }
+}
@@ -0,0 +1,225 @@
+package lib.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lib.javafx.Reminder;
+import lib.javafx.Task;
+import lib.metrics.LatencyHistogram;
+import lib.metrics.Metrics;
+import lib.metrics.TaskEvents;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Record-by-record reader and writer for the JSON array files in {@code medialab/}.
+ * Only one {@link Task} or {@link Reminder} is materialized at a time, so large files
+ * can be scanned or filtered without holding the whole array in memory.
+ */
+public class StreamingJSONCodec {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private static final LatencyHistogram readTime = Metrics.histogram("json.read");
+    private static final LatencyHistogram writeTime = Metrics.histogram("json.write");
+    private static final LongAdder bytesRead = Metrics.counter("json.read.bytes");
+    private static final LongAdder bytesWritten = Metrics.counter("json.write.bytes");
+    private static final LongAdder recordsRead = Metrics.counter("json.read.records");
+    private static final LongAdder recordsWritten = Metrics.counter("json.write.records");
+
+    /**
+     * Iterates over the object elements of a JSON array file. Any other element, such as a
+     * {@code null}, is skipped and reported on standard error. Must be closed when not read to
+     * the end.
+     *
+     * @param <T> the element type
+     */
+    public static class RecordIterator<T> implements Iterator<T>, Closeable {
+        private final JsonParser parser;
+        private final ObjectReader reader;
+        private final String source;
+        private JsonToken next;
+        private int position; // Index of the next element in the array
+
+        private RecordIterator(JsonParser parser, Class<T> type, String source) throws IOException {
+            this.reader = objectMapper.readerFor(type);
+            this.parser = parser;
+            this.source = source;
+            JsonToken start = parser.nextToken();
+            if (start == null) {
+                next = null; // Empty input
+            } else if (start != JsonToken.START_ARRAY) {
+                parser.close();
+                throw new IOException("Expected a JSON array but found " + start + " in " + source);
+            } else {
+                next = parser.nextToken();
+                skipNonObjects();
+            }
+        }
+
+        private void skipNonObjects() throws IOException {
+            while (next != null && next != JsonToken.START_OBJECT && next != JsonToken.END_ARRAY) {
+                System.err.println("Skipping element " + position + " of " + source + " (line "
+                        + parser.currentLocation().getLineNr() + "): expected an object but found " + next);
+                parser.skipChildren(); // A nested array as a whole
+                next = parser.nextToken();
+                position++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean more = next == JsonToken.START_OBJECT;
+            if (!more) {
+                close();
+            }
+            return more;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            try {
+                T value = reader.readValue(parser);
+                next = parser.nextToken();
+                position++;
+                skipNonObjects();
+                return value;
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                System.err.println("Error closing JSON parser: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Opens an iterator over a JSON array file. A missing file yields no elements.
+     */
+    public static <T> RecordIterator<T> iterate(File file, Class<T> type) throws IOException {
+        if (!file.exists() || file.length() == 0) {
+            return new RecordIterator<>(objectMapper.getFactory().createParser("[]"), type, file.getPath());
+        }
+        return new RecordIterator<>(objectMapper.getFactory().createParser(file), type, file.getPath());
+    }
+
+    /**
+     * Passes every element of a JSON array file to {@code consumer}, one at a time.
+     */
+    public static <T> void forEach(File file, Class<T> type, Consumer<? super T> consumer) throws IOException {
+        TaskEvents.JsonRead event = new TaskEvents.JsonRead();
+        event.begin();
+        long started = System.nanoTime();
+        long count = 0;
+        try (RecordIterator<T> records = iterate(file, type)) {
+            while (records.hasNext()) {
+                consumer.accept(records.next());
+                count++;
+            }
+        }
+        readTime.recordSince(started); // Includes the consumer, which builds the app's lists as it goes
+        bytesRead.add(file.length());
+        recordsRead.add(count);
+        if (event.shouldCommit()) {
+            event.file = file.getPath();
+            event.records = count;
+            event.bytes = file.length();
+            event.commit();
+        }
+    }
+
+    /**
+     * Reads only the elements accepted by {@code filter}.
+     */
+    public static <T> List<T> read(File file, Class<T> type, Predicate<? super T> filter) throws IOException {
+        List<T> result = new ArrayList<>();
+        forEach(file, type, value -> {
+            if (filter.test(value)) {
+                result.add(value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Writes the elements as a JSON array, one record at a time. The array is written next to
+     * {@code file} and moved into place, so a crash while writing leaves the previous file intact.
+     *
+     * @param pretty {@code true} for indented output, {@code false} for compact output
+     */
+    public static <T> void write(File file, Iterable<? extends T> records, Class<T> type, boolean pretty) throws IOException {
+        TaskEvents.JsonWrite event = new TaskEvents.JsonWrite();
+        event.begin();
+        long started = System.nanoTime();
+        long count = 0;
+        ObjectWriter writer = objectMapper.writerFor(type);
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(temp.toFile(), JsonEncoding.UTF8)) {
+            if (pretty) {
+                generator.useDefaultPrettyPrinter();
+            }
+            generator.writeStartArray();
+            for (T record : records) {
+                writer.writeValue(generator, record);
+                count++;
+            }
+            generator.writeEndArray();
+        }
+        long size = Files.size(temp);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        writeTime.recordSince(started);
+        bytesWritten.add(size);
+        recordsWritten.add(count);
+        StoreStats.wrote(size);
+        if (event.shouldCommit()) {
+            event.file = file.getPath();
+            event.records = count;
+            event.bytes = size;
+            event.commit();
+        }
+    }
+
+    public static void forEachTask(File file, Consumer<? super Task> consumer) throws IOException {
+        forEach(file, Task.class, consumer);
+    }
+
+    public static void forEachReminder(File file, Consumer<? super Reminder> consumer) throws IOException {
+        forEach(file, Reminder.class, consumer);
+    }
+
+    public static void writeTasks(File file, Iterable<? extends Task> tasks, boolean pretty) throws IOException {
+        write(file, tasks, Task.class, pretty);
+    }
+
+    public static void writeReminders(File file, Iterable<? extends Reminder> reminders, boolean pretty) throws IOException {
+        write(file, reminders, Reminder.class, pretty);
+    }
+}
@@ -0,0 +1,61 @@
+package lib.json;
+
+import lib.javafx.Reminder;
+import lib.javafx.Task;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistence backend used by {@link lib.javafx.TaskRepository}.
+ * Implementations receive the individual changes of every mutation and decide
+ * whether to write them as deltas or as a full rewrite.
+ */
+public interface TaskStore {
+
+    List<Task> loadTasks();
+
+    List<Reminder> loadReminders();
+
+    /**
+     * Persists added or modified tasks and removed task ids.
+     *
+     * @param updated    tasks that were added or modified
+     * @param removedIds ids of deleted tasks
+     */
+    void tasksChanged(Collection<Task> updated, Collection<Long> removedIds);
+
+    /**
+     * Persists the complete reminder group of each given task id.
+     *
+     * @param remindersByTaskId the current reminders of every affected task; an empty list removes the group
+     */
+    void remindersChanged(Map<Long, List<Reminder>> remindersByTaskId);
+
+    /**
+     * Persists a category rename. Tasks refer to categories through
+     * {@link lib.javafx.NameDictionary}, so the tasks that use it were not modified.
+     */
+    void categoryRenamed(String oldName, String newName);
+
+    /**
+     * Persists a priority rename; see {@link #categoryRenamed(String, String)}.
+     */
+    void priorityRenamed(String oldName, String newName);
+
+    /**
+     * Persists the whole task list, e.g. after an in-place bulk edit.
+     */
+    void saveTasks();
+
+    /**
+     * Persists the whole reminder list.
+     */
+    void saveReminders();
+
+    /**
+     * Blocks until every pending write has reached the disk.
+     */
+    void flush();
+}
@@ -0,0 +1,104 @@
+package lib.json;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Coalescing, asynchronous writer for a store that is rewritten as a whole.
+ * <p>
+ * Every {@link #submit(Supplier)} replaces the pending snapshot and pushes the flush back by
+ * {@code debounceMillis}, so a burst of mutations results in a single write. A snapshot is
+ * never left pending for longer than {@code maxStalenessMillis}. Writes run on a background
+ * daemon thread; {@link #flush()} writes the pending snapshot synchronously and is meant for
+ * shutdown. Snapshots are taken when the write runs, so a burst costs one snapshot, not one
+ * per mutation.
+ *
+ * @param <T> the snapshot type, e.g. {@code List<Task>}
+ */
+public class WriteBehindPersister<T> {
+
+    private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "json-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String name;
+    private final Consumer<T> writer;
+    private final long debounceMillis;
+    private final long maxStalenessMillis;
+    private final Object writeLock = new Object();
+
+    private Supplier<? extends T> pendingSnapshot;
+    private long pendingSinceNanos;
+    private ScheduledFuture<?> scheduledFlush;
+
+    /**
+     * @param name               label used in log output
+     * @param writer             performs the actual write of a snapshot
+     * @param debounceMillis     quiet period after the last submit before writing
+     * @param maxStalenessMillis upper bound on how long a submitted snapshot may stay unwritten
+     */
+    public WriteBehindPersister(String name, Consumer<T> writer, long debounceMillis, long maxStalenessMillis) {
+        this.name = name;
+        this.writer = writer;
+        this.debounceMillis = debounceMillis;
+        this.maxStalenessMillis = maxStalenessMillis;
+    }
+
+    /**
+     * Schedules a snapshot to be written.
+     *
+     * @param snapshot returns the complete state to persist; called on the writing thread, so it
+     *                 must only read state that is safe to read from there
+     */
+    public synchronized void submit(Supplier<? extends T> snapshot) {
+        long now = System.nanoTime();
+        if (pendingSnapshot == null) {
+            pendingSinceNanos = now;
+        }
+        pendingSnapshot = snapshot;
+
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+        }
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(now - pendingSinceNanos);
+        long delay = Math.max(0, Math.min(debounceMillis, maxStalenessMillis - waitedMillis));
+        scheduledFlush = executor.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes the pending snapshot, if any, on the calling thread.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            Supplier<? extends T> snapshot;
+            synchronized (this) {
+                snapshot = pendingSnapshot;
+                pendingSnapshot = null;
+                if (scheduledFlush != null) {
+                    scheduledFlush.cancel(false);
+                    scheduledFlush = null;
+                }
+            }
+            if (snapshot == null) return;
+
+            try {
+                writer.accept(snapshot.get());
+            } catch (RuntimeException e) {
+                System.err.println("Error flushing " + name + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if a snapshot is waiting to be written
+     */
+    public synchronized boolean isDirty() {
+        return pendingSnapshot != null;
+    }
+}
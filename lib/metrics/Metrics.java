@@ -0,0 +1,76 @@
+package lib.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * The app's metrics, by name: counters, gauges read when reported, and latency histograms.
+ * Names are dotted, area first ({@code json.write}, {@code search.latency}). Hot paths keep
+ * the instrument in a static field instead of looking it up on every call.
+ */
+public final class Metrics {
+
+    private static final DateTimeFormatter DUMP_NAME = DateTimeFormatter.ofPattern("'metrics-'yyyyMMdd-HHmmss'.txt'");
+
+    private static final Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentSkipListMap<>();
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentSkipListMap<>();
+
+    private Metrics() {}
+
+    public static LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Registers a value read whenever the metrics are reported, replacing any gauge of that name.
+     */
+    public static void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public static LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * @return every metric as text: counters and gauges, then one line per histogram with its
+     *         count and percentiles in milliseconds
+     */
+    public static String report() {
+        StringWriter text = new StringWriter();
+        PrintWriter out = new PrintWriter(text);
+        counters.forEach((name, counter) -> out.printf("%-28s %14d%n", name, counter.sum()));
+        gauges.forEach((name, gauge) -> out.printf("%-28s %14d%n", name, gauge.getAsLong()));
+        if (!histograms.isEmpty()) {
+            out.printf("%n%-28s %8s %9s %9s %9s %9s %9s%n", "latency (ms)", "count", "mean", "p50", "p99", "p999", "max");
+        }
+        histograms.forEach((name, histogram) -> out.printf("%-28s %8d %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+                name, histogram.getCount(), histogram.getMean() / 1e6,
+                histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(99) / 1e6,
+                histogram.getValueAtPercentile(99.9) / 1e6, histogram.getMax() / 1e6));
+        out.flush();
+        return text.toString();
+    }
+
+    /**
+     * Writes {@link #report()} to a new time-stamped file in {@code dir}.
+     *
+     * @return the file written
+     */
+    public static File dump(File dir) throws IOException {
+        File file = new File(dir, LocalDateTime.now().format(DUMP_NAME));
+        Files.writeString(file.toPath(), "Metrics at " + LocalDateTime.now() + "\n\n" + report(), StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,200 @@
+package lib.metrics;
+
+import jdk.jfr.ValueDescriptor;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Summarizes the {@link TaskEvents} of a flight recording: per event type the count, duration
+ * percentiles and the totals of its counts and sizes; per file the reads and writes; the slowest
+ * events with their fields; and the garbage collection pauses over the same recording.
+ */
+public final class RecordingReport {
+
+    private static final String PREFIX = "taskmanager.";
+    private static final String DATA_AMOUNT = "jdk.jfr.DataAmount";
+    private static final List<String> STANDARD_FIELDS = List.of("startTime", "duration", "eventThread", "stackTrace");
+
+    private static final String USAGE = """
+            Usage: RecordingReport <recording.jfr> [--top N]
+              --top N    slowest events to list (default 10)""";
+
+    private static final Comparator<RecordedEvent> BY_DURATION = Comparator.comparing(event -> event.getDuration());
+
+    private final Map<String, EventSummary> summaries = new TreeMap<>();
+    private final Map<String, FileSummary> files = new TreeMap<>();
+    private final PriorityQueue<RecordedEvent> slowest = new PriorityQueue<>(BY_DURATION); // Fastest first, polled to keep the top
+    private final int top;
+    private long gcPauses;
+    private Duration gcTime = Duration.ZERO;
+    private Instant first;
+    private Instant last;
+
+    private RecordingReport(int top) {
+        this.top = top;
+    }
+
+    private static final class EventSummary {
+        final String label;
+        final LatencyHistogram durations = new LatencyHistogram();
+        final Map<String, Long> totals = new LinkedHashMap<>();   // Integral fields, in declaration order
+        final Map<String, Boolean> isBytes = new LinkedHashMap<>();
+        Duration total = Duration.ZERO;
+
+        EventSummary(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class FileSummary {
+        int reads;
+        int writes;
+        long bytesWritten;
+        Duration readTime = Duration.ZERO;
+        Duration writeTime = Duration.ZERO;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path recording = null;
+        int top = 10;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--top")) {
+                    if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for --top");
+                    top = Integer.parseInt(args[++i]);
+                } else if (recording == null) {
+                    recording = Path.of(args[i]);
+                } else {
+                    throw new IllegalArgumentException("Unexpected argument " + args[i]);
+                }
+            }
+            if (recording == null) throw new IllegalArgumentException("A recording is required");
+            if (!Files.isRegularFile(recording)) throw new IllegalArgumentException("No such file: " + recording);
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return;
+        }
+
+        RecordingReport report = new RecordingReport(top);
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                report.add(file.readEvent());
+            }
+        }
+        report.print(recording);
+    }
+
+    private void add(RecordedEvent event) {
+        Instant end = event.getEndTime();
+        if (first == null || event.getStartTime().isBefore(first)) first = event.getStartTime();
+        if (last == null || end.isAfter(last)) last = end;
+
+        String name = event.getEventType().getName();
+        if (name.equals("jdk.GarbageCollection")) {
+            gcPauses++;
+            gcTime = gcTime.plus(event.getDuration("sumOfPauses"));
+            return;
+        }
+        if (!name.startsWith(PREFIX)) return;
+
+        EventSummary summary = summaries.computeIfAbsent(name, key -> new EventSummary(event.getEventType().getLabel()));
+        summary.durations.record(event.getDuration().toNanos());
+        summary.total = summary.total.plus(event.getDuration());
+        for (ValueDescriptor field : event.getFields()) {
+            if (STANDARD_FIELDS.contains(field.getName()) || field.getName().endsWith("Id")) continue;
+            if (field.getTypeName().equals("int") || field.getTypeName().equals("long")) {
+                summary.totals.merge(field.getLabel(), event.getLong(field.getName()), Long::sum);
+                summary.isBytes.put(field.getLabel(), DATA_AMOUNT.equals(field.getContentType()));
+            }
+        }
+
+        if (event.hasField("file")) {
+            FileSummary file = files.computeIfAbsent(event.getString("file"), key -> new FileSummary());
+            if (name.endsWith("JsonWrite")) {
+                file.writes++;
+                file.bytesWritten += event.getLong("bytes");
+                file.writeTime = file.writeTime.plus(event.getDuration());
+            } else {
+                file.reads++;
+                file.readTime = file.readTime.plus(event.getDuration());
+            }
+        }
+
+        slowest.add(event);
+        if (slowest.size() > top) slowest.poll();
+    }
+
+    private void print(Path recording) {
+        if (summaries.isEmpty()) {
+            System.out.println("No Task Manager events in " + recording
+                    + "; was it recorded with settings=jfr/taskmanager.jfc?");
+            return;
+        }
+        System.out.printf("Task Manager events in %s (%.1f s)%n%n", recording,
+                Duration.between(first, last).toMillis() / 1000.0);
+
+        System.out.printf("%-26s %7s %10s %9s %9s %9s  %s%n", "Event", "count", "total ms", "p50 ms", "p99 ms", "max ms", "totals");
+        summaries.values().forEach(summary -> {
+            List<String> totals = new ArrayList<>();
+            summary.totals.forEach((label, total) ->
+                    totals.add(label + " " + (summary.isBytes.get(label) ? formatBytes(total) : total)));
+            LatencyHistogram durations = summary.durations;
+            System.out.printf("%-26s %7d %10.1f %9.3f %9.3f %9.3f  %s%n", summary.label, durations.getCount(),
+                    summary.total.toNanos() / 1e6, durations.getValueAtPercentile(50) / 1e6,
+                    durations.getValueAtPercentile(99) / 1e6, durations.getMax() / 1e6, String.join(", ", totals));
+        });
+
+        if (!files.isEmpty()) {
+            int width = files.keySet().stream().mapToInt(String::length).max().getAsInt();
+            System.out.printf("%n%-" + width + "s %6s %10s %7s %10s %12s%n", "File", "reads", "read ms", "writes", "write ms", "written");
+            files.forEach((path, file) -> System.out.printf("%-" + width + "s %6d %10.1f %7d %10.1f %12s%n", path,
+                    file.reads, file.readTime.toNanos() / 1e6, file.writes, file.writeTime.toNanos() / 1e6,
+                    formatBytes(file.bytesWritten)));
+        }
+
+        List<RecordedEvent> ordered = new ArrayList<>(slowest);
+        ordered.sort(BY_DURATION.reversed());
+        System.out.printf("%nSlowest %d%n", ordered.size());
+        for (RecordedEvent event : ordered) {
+            RecordedThread thread = event.getThread();
+            System.out.printf("%10.3f ms  %-24s %s  [%s]%n", event.getDuration().toNanos() / 1e6,
+                    event.getEventType().getLabel(), describe(event), thread == null ? "?" : thread.getJavaName());
+        }
+
+        System.out.printf("%nGarbage collection: %d collections, %.1f ms paused%n", gcPauses, gcTime.toNanos() / 1e6);
+    }
+
+    // The event's own fields as name=value
+    private static String describe(RecordedEvent event) {
+        List<String> values = new ArrayList<>();
+        for (ValueDescriptor field : event.getFields()) {
+            if (STANDARD_FIELDS.contains(field.getName())) continue;
+            Object value = event.getValue(field.getName());
+            if (value == null) continue;
+            values.add(field.getName() + "=" + (DATA_AMOUNT.equals(field.getContentType())
+                    ? formatBytes(((Number) value).longValue()) : value));
+        }
+        return String.join(", ", values);
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format("%.1f KB", bytes / 1024.0);
+        return String.format("%.1f MB", bytes / (1024.0 * 1024));
+    }
+}
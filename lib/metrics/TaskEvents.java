@@ -0,0 +1,155 @@
+package lib.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder events for the app's domain operations, so that a recording of a frozen
+ * UI shows which save, cascade or search was running. They cost next to nothing unless a
+ * recording enables them; {@code jfr/taskmanager.jfc} does, and {@link RecordingReport}
+ * summarizes a recording.
+ *
+ * <p>Each event is begun before the operation and committed after it, filling its fields
+ * only if {@link Event#shouldCommit()}.
+ */
+public final class TaskEvents {
+
+    private static final String CATEGORY = "Task Manager";
+
+    private TaskEvents() {}
+
+    @Name("taskmanager.JsonRead")
+    @Label("JSON Read")
+    @Category({CATEGORY, "Persistence"})
+    @Description("A JSON array file read record by record")
+    public static final class JsonRead extends Event {
+        @Label("File")
+        public String file;
+
+        @Label("Records")
+        public long records;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("taskmanager.JsonWrite")
+    @Label("JSON Write")
+    @Category({CATEGORY, "Persistence"})
+    @Description("A JSON array file rewritten in full")
+    public static final class JsonWrite extends Event {
+        @Label("File")
+        public String file;
+
+        @Label("Records")
+        public long records;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("taskmanager.NameCascade")
+    @Label("Category/Priority Cascade")
+    @Category({CATEGORY, "Cascade"})
+    @Description("A category or priority renamed or deleted, with the tasks it carried along")
+    public static final class NameCascade extends Event {
+        @Label("Kind")
+        @Description("category or priority")
+        public String kind;
+
+        @Label("Operation")
+        @Description("rename or delete")
+        public String operation;
+
+        @Label("Name")
+        public String name;
+
+        @Label("New Name")
+        public String newName;
+
+        @Label("Tasks Updated")
+        public int tasksUpdated;
+
+        @Label("Tasks Removed")
+        public int tasksRemoved;
+
+        @Label("Reminders Removed")
+        public int remindersRemoved;
+    }
+
+    @Name("taskmanager.ReminderRecalculation")
+    @Label("Reminder Recalculation")
+    @Category({CATEGORY, "Cascade"})
+    @Description("The reminders of an edited task moved to its new due date and title, or removed when it was completed")
+    public static final class ReminderRecalculation extends Event {
+        @Label("Task Id")
+        public long taskId;
+
+        @Label("Task Title")
+        public String taskTitle;
+
+        @Label("Reminders")
+        public int reminders;
+
+        @Label("Rescheduled")
+        @Description("Reminders whose date followed the due date; custom dates keep theirs")
+        public int rescheduled;
+
+        @Label("Removed")
+        public int removed;
+
+        @Label("Due Date Changed")
+        public boolean dueDateChanged;
+
+        @Label("Title Changed")
+        public boolean titleChanged;
+    }
+
+    @Name("taskmanager.Search")
+    @Label("Search")
+    @Category({CATEGORY, "Search"})
+    @Description("A run of the task window's filters, in the background or on the calling thread")
+    public static final class Search extends Event {
+        @Label("Query")
+        public String query;
+
+        @Label("Tasks")
+        public int tasks;
+
+        @Label("Candidates")
+        @Description("Tasks left after the index lookups, then checked one by one")
+        public int candidates;
+
+        @Label("Matches")
+        public int matches;
+
+        @Label("Cancelled")
+        @Description("Superseded by a newer query before it finished")
+        public boolean cancelled;
+    }
+
+    @Name("taskmanager.StatusUpdate")
+    @Label("Status Update")
+    @Category({CATEGORY, "Status"})
+    @Description("Overdue tasks swept to Delayed, and delayed tasks due in the future reopened")
+    public static final class StatusUpdate extends Event {
+        @Label("Operation")
+        @Description("sweep, or update for a sweep followed by reopening")
+        public String operation;
+
+        @Label("Tasks")
+        public int tasks;
+
+        @Label("Delayed")
+        public int delayed;
+
+        @Label("Reopened")
+        public int reopened;
+    }
+}
@@ -0,0 +1,62 @@
+package lib.javafx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongMapTest {
+
+    @Test
+    void keepsEveryOtherKeyReachableAfterRemovals() {
+        // Keys from a narrow range in a small table: long probe runs that wrap around its end
+        LongMap<String> map = new LongMap<>(4);
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            long key = 1 + random.nextInt(48);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = "v" + i;
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (long key = 1; key <= 48; key++) {
+            assertEquals(expected.get(key), map.get(key), "key " + key);
+        }
+    }
+
+    @Test
+    void removesEveryKeyInAnyOrder() {
+        LongMap<Long> map = new LongMap<>();
+        for (long key = 1; key <= 1000; key++) {
+            map.put(key * 31, key);
+        }
+        for (long key = 1000; key >= 1; key -= 2) {
+            assertEquals(key, map.remove(key * 31));
+        }
+        for (long key = 1; key <= 1000; key++) {
+            assertEquals(key % 2 == 0 ? null : key, map.get(key * 31));
+        }
+        for (long key = 1; key <= 1000; key += 2) {
+            map.remove(key * 31);
+        }
+        assertEquals(0, map.size());
+        assertEquals(0, map.values().size());
+    }
+
+    @Test
+    void keyZeroIsReserved() {
+        LongMap<String> map = new LongMap<>();
+        assertThrows(IllegalArgumentException.class, () -> map.put(0, "zero"));
+        assertNull(map.get(0));
+        assertNull(map.remove(0));
+    }
+}
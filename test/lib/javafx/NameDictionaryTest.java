@@ -0,0 +1,89 @@
+package lib.javafx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NameDictionaryTest {
+
+    // The dictionaries are shared by the whole process, so every name here carries this prefix
+    private static final String PREFIX = "name-dictionary-test-";
+
+    private final NameDictionary names = NameDictionary.CATEGORIES;
+
+    @Test
+    void internsAndRenamesLikeAMap() {
+        Map<String, Integer> expected = new HashMap<>();
+        List<Integer> ids = new ArrayList<>(); // Every id handed out, in order
+        Random random = new Random(5);
+        for (int i = 0; i < 5_000; i++) {
+            String name = PREFIX + spelling(random, "n" + random.nextInt(40));
+            if (random.nextInt(4) == 0) {
+                String newName = PREFIX + spelling(random, "n" + random.nextInt(40));
+                Integer id = expected.get(name);
+                boolean renames = id != null && !expected.containsKey(newName);
+                assertEquals(renames ? id : NameDictionary.NONE, names.rename(name, newName), name + " -> " + newName);
+                if (renames) {
+                    expected.remove(name);
+                    expected.put(newName, id);
+                }
+            } else {
+                Integer known = expected.get(name);
+                int id = names.intern(name);
+                if (known != null) {
+                    assertEquals(known, id, name);
+                } else {
+                    assertFalse(ids.contains(id), "id " + id + " handed out twice");
+                    expected.put(name, id);
+                    ids.add(id);
+                }
+            }
+        }
+
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), names.idOf(entry.getKey()));
+            assertEquals(entry.getKey(), names.nameOf(entry.getValue()));
+        }
+        for (int n = 0; n < 40; n++) {
+            String name = PREFIX + "n" + n;
+            List<Integer> sameIgnoringCase = expected.entrySet().stream()
+                    .filter(entry -> entry.getKey().equalsIgnoreCase(name))
+                    .map(Map.Entry::getValue).sorted().toList();
+            assertEquals(sameIgnoringCase, names.idsIgnoreCase(name.toUpperCase(Locale.ROOT)), name);
+        }
+    }
+
+    @Test
+    void renameKeepsTheIdAndFreesTheOldName() {
+        int id = names.intern(PREFIX + "before");
+        assertEquals(id, names.rename(PREFIX + "before", PREFIX + "after"));
+        assertEquals(NameDictionary.NONE, names.idOf(PREFIX + "before"));
+        assertEquals(PREFIX + "after", names.nameOf(id));
+        assertNotEquals(id, names.intern(PREFIX + "before")); // A new entry, not the renamed one
+        assertEquals(NameDictionary.NONE, names.rename(PREFIX + "before", PREFIX + "after")); // Taken
+        assertEquals(NameDictionary.NONE, names.rename(PREFIX + "unknown", PREFIX + "other"));
+    }
+
+    @Test
+    void missingNamesHaveNoId() {
+        assertEquals(NameDictionary.NONE, names.intern(null));
+        assertEquals(NameDictionary.NONE, names.idOf(null));
+        assertEquals(List.of(), names.idsIgnoreCase(null));
+        assertNull(names.nameOf(NameDictionary.NONE));
+    }
+
+    // The same name in one of two spellings, so case-insensitive lookups find more than one id
+    private static String spelling(Random random, String name) {
+        return random.nextBoolean() ? name : name.toUpperCase(Locale.ROOT);
+    }
+}
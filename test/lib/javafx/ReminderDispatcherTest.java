@@ -0,0 +1,119 @@
+package lib.javafx;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReminderDispatcherTest {
+
+    private static final long START = 20_000; // An epoch day in 2024, in the middle of every level's span
+
+    @TempDir
+    Path dir;
+
+    private final List<Reminder> delivered = new ArrayList<>();
+
+    private ReminderDispatcher dispatcher() {
+        ReminderDispatcher dispatcher = new ReminderDispatcher(dir.resolve("reminders.dispatched"), START);
+        dispatcher.addSink(delivered::add);
+        return dispatcher;
+    }
+
+    private static Reminder reminder(long day) {
+        Reminder reminder = new Reminder("Task", Dates.format(day), "", "Custom date", Dates.format(day + 1));
+        reminder.setTaskId(1);
+        return reminder;
+    }
+
+    @Test
+    void firesEachReminderOnItsDayAcrossEveryLevel() {
+        ReminderDispatcher dispatcher = dispatcher();
+        long[] days = {START + 1, START + 63, START + 64, START + 200, START + 4096, START + 5000};
+        List<Reminder> reminders = new ArrayList<>();
+        for (long day : days) {
+            Reminder reminder = reminder(day);
+            reminders.add(reminder);
+            dispatcher.schedule(reminder);
+        }
+
+        for (long day = START + 1; day <= START + 5000; day++) {
+            int before = delivered.size();
+            dispatcher.fireDueSlots(day);
+            for (int i = before; i < delivered.size(); i++) {
+                assertEquals(day, delivered.get(i).getEpochDay(), "fired on the wrong day");
+            }
+        }
+        assertEquals(reminders, delivered);
+        assertEquals(0, dispatcher.pending());
+    }
+
+    @Test
+    void dropsTheDaysSkippedWhileAsleep() {
+        ReminderDispatcher dispatcher = dispatcher();
+        Reminder missed = reminder(START + 3);
+        Reminder due = reminder(START + 10);
+        Reminder later = reminder(START + 70);
+        dispatcher.schedule(missed);
+        dispatcher.schedule(due);
+        dispatcher.schedule(later);
+
+        dispatcher.fireDueSlots(START + 10);
+        assertEquals(List.of(due), delivered);
+        assertEquals(1, dispatcher.pending());
+
+        dispatcher.fireDueSlots(START + 70);
+        assertEquals(List.of(due, later), delivered);
+    }
+
+    @Test
+    void cancelledAndMovedRemindersFollowTheirNewDate() {
+        ReminderDispatcher dispatcher = dispatcher();
+        Reminder cancelled = reminder(START + 5);
+        Reminder moved = reminder(START + 100);
+        dispatcher.schedule(cancelled);
+        dispatcher.schedule(moved);
+        dispatcher.cancel(cancelled);
+        moved.setEpochDay(START + 6);
+        dispatcher.schedule(moved);
+
+        for (long day = START + 1; day <= START + 100; day++) {
+            dispatcher.fireDueSlots(day);
+        }
+        assertEquals(List.of(moved), delivered);
+    }
+
+    @Test
+    void aReminderAddedForTodayFiresAtOnceButOnlyOnce() {
+        ReminderDispatcher dispatcher = dispatcher();
+        dispatcher.fireDueSlots(START + 1);
+        Reminder today = reminder(START + 1);
+        dispatcher.schedule(today);
+        dispatcher.schedule(today);
+        assertEquals(List.of(today), delivered);
+    }
+
+    @Test
+    void aRestartOnTheSameDayDoesNotFireTodayAgain() {
+        ReminderDispatcher first = dispatcher();
+        first.schedule(reminder(START + 1));
+        first.skipDispatched(START + 1);
+        first.fireDueSlots(START + 1);
+        assertEquals(1, delivered.size());
+
+        ReminderDispatcher restarted = dispatcher();
+        restarted.schedule(reminder(START + 1));
+        restarted.schedule(reminder(START + 2));
+        restarted.skipDispatched(START + 1);
+        restarted.fireDueSlots(START + 1);
+        assertEquals(1, delivered.size());
+
+        restarted.fireDueSlots(START + 2);
+        assertEquals(2, delivered.size());
+        assertEquals(START + 2, delivered.get(1).getEpochDay());
+    }
+}
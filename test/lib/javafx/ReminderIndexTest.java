@@ -0,0 +1,114 @@
+package lib.javafx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReminderIndexTest {
+
+    private static final String[] MESSAGES = {"", "Soon", "Call"};
+    private static final String[] TYPES = {"One day before deadline", "Custom date"};
+
+    private final Random random = new Random(17);
+    private final List<Reminder> filed = new ArrayList<>(); // The model: at most one reminder per value
+    private final ReminderIndex index = new ReminderIndex();
+
+    private <T> T any(T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private String date() {
+        return "0" + (1 + random.nextInt(3)) + "/01/2030";
+    }
+
+    // Few distinct values, so duplicates are common; task id 0 is a reminder not linked by id
+    private Reminder reminder() {
+        Reminder reminder = new Reminder("Task " + random.nextInt(3), date(), any(MESSAGES), any(TYPES), "10/01/2030");
+        reminder.setTaskId(random.nextInt(4));
+        return reminder;
+    }
+
+    private boolean hasEqual(Reminder reminder) {
+        return filed.stream().anyMatch(other -> other != reminder && other.equals(reminder));
+    }
+
+    private static Set<Reminder> identitySet(Collection<Reminder> reminders) {
+        Set<Reminder> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        set.addAll(reminders);
+        return set;
+    }
+
+    private void assertGroupsMatch() {
+        for (long taskId = 0; taskId < 4; taskId++) {
+            long id = taskId;
+            Set<Reminder> expected = identitySet(filed.stream().filter(r -> id != 0 && r.getTaskId() == id).toList());
+            assertEquals(expected, identitySet(index.remindersFor(taskId)), "task " + taskId);
+        }
+        for (Reminder reminder : filed) {
+            assertTrue(index.contains(reminder));
+        }
+    }
+
+    @Test
+    void keepsOneReminderPerValueLikeAList() {
+        for (int round = 0; round < 5_000; round++) {
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    Reminder reminder = reminder();
+                    boolean added = !hasEqual(reminder);
+                    assertEquals(added, index.add(reminder));
+                    if (added) filed.add(reminder);
+                }
+                case 1 -> {
+                    if (filed.isEmpty()) continue;
+                    Reminder reminder = filed.remove(random.nextInt(filed.size()));
+                    index.remove(reminder);
+                }
+                case 2 -> {
+                    if (filed.isEmpty()) continue;
+                    Reminder reminder = filed.get(random.nextInt(filed.size()));
+                    if (random.nextBoolean()) {
+                        reminder.setDate(date());
+                    } else {
+                        reminder.setMessage(any(MESSAGES));
+                    }
+                    boolean duplicate = hasEqual(reminder);
+                    assertEquals(duplicate ? List.of(reminder) : List.of(), index.rekey(List.of(reminder)));
+                    if (duplicate) filed.removeIf(other -> other == reminder);
+                }
+                default -> {
+                    Reminder probe = reminder();
+                    assertEquals(hasEqual(probe), index.contains(probe), probe.toString());
+                }
+            }
+        }
+
+        assertGroupsMatch();
+    }
+
+    @Test
+    void rebuildLeavesOutLaterDuplicates() {
+        List<Reminder> reminders = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            reminders.add(reminder());
+        }
+        List<Reminder> duplicates = index.rebuild(reminders);
+
+        for (Reminder reminder : reminders) {
+            if (!hasEqual(reminder)) filed.add(reminder);
+        }
+        Set<Reminder> expected = identitySet(reminders);
+        expected.removeAll(identitySet(filed));
+        assertEquals(expected, identitySet(duplicates));
+        assertGroupsMatch();
+    }
+}
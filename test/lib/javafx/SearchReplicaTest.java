@@ -0,0 +1,97 @@
+package lib.javafx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SearchReplicaTest {
+
+    private static final String[] WORDS = {"report", "Review", "budget", "meeting", "zebra"};
+    private static final String[] CATEGORIES = {"Work", "Home", "Uni"};
+
+    private final Random random = new Random(11);
+    private final List<Task> live = new ArrayList<>();
+    private final SearchReplica replica = new SearchReplica();
+
+    private Task task() {
+        return new Task(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)], "",
+                CATEGORIES[random.nextInt(CATEGORIES.length)], "Default", "01/01/2030", "Open");
+    }
+
+    // What the search thread answers: the posting-list matches of the copies, as live tasks
+    private Set<Task> search(String query) {
+        Set<Task> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Task copy : replica.text().search(query)) {
+            found.add(replica.live(copy));
+        }
+        return found;
+    }
+
+    private Set<Task> scan(String query) {
+        Set<Task> expected = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Task task : live) {
+            if (task.getTitle().toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT))) expected.add(task);
+        }
+        return expected;
+    }
+
+    @Test
+    void answersFromCopiesLikeAScanOfTheLiveTasks() {
+        for (int i = 0; i < 300; i++) {
+            Task task = task();
+            live.add(task);
+            replica.put(task, new Task(task));
+        }
+        for (int round = 0; round < 2000; round++) {
+            Task task = live.get(random.nextInt(live.size()));
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    task.setTitle(WORDS[random.nextInt(WORDS.length)]);
+                    task.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                    replica.update(task, new Task(task));
+                }
+                case 1 -> {
+                    live.remove(task);
+                    replica.remove(task);
+                }
+                default -> {
+                    Task added = task();
+                    live.add(added);
+                    replica.put(added, new Task(added));
+                }
+            }
+        }
+
+        assertEquals(live.size(), replica.copies().size());
+        for (String query : List.of("report", "review", "eport", "zebra budget", "re", "no such title")) {
+            assertEquals(scan(query), search(query), "query " + query);
+        }
+        for (String category : CATEGORIES) {
+            long expected = live.stream().filter(task -> task.getCategory().equals(category)).count();
+            assertEquals(expected, replica.index().countWithCategory(category), category);
+        }
+    }
+
+    @Test
+    void ignoresUpdatesOfTasksRemovedBeforeThem() {
+        Task task = task();
+        replica.put(task, new Task(task));
+        Task copy = replica.copies().iterator().next();
+        replica.remove(task);
+        replica.update(task, new Task(task)); // An edit published after the removal
+
+        assertEquals(0, replica.copies().size());
+        assertEquals(0, replica.index().size());
+        assertEquals(0, replica.text().size());
+        assertNull(replica.live(copy));
+    }
+}
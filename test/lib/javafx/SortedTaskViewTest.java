@@ -0,0 +1,130 @@
+package lib.javafx;
+
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class SortedTaskViewTest {
+
+    private static final String[] CATEGORIES = {"View work", "view home", "View uni"};
+    private static final String[] PRIORITIES = {"View low", "View high"};
+    private static final String[] STATUSES = {"Open", "In Progress", "Completed"};
+
+    private final Random random = new Random(19);
+    private final SortedTaskView view = new SortedTaskView();
+    private final List<Task> tasks = new ArrayList<>(); // The model, sorted only when compared
+    private final List<Task> mirror = new ArrayList<>(); // The view as its change events describe it
+    private long nextId = 1;
+
+    SortedTaskViewTest() {
+        view.addListener((ListChangeListener<Task>) this::replay);
+    }
+
+    // Applies a change the way a TableView does, checking what it says was removed
+    private void replay(ListChangeListener.Change<? extends Task> change) {
+        while (change.next()) {
+            int from = change.getFrom();
+            if (change.wasPermutated()) {
+                List<Task> moved = new ArrayList<>(mirror.subList(from, change.getTo()));
+                for (int i = from; i < change.getTo(); i++) {
+                    mirror.set(change.getPermutation(i), moved.get(i - from));
+                }
+            } else if (!change.wasUpdated()) {
+                List<Task> removed = mirror.subList(from, from + change.getRemovedSize());
+                assertEquals(removed, change.getRemoved());
+                removed.clear();
+                mirror.addAll(from, change.getAddedSubList());
+            }
+        }
+    }
+
+    private <T> T any(T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private Task task() {
+        String dueDate = random.nextInt(8) == 0 ? "" : "0" + (1 + random.nextInt(9)) + "/01/2030";
+        Task task = new Task("Task", "", any(CATEGORIES), any(PRIORITIES), dueDate, any(STATUSES));
+        task.setId(nextId++);
+        return task;
+    }
+
+    private void assertMatchesModel() {
+        Comparator<Task> order = view.getSortKey().comparator();
+        List<Task> expected = new ArrayList<>(tasks);
+        expected.sort(view.isDescending() ? order.reversed() : order);
+        assertEquals(expected, new ArrayList<>(view));
+        assertEquals(expected, mirror);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i, view.indexOf(expected.get(i)));
+        }
+    }
+
+    @Test
+    void staysSortedThroughAddsEditsRemovalsAndSortChanges() {
+        for (int i = 0; i < 50; i++) {
+            Task task = task();
+            tasks.add(task);
+            view.track(task);
+        }
+        for (int round = 0; round < 2_000; round++) {
+            Task task = tasks.get(random.nextInt(tasks.size()));
+            switch (random.nextInt(6)) {
+                case 0 -> {
+                    tasks.remove(task);
+                    view.untrack(task);
+                    assertFalse(view.contains(task));
+                    assertEquals(-1, view.indexOf(task));
+                }
+                case 1 -> {
+                    Task added = task();
+                    tasks.add(added);
+                    view.track(added);
+                }
+                case 2 -> {
+                    List<Task> added = List.of(task(), task(), task());
+                    tasks.addAll(added);
+                    view.trackAll(added);
+                }
+                case 3 -> view.sortBy(any(SortedTaskView.SortKey.values()), random.nextBoolean());
+                default -> {
+                    switch (random.nextInt(4)) { // Modified in place, then refiled
+                        case 0 -> task.setCategory(any(CATEGORIES));
+                        case 1 -> task.setPriority(any(PRIORITIES));
+                        case 2 -> task.setStatus(any(STATUSES));
+                        default -> task.setDueDate("0" + (1 + random.nextInt(9)) + "/01/2030");
+                    }
+                    if (random.nextBoolean()) {
+                        view.update(task);
+                    } else {
+                        view.updateAll(List.of(task, tasks.get(random.nextInt(tasks.size()))));
+                    }
+                }
+            }
+            assertMatchesModel();
+        }
+    }
+
+    @Test
+    void fillsAnEmptyViewInOneRange() {
+        List<Task> added = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            added.add(task());
+        }
+        tasks.addAll(added);
+        view.trackAll(added);
+        assertMatchesModel();
+
+        view.sortBy(SortedTaskView.SortKey.DUE_DATE, true);
+        assertMatchesModel();
+        view.sortBy(SortedTaskView.SortKey.DUE_DATE, true); // No change, no event
+        assertMatchesModel();
+    }
+}
@@ -0,0 +1,161 @@
+package lib.javafx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link TaskRepository#apply(TaskBatch)} against a map of tasks to their reminders. The
+ * repository is shared by the whole test run (with the in-memory store the build selects), so
+ * these tests only look at the tasks they add.
+ */
+class TaskBatchTest {
+
+    private static final String CATEGORY = "Batch test";
+    private static final String MOVED = "Batch test moved";
+
+    private final Random random = new Random(23);
+    private final Map<Task, List<Reminder>> model = new IdentityHashMap<>();
+
+    private static <T> Set<T> identitySet(Collection<T> items) {
+        Set<T> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        set.addAll(items);
+        return set;
+    }
+
+    private void addTasks(int count) {
+        for (int i = 0; i < count; i++) {
+            Task task = new Task("Batch task " + model.size() + " " + System.nanoTime(), "", CATEGORY, "Default",
+                    "01/01/2031", "Open");
+            TaskRepository.addTask(task);
+            List<Reminder> reminders = new ArrayList<>();
+            for (int r = random.nextInt(4); r > 0; r--) {
+                Reminder reminder = new Reminder(task.getTitle(), "01/12/2030", "Reminder " + r, "Custom date", "01/01/2031");
+                reminder.setTaskId(task.getId());
+                assertTrue(TaskRepository.addReminder(reminder));
+                reminders.add(reminder);
+            }
+            model.put(task, reminders);
+        }
+    }
+
+    @Test
+    void removingTasksCascadesToTheirRemindersInOneApply() {
+        addTasks(60);
+        List<ChangeBus.Change<Task>> taskChanges = new ArrayList<>();
+        List<ChangeBus.Change<Reminder>> reminderChanges = new ArrayList<>();
+        Consumer<ChangeBus.Change<Task>> taskListener = taskChanges::add;
+        Consumer<ChangeBus.Change<Reminder>> reminderListener = reminderChanges::add;
+
+        TaskBatch batch = new TaskBatch();
+        Set<Task> removedTasks = identitySet(List.of());
+        Set<Task> updatedTasks = identitySet(List.of());
+        Set<Reminder> removedReminders = identitySet(List.of());
+        Set<Reminder> updatedReminders = identitySet(List.of());
+        for (Map.Entry<Task, List<Reminder>> entry : model.entrySet()) {
+            Task task = entry.getKey();
+            switch (random.nextInt(5)) {
+                case 0 -> {
+                    batch.removeTask(task);
+                    removedTasks.add(task);
+                    removedReminders.addAll(entry.getValue()); // The cascade
+                }
+                case 1 -> { // Removed after an update: the removal wins
+                    task.setCategory(MOVED);
+                    batch.updateTask(task).removeTask(task);
+                    removedTasks.add(task);
+                    removedReminders.addAll(entry.getValue());
+                }
+                case 2 -> { // Updated after its removal: still removed
+                    batch.removeTask(task).updateTask(task);
+                    removedTasks.add(task);
+                    removedReminders.addAll(entry.getValue());
+                }
+                default -> {
+                    if (random.nextBoolean()) {
+                        task.setCategory(MOVED);
+                        batch.updateTask(task);
+                        updatedTasks.add(task);
+                    }
+                    for (Reminder reminder : entry.getValue()) {
+                        if (random.nextInt(3) == 0) {
+                            batch.removeReminder(reminder);
+                            removedReminders.add(reminder);
+                        } else if (random.nextInt(3) == 0) {
+                            reminder.setMessage(reminder.getMessage() + " (edited)");
+                            batch.updateReminder(reminder);
+                            updatedReminders.add(reminder);
+                        }
+                    }
+                }
+            }
+        }
+
+        TaskRepository.getTaskChanges().addListener(taskListener);
+        TaskRepository.getReminderChanges().addListener(reminderListener);
+        TaskBatch.Result result;
+        try {
+            result = TaskRepository.apply(batch);
+        } finally {
+            TaskRepository.getTaskChanges().removeListener(taskListener);
+            TaskRepository.getReminderChanges().removeListener(reminderListener);
+        }
+
+        assertEquals(new TaskBatch.Result(updatedTasks.size(), removedTasks.size(), updatedReminders.size(),
+                removedReminders.size()), result);
+        assertEquals(removedTasks, identitySet(itemsOf(taskChanges, ChangeBus.Kind.REMOVED)));
+        assertEquals(updatedTasks, identitySet(itemsOf(taskChanges, ChangeBus.Kind.UPDATED)));
+        assertEquals(removedReminders, identitySet(itemsOf(reminderChanges, ChangeBus.Kind.REMOVED)));
+        assertEquals(updatedReminders, identitySet(itemsOf(reminderChanges, ChangeBus.Kind.UPDATED)));
+
+        Set<Task> live = identitySet(TaskRepository.getTasks());
+        Set<Reminder> liveReminders = identitySet(TaskRepository.getReminders());
+        Set<Task> moved = identitySet(TaskRepository.getIndex().withCategory(MOVED));
+        for (Map.Entry<Task, List<Reminder>> entry : model.entrySet()) {
+            Task task = entry.getKey();
+            boolean kept = !removedTasks.contains(task);
+            assertEquals(kept, live.contains(task));
+            assertEquals(kept, TaskRepository.getTask(task.getId()).isPresent());
+            assertEquals(kept, TaskRepository.getSortedTasks().contains(task));
+            assertEquals(kept && task.getCategory().equals(MOVED), moved.contains(task));
+
+            List<Reminder> expected = kept ? entry.getValue().stream().filter(r -> !removedReminders.contains(r)).toList() : List.of();
+            assertEquals(identitySet(expected), identitySet(TaskRepository.getRemindersForTask(task)), task.getTitle());
+            for (Reminder reminder : entry.getValue()) {
+                assertEquals(!removedReminders.contains(reminder), liveReminders.contains(reminder));
+            }
+        }
+    }
+
+    @Test
+    void anEmptyBatchChangesNothing() {
+        addTasks(5);
+        int tasks = TaskRepository.getTasks().size();
+        int reminders = TaskRepository.getReminders().size();
+        TaskBatch batch = new TaskBatch();
+        assertTrue(batch.isEmpty());
+
+        assertEquals(new TaskBatch.Result(0, 0, 0, 0), TaskRepository.apply(batch));
+        assertEquals(tasks, TaskRepository.getTasks().size());
+        assertEquals(reminders, TaskRepository.getReminders().size());
+        assertFalse(model.keySet().stream().anyMatch(task -> TaskRepository.getTask(task.getId()).isEmpty()));
+    }
+
+    private static <T> List<T> itemsOf(List<ChangeBus.Change<T>> changes, ChangeBus.Kind kind) {
+        List<T> items = new ArrayList<>();
+        changes.stream().filter(change -> change.kind() == kind).forEach(change -> items.addAll(change.items()));
+        return items;
+    }
+}
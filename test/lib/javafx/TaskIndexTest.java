@@ -0,0 +1,130 @@
+package lib.javafx;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskIndexTest {
+
+    private static final String[] CATEGORIES = {"Index work", "INDEX WORK", "Index home", "Index uni"};
+    private static final String[] PRIORITIES = {"Index low", "Index high", "INDEX HIGH"};
+    private static final String[] STATUSES = {"Open", "In Progress", "Postponed", "Completed"};
+    private static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+
+    private final Random random = new Random(13);
+    private final List<Task> tasks = new ArrayList<>();
+    private final TaskIndex index = new TaskIndex();
+
+    private <T> T any(T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    // A due date in the first ten days of 2030, or one that does not parse
+    private String dueDate() {
+        return random.nextInt(10) == 0 ? "someday" : FIRST_DAY.plusDays(random.nextInt(10)).format(Dates.FORMAT);
+    }
+
+    private Task task() {
+        return new Task("Task", "", any(CATEGORIES), any(PRIORITIES), dueDate(), any(STATUSES));
+    }
+
+    private static Set<Task> identitySet(Collection<Task> tasks) {
+        Set<Task> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        set.addAll(tasks);
+        return set;
+    }
+
+    private Set<Task> scan(Predicate<Task> filter) {
+        return identitySet(tasks.stream().filter(filter).toList());
+    }
+
+    @Test
+    void answersLikeAScanThroughAddsEditsAndRemovals() {
+        for (int i = 0; i < 300; i++) {
+            Task task = task();
+            tasks.add(task);
+            index.add(task);
+        }
+        for (int round = 0; round < 3_000; round++) {
+            Task task = tasks.get(random.nextInt(tasks.size()));
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    tasks.remove(task);
+                    index.remove(task);
+                }
+                case 1 -> {
+                    Task added = task();
+                    tasks.add(added);
+                    index.add(added);
+                }
+                default -> {
+                    switch (random.nextInt(4)) { // Modified in place, then refiled
+                        case 0 -> task.setCategory(any(CATEGORIES));
+                        case 1 -> task.setPriority(any(PRIORITIES));
+                        case 2 -> task.setStatus(any(STATUSES));
+                        default -> task.setDueDate(dueDate());
+                    }
+                    index.update(task);
+                }
+            }
+        }
+        assertEquals(tasks.size(), index.size());
+
+        for (String category : CATEGORIES) {
+            Set<Task> expected = scan(task -> task.getCategory().equalsIgnoreCase(category));
+            assertEquals(expected, identitySet(index.withCategory(category)), category);
+            assertEquals(expected.size(), index.countWithCategory(category), category);
+        }
+        for (String priority : PRIORITIES) {
+            Set<Task> expected = scan(task -> task.getPriority().equalsIgnoreCase(priority));
+            assertEquals(expected, identitySet(index.withPriority(priority)), priority);
+            assertEquals(expected.size(), index.countWithPriority(priority), priority);
+        }
+        for (String status : STATUSES) {
+            Set<Task> expected = scan(task -> task.getStatus().equalsIgnoreCase(status));
+            assertEquals(expected, identitySet(index.withStatus(status.toUpperCase(Locale.ROOT))), status);
+            assertEquals(expected.size(), index.countWithStatus(status), status);
+        }
+        for (int day = 0; day < 10; day++) {
+            LocalDate date = FIRST_DAY.plusDays(day);
+            Set<Task> expected = scan(task -> task.getDueEpochDay() == date.toEpochDay());
+            assertEquals(expected, identitySet(index.dueOn(date)), date.toString());
+            for (Task task : tasks) {
+                assertEquals(expected.contains(task), index.isDueOn(task, date));
+            }
+        }
+    }
+
+    @Test
+    void listsADateRangeInDueDateOrder() {
+        for (int i = 0; i < 500; i++) {
+            Task task = task();
+            tasks.add(task);
+            index.add(task);
+        }
+        LocalDate from = FIRST_DAY.plusDays(2);
+        LocalDate to = FIRST_DAY.plusDays(6);
+        List<Task> found = index.dueBetween(from, to);
+
+        Set<Task> expected = scan(task -> task.getDueEpochDay() != Dates.NO_DATE
+                && task.getDueEpochDay() >= from.toEpochDay() && task.getDueEpochDay() <= to.toEpochDay());
+        assertEquals(expected, identitySet(found));
+        assertEquals(expected.size(), found.size());
+        assertEquals(expected.size(), index.countDueBetween(from, to));
+        for (int i = 1; i < found.size(); i++) {
+            assertTrue(found.get(i - 1).getDueEpochDay() <= found.get(i).getDueEpochDay(), "out of order at " + i);
+        }
+    }
+}
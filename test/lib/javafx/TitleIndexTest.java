@@ -0,0 +1,69 @@
+package lib.javafx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TitleIndexTest {
+
+    private static Task task(String title) {
+        return new Task(title, "", "General", "Default", "01/01/2030", "Open");
+    }
+
+    @Test
+    void findsTitlesIgnoringCase() {
+        TitleIndex index = new TitleIndex();
+        Task report = task("Quarterly Report");
+        index.addTask(report);
+
+        assertSame(report, index.findTask("quarterly report").orElseThrow());
+        assertSame(report, index.findTask("QUARTERLY REPORT").orElseThrow());
+        assertTrue(index.findTask("Quarterly").isEmpty());
+    }
+
+    @Test
+    void keepsTheOtherTaskWhenOneOfTwoCaseVariantsIsRemoved() {
+        TitleIndex index = new TitleIndex();
+        Task first = task("Report");
+        Task second = task("REPORT");
+        index.rebuild(List.of(first, second));
+
+        assertSame(first, index.findTask("report").orElseThrow()); // The one filed first
+        index.removeTask(first);
+        assertSame(second, index.findTask("report").orElseThrow());
+        index.removeTask(second);
+        assertTrue(index.findTask("report").isEmpty());
+    }
+
+    @Test
+    void refilesARenamedTaskAndLeavesItsFormerTwin() {
+        TitleIndex index = new TitleIndex();
+        Task first = task("Report");
+        Task second = task("report");
+        index.addTask(first);
+        index.addTask(second);
+
+        first.setTitle("Summary");
+        index.updateTask(first);
+
+        assertSame(first, index.findTask("summary").orElseThrow());
+        assertSame(second, index.findTask("Report").orElseThrow());
+    }
+
+    @Test
+    void removingATaskTwiceChangesNothing() {
+        TitleIndex index = new TitleIndex();
+        Task first = task("Same");
+        Task second = task("Same");
+        index.addTask(first);
+        index.addTask(second);
+
+        index.removeTask(first);
+        index.removeTask(first);
+        assertEquals(second, index.findTask("same").orElseThrow());
+    }
+}
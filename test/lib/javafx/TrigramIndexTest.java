@@ -0,0 +1,101 @@
+package lib.javafx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+
+    private static final String[] WORDS = {"report", "Review", "budget", "meeting", "rare", "zebra", "repo"};
+
+    private final Random random = new Random(7);
+    private final List<Task> tasks = new ArrayList<>();
+    private final TrigramIndex index = new TrigramIndex();
+
+    private Task task(String title, String description) {
+        Task task = new Task(title, description, "General", "Default", "01/01/2030", "Open");
+        tasks.add(task);
+        index.add(task);
+        return task;
+    }
+
+    // Mostly common words, so their posting lists are far longer than those of the rare ones
+    private String text() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1 + random.nextInt(3); i++) {
+            int word = random.nextInt(20) == 0 ? 4 + random.nextInt(2) : random.nextInt(4);
+            text.append(WORDS[word]).append(' ');
+        }
+        return text.toString();
+    }
+
+    private void assertSearchMatchesScan(String query) {
+        Set<Task> expected = Collections.newSetFromMap(new IdentityHashMap<>());
+        String q = query.toLowerCase(Locale.ROOT);
+        for (Task task : tasks) {
+            if (task.getTitle().toLowerCase(Locale.ROOT).contains(q)
+                    || task.getDescription().toLowerCase(Locale.ROOT).contains(q)) {
+                expected.add(task);
+            }
+        }
+        List<Task> found = index.search(query);
+        Set<Task> actual = Collections.newSetFromMap(new IdentityHashMap<>());
+        actual.addAll(found);
+        assertEquals(found.size(), actual.size(), "a task was returned twice for " + query);
+        assertEquals(expected, actual, "query " + query);
+    }
+
+    @Test
+    void intersectsShortAndLongPostingListsLikeAScan() {
+        for (int i = 0; i < 5000; i++) {
+            task(text(), text());
+        }
+        for (String query : List.of("rare", "zebra", "rare report", "report rare", "budget zebra", "meeting",
+                "RE", "e", "repo", "report", "eport review", "ebra", "no such text")) {
+            assertSearchMatchesScan(query);
+        }
+    }
+
+    @Test
+    void followsEditsAndRemovalsThatReuseDocumentNumbers() {
+        for (int i = 0; i < 500; i++) {
+            task(text(), text());
+        }
+        for (int round = 0; round < 2000; round++) {
+            Task task = tasks.get(random.nextInt(tasks.size()));
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    task.setTitle(text());
+                    index.update(task);
+                }
+                case 1 -> {
+                    tasks.remove(task);
+                    index.remove(task);
+                }
+                default -> task(text(), text());
+            }
+        }
+        assertEquals(tasks.size(), index.size());
+        for (String word : WORDS) {
+            assertSearchMatchesScan(word);
+        }
+        assertSearchMatchesScan("rare budget");
+    }
+
+    @Test
+    void doesNotMatchAcrossTitleAndDescription() {
+        Task task = task("quarterly", "report");
+        assertTrue(index.matches(task, "QUARTERLY"));
+        assertTrue(index.search("quarterly report").isEmpty());
+        assertTrue(index.search("lyre").isEmpty());
+    }
+}
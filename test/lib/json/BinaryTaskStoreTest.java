@@ -0,0 +1,131 @@
+package lib.json;
+
+import lib.javafx.Dates;
+import lib.javafx.Reminder;
+import lib.javafx.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryTaskStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static Task task(long id, String title, String category, String dueDate) {
+        Task task = new Task(title, "Details of " + title, category, "Default", dueDate, "Open");
+        task.setId(id);
+        return task;
+    }
+
+    private static List<String> describe(List<Task> tasks) {
+        return tasks.stream().map(task -> String.join("|", String.valueOf(task.getId()), task.getTitle(),
+                task.getDescription(), task.getCategory(), task.getPriority(), task.getDueDate(),
+                String.valueOf(task.getDueEpochDay()), task.getStatus())).toList();
+    }
+
+    private static void skipString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        buffer.position(buffer.position() + length);
+    }
+
+    @Test
+    void readsBackWhatItWrote() throws IOException {
+        Task nullFields = new Task();
+        nullFields.setId(3);
+        nullFields.setTitle("Untitled");
+        List<Task> tasks = List.of(
+                task(1, "Plain", "Binary home", "15/03/2030"),
+                task(2, "Ελληνικά", "Binary work", "someday"), // Kept as written, not as an epoch day
+                nullFields);
+        Reminder reminder = new Reminder("Plain", "01/03/2030", "Soon", "Custom date", "15/03/2030");
+        reminder.setTaskId(1);
+        Reminder rawDate = new Reminder("Ελληνικά", "not a date", null, "One day before deadline", "someday");
+        rawDate.setTaskId(2);
+
+        Path file = dir.resolve("store.bin");
+        BinaryTaskStore.write(file, tasks, List.of(reminder, rawDate));
+        BinaryTaskStore.Contents read = BinaryTaskStore.read(file);
+
+        assertEquals(describe(tasks), describe(read.tasks));
+        assertEquals(Dates.toEpochDay("15/03/2030"), read.tasks.get(0).getDueEpochDay());
+        assertEquals(List.of(reminder, rawDate), read.reminders);
+        assertEquals("not a date", read.reminders.get(1).getDate());
+        assertNull(read.reminders.get(1).getMessage());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of(file), files.toList()); // The temporary file was moved into place
+        }
+    }
+
+    @Test
+    void writesChangesBehindAndLoadsThemOnTheNextStart() throws IOException {
+        Path file = dir.resolve("store.bin");
+        BinaryTaskStore.write(file, List.of(task(1, "Kept", "General", "01/01/2030")), List.of());
+        List<Task> live = new ArrayList<>();
+        BinaryTaskStore store = new BinaryTaskStore(file, () -> live, List::of);
+        live.addAll(store.loadTasks());
+        store.loadReminders();
+
+        Task added = task(2, "Added", "General", "02/01/2030");
+        store.tasksChanged(List.of(added), List.of());
+        added.setTitle("Changed after the commit"); // The store wrote its own copy
+        Reminder reminder = new Reminder("Added", "01/01/2030", "", "Custom date", "02/01/2030");
+        reminder.setTaskId(2);
+        store.remindersChanged(Map.of(2L, List.of(reminder)));
+        store.tasksChanged(List.of(), List.of(1L));
+        store.flush();
+
+        BinaryTaskStore.Contents read = BinaryTaskStore.read(file);
+        assertEquals(List.of("Added"), read.tasks.stream().map(Task::getTitle).toList());
+        assertEquals(List.of(reminder), read.reminders);
+    }
+
+    @Test
+    void rejectsAFileThatIsNotAStore() throws IOException {
+        Path file = dir.resolve("tasks.json");
+        Files.writeString(file, "[]");
+        assertThrows(IOException.class, () -> BinaryTaskStore.read(file));
+    }
+
+    @Test
+    void rejectsATruncatedStore() throws IOException {
+        Path file = dir.resolve("store.bin");
+        BinaryTaskStore.write(file, List.of(task(1, "Plain", "General", "01/01/2030")), List.of());
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(IOException.class, () -> BinaryTaskStore.read(file));
+    }
+
+    @Test
+    void rejectsAStringReferenceOutsideTheTable() throws IOException {
+        Path file = dir.resolve("store.bin");
+        BinaryTaskStore.write(file, List.of(task(1, "Plain", "General", "01/01/2030")), List.of());
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        buffer.position(Integer.BYTES + Short.BYTES); // Magic and version
+        for (int strings = buffer.getInt(); strings > 0; strings--) {
+            skipString(buffer);
+        }
+        buffer.position(buffer.position() + Integer.BYTES + Long.BYTES); // Task count and id
+        skipString(buffer); // Title
+        skipString(buffer); // Description
+        buffer.putInt(buffer.position(), 1000); // The category
+        Files.write(file, buffer.array());
+
+        IOException e = assertThrows(IOException.class, () -> BinaryTaskStore.read(file));
+        assertTrue(e.getMessage().contains(file.toString()), e.getMessage());
+    }
+}
@@ -0,0 +1,106 @@
+package lib.json;
+
+import lib.javafx.Reminder;
+import lib.javafx.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalTaskStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<Task> tasks = new ArrayList<>();
+    private final List<Reminder> reminders = new ArrayList<>();
+
+    @BeforeEach
+    void startWithAnEmptyJournal() throws IOException {
+        Files.createFile(dir.resolve("journal-0.log")); // Otherwise the first start imports the JSON files
+    }
+
+    private JournalTaskStore open() {
+        JournalTaskStore store = new JournalTaskStore(dir, () -> tasks, () -> reminders);
+        tasks.clear();
+        tasks.addAll(store.loadTasks());
+        reminders.clear();
+        reminders.addAll(store.loadReminders());
+        return store;
+    }
+
+    private static Task task(long id, String title, String category) {
+        Task task = new Task(title, "", category, "Default", "01/01/2030", "Open");
+        task.setId(id);
+        return task;
+    }
+
+    private static List<String> describe(List<Task> tasks) {
+        return tasks.stream().map(task -> task.getId() + " " + task.getTitle() + " " + task.getCategory()).toList();
+    }
+
+    @Test
+    void replaysEveryKindOfRecordOnTheNextStart() {
+        JournalTaskStore store = open();
+        Task first = task(1, "First", "Journal work");
+        Task second = task(2, "Second", "Journal home");
+        store.tasksChanged(List.of(first, second, task(3, "Third", "Journal home")), List.of());
+        second.setTitle("Second, edited");
+        store.tasksChanged(List.of(second), List.of());
+        store.tasksChanged(List.of(), List.of(3L));
+        Reminder reminder = new Reminder("First", "01/12/2029", "", "Custom date", "01/01/2030");
+        reminder.setTaskId(1);
+        store.remindersChanged(Map.of(1L, List.of(reminder)));
+        store.categoryRenamed("Journal work", "Journal office");
+        store.flush();
+
+        open();
+        assertEquals(List.of("1 First Journal office", "2 Second, edited Journal home"), describe(tasks));
+        assertEquals(List.of(reminder), reminders);
+    }
+
+    @Test
+    void compactsIntoASnapshotAndSkipsTheSegmentsItCovers() throws IOException {
+        JournalTaskStore store = open();
+        Task task = task(1, "Edited", "General");
+        for (int i = 0; i < 1500; i++) { // A compaction after 1000 records
+            task.setTitle("Edit " + i);
+            store.tasksChanged(List.of(task), List.of());
+        }
+        store.flush();
+
+        assertTrue(Files.exists(dir.resolve("snapshot.json")));
+        assertFalse(Files.exists(dir.resolve("journal-0.log")));
+        assertTrue(Files.exists(dir.resolve("journal-1.log")));
+
+        // As if a crash came between writing the snapshot and deleting the old segment
+        Files.writeString(dir.resolve("journal-0.log"),
+                "{\"op\":\"putTask\",\"id\":1,\"task\":{\"id\":1,\"title\":\"Edit 5\"}}\n", StandardCharsets.UTF_8);
+        open();
+        assertEquals(List.of("1 Edit 1499 General"), describe(tasks));
+    }
+
+    @Test
+    void skipsATornLastLine() throws IOException {
+        JournalTaskStore store = open();
+        store.tasksChanged(List.of(task(1, "Kept", "General")), List.of());
+        store.flush();
+        Files.writeString(dir.resolve("journal-0.log"), "{\"op\":\"putTask\",\"id\":2,\"ta",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        open();
+        assertEquals(List.of("1 Kept General"), describe(tasks));
+    }
+}
@@ -0,0 +1,71 @@
+package lib.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void reportsSmallValuesExactly() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(99, histogram.getValueAtPercentile(99));
+        assertEquals(100, histogram.getValueAtPercentile(100));
+        assertEquals(50.5, histogram.getMean());
+    }
+
+    @Test
+    void reportsLargeValuesWithinTheBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1_000_000); // 1 ms to 10 s
+        }
+
+        assertWithinPrecision(5_000_000_000L, histogram.getValueAtPercentile(50));
+        assertWithinPrecision(9_900_000_000L, histogram.getValueAtPercentile(99));
+        assertWithinPrecision(9_990_000_000L, histogram.getValueAtPercentile(99.9));
+        assertEquals(10_000_000_000L, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void capsPercentilesAtTheMaximum() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000_001);
+
+        assertEquals(1_000_001, histogram.getValueAtPercentile(50));
+        assertEquals(1_000_001, histogram.getMax());
+    }
+
+    @Test
+    void countsNegativeValuesAsZeroAndIsEmptyAtFirst() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        assertEquals(0, histogram.getMean());
+
+        histogram.record(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void everyValueFallsInABucketThatHoldsIt() {
+        for (int bit = 0; bit < 63; bit++) {
+            for (long value : new long[] {(1L << bit) - 1, 1L << bit, (1L << bit) + 1}) {
+                int bucket = LatencyHistogram.bucketOf(value);
+                assertTrue(LatencyHistogram.highestValueIn(bucket) >= value, "bucket too low for " + value);
+                assertTrue(bucket == 0 || LatencyHistogram.highestValueIn(bucket - 1) < value,
+                        "bucket too high for " + value);
+            }
+        }
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 64, "expected about " + expected + " but was " + actual);
+    }
+}